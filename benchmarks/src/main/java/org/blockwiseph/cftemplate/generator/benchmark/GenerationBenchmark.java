@@ -0,0 +1,64 @@
+package org.blockwiseph.cftemplate.generator.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.blockwiseph.cftemplate.generator.CFTemplateGenerator;
+import org.blockwiseph.cftemplate.generator.CFTemplateGeneratorModule;
+import com.google.inject.Guice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures generating a synthetic stack end to end, from rendering the template to saving it to a file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerationBenchmark {
+
+    @Param({"100"})
+    private int tables;
+
+    @Param({"300"})
+    private int methods;
+
+    @Param({"100"})
+    private int roles;
+
+    private Path templateFile;
+    private CFTemplateGenerator generator;
+
+    @Setup
+    public void setUp() throws IOException {
+        templateFile = Files.createTempFile("cftemplate-benchmark", ".yml");
+        generator = Guice.createInjector(new CFTemplateGeneratorModule(templateFile.toString(),
+                SyntheticStack.topLevelSections(SyntheticStack.resourceBuilders(tables, methods, roles))))
+                .getInstance(CFTemplateGenerator.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(templateFile);
+    }
+
+    @Benchmark
+    public void generateCFTemplate() {
+        generator.generateCFTemplate();
+    }
+}
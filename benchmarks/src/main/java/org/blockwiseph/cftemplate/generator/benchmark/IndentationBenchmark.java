@@ -0,0 +1,60 @@
+package org.blockwiseph.cftemplate.generator.benchmark;
+
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.appendYmlIndentation;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.appendYmlIndented;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.ymlIndent;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures indenting a rendered resource to different depths, either by applying ymlIndent once per depth level
+ * or by appending it once with the indentation of the final depth.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndentationBenchmark {
+
+    @Param({"1", "4", "8", "16"})
+    private int depth;
+
+    private String fragment;
+
+    @Setup
+    public void setUp() {
+        fragment = SyntheticStack.resourcesSection(SyntheticStack.resourceBuilders(1, 1, 1)).getSectionContents();
+    }
+
+    @Benchmark
+    public String repeatedYmlIndent() {
+        String indented = fragment;
+        for (int level = 0; level < depth; level++) {
+            indented = ymlIndent(indented);
+        }
+        return indented;
+    }
+
+    @Benchmark
+    public String appendYmlIndentedOnce() throws IOException {
+        final StringBuilder out = new StringBuilder();
+        appendYmlIndentation(out, depth);
+        appendYmlIndented(out, fragment, depth);
+        return out.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package org.blockwiseph.cftemplate.generator.benchmark;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderOptions;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rendering the resources section of synthetic stacks of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderingBenchmark {
+
+    @Param({"10", "100"})
+    private int tables;
+
+    @Param({"10", "300"})
+    private int methods;
+
+    @Param({"10"})
+    private int roles;
+
+    private CFSectionBuilder resourcesSection;
+    private CFRenderOptions parallelOptions;
+
+    @Setup
+    public void setUp() {
+        final List<CFSectionBuilder> resourceBuilders = SyntheticStack.resourceBuilders(tables, methods, roles);
+        resourcesSection = SyntheticStack.resourcesSection(resourceBuilders);
+        parallelOptions = CFRenderOptions.builder()
+                .executor(ForkJoinPool.commonPool())
+                .build();
+    }
+
+    @Benchmark
+    public String sectionContents() {
+        return resourcesSection.getSectionContents();
+    }
+
+    @Benchmark
+    public String parallelSectionContents() {
+        return CFSectionRenderer.renderToString(resourcesSection, parallelOptions);
+    }
+}
@@ -0,0 +1,139 @@
+package org.blockwiseph.cftemplate.generator.benchmark;
+
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.description;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.resources;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.apiResponseForAllowedMethods;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.apiResponseParametersAllTrue;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.getAttArn;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.referencing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.APIGatewayMethod;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.DynamoDBTable;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.IAMRole;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.APIResponse;
+import com.amazonaws.http.HttpMethodName;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
+import com.amazonaws.services.dynamodbv2.model.StreamViewType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Builds synthetic cloud formation stacks of configurable size, with DynamoDB tables with GSIs, API Gateway methods
+ * with API response lists, and IAM roles with long action lists.
+ */
+final class SyntheticStack {
+
+    private static final int GSIS_PER_TABLE = 3;
+    private static final int ACTIONS_PER_ROLE = 100;
+    private static final int CAPACITY = 5;
+    private static final int OK = 200;
+    private static final int BAD_REQUEST = 400;
+
+    private SyntheticStack() {
+    }
+
+    static List<CFSectionBuilder> resourceBuilders(final int tables, final int methods, final int roles) {
+        final List<CFSectionBuilder> resourceBuilders = new ArrayList<>();
+        IntStream.range(0, tables).mapToObj(SyntheticStack::table).forEach(resourceBuilders::add);
+        IntStream.range(0, methods).mapToObj(SyntheticStack::method).forEach(resourceBuilders::add);
+        IntStream.range(0, roles).mapToObj(SyntheticStack::role).forEach(resourceBuilders::add);
+        return resourceBuilders;
+    }
+
+    static CFSectionBuilder resourcesSection(final List<CFSectionBuilder> resourceBuilders) {
+        return resources(resourceBuilders.toArray(new CFSectionBuilder[0]));
+    }
+
+    static List<CFSectionBuilder> topLevelSections(final List<CFSectionBuilder> resourceBuilders) {
+        return ImmutableList.of(
+                description("Synthetic benchmark stack"),
+                resourcesSection(resourceBuilders));
+    }
+
+    private static DynamoDBTable table(final int index) {
+        return DynamoDBTable.builder()
+                .resourceId("Table" + index)
+                .tableName("table-" + index)
+                .partitionKey(key("id" + index, "sort" + index))
+                .provisionedThroughput(provision())
+                .streamViewType(StreamViewType.NEW_AND_OLD_IMAGES)
+                .globalSecondaryIndexes(IntStream.range(0, GSIS_PER_TABLE)
+                        .mapToObj(gsi -> DynamoDBTable.GlobalSecondaryIndex.builder()
+                                .name("gsi" + gsi)
+                                .key(key("gsiHash" + gsi, "gsiRange" + gsi))
+                                .projectionType(ProjectionType.ALL)
+                                .provisionedThroughput(provision())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private static DynamoDBTable.Key key(final String hashKey, final String rangeKey) {
+        return DynamoDBTable.Key.builder()
+                .hashKey(DynamoDBTable.Attribute.builder().name(hashKey).type(DynamoDBTable.Type.STRING).build())
+                .rangeKey(DynamoDBTable.Attribute.builder().name(rangeKey).type(DynamoDBTable.Type.NUMBER).build())
+                .build();
+    }
+
+    private static DynamoDBTable.Provision provision() {
+        return DynamoDBTable.Provision.builder().readCapacity(CAPACITY).writeCapacity(CAPACITY).build();
+    }
+
+    private static APIGatewayMethod method(final int index) {
+        return APIGatewayMethod.builder()
+                .resourceId("Method" + index)
+                .operationName("operation" + index)
+                .restAPIId(referencing("RestApi"))
+                .apiResourceId(referencing("ApiResource" + index))
+                .authorizerId(referencing("Authorizer"))
+                .authorizationType(APIGatewayMethod.AuthorizationType.COGNITO_USER_POOLS)
+                .httpMethod(HttpMethodName.POST)
+                .integrationType(APIGatewayMethod.IntegrationType.AWS)
+                .integrationHttpMethod(HttpMethodName.POST)
+                .lambdaArn(getAttArn("Function" + index))
+                .requestTemplates(ImmutableMap.of("application/json", "\"{ \\\"body\\\": $input.json('$') }\""))
+                .passthroughBehavior(APIGatewayMethod.PassthroughBehavior.WHEN_NO_TEMPLATES)
+                .integrationResponses(ImmutableList.of(
+                        APIResponse.builder()
+                                .statusCode(OK)
+                                .responseParameters(apiResponseForAllowedMethods(HttpMethodName.POST))
+                                .responseTemplates(ImmutableMap.of("application/json", "\"\""))
+                                .build(),
+                        APIResponse.builder()
+                                .statusCode(BAD_REQUEST)
+                                .selectionPattern("\".*BadRequest.*\"")
+                                .responseParameters(apiResponseForAllowedMethods(HttpMethodName.POST))
+                                .build()))
+                .methodResponses(ImmutableList.of(
+                        APIResponse.builder()
+                                .statusCode(OK)
+                                .responseParameters(apiResponseParametersAllTrue())
+                                .responseModels(ImmutableMap.of("application/json", "Empty"))
+                                .build(),
+                        APIResponse.builder()
+                                .statusCode(BAD_REQUEST)
+                                .responseParameters(apiResponseParametersAllTrue())
+                                .build()))
+                .build();
+    }
+
+    private static IAMRole role(final int index) {
+        return IAMRole.builder()
+                .resourceId("Role" + index)
+                .assumableServicesStatement(IAMRole.PolicyStatement.builder()
+                        .principal("Service")
+                        .actionName("AssumeRole")
+                        .allowedServices(ImmutableList.of("lambda.amazonaws.com", "apigateway.amazonaws.com"))
+                        .build())
+                .allowedActions(IntStream.range(0, ACTIONS_PER_ROLE)
+                        .mapToObj(action -> "service" + action % GSIS_PER_TABLE + ":Action" + action)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
@@ -27,7 +27,9 @@ public enum AWSResourceType {
     API_GATEWAY_METHOD("AWS::ApiGateway::Method"),
     API_GATEWAY_DEPLOYEMENT("AWS::ApiGateway::Deployment"),
     API_GATEWAY_STAGE("AWS::ApiGateway::Stage"),
-    IAM_ROLE("AWS::IAM::Role");
+    IAM_ROLE("AWS::IAM::Role"),
+    IAM_MANAGED_POLICY("AWS::IAM::ManagedPolicy"),
+    CLOUDFORMATION_STACK("AWS::CloudFormation::Stack");
 
     private final String typeRepresentation;
 
@@ -0,0 +1,20 @@
+package org.blockwiseph.cftemplate.generator;
+
+import java.util.List;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Value class defining a single cloud formation stack to generate: its name, the path of the template file to save
+ * it to, and the top level section builders of its template.
+ */
+@Builder
+@Getter
+public class CFStackDefinition {
+
+    private final String stackName;
+    private final String cfTemplateFilePath;
+    private final List<CFSectionBuilder> topLevelSectionBuilders;
+}
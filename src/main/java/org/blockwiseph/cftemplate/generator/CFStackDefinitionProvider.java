@@ -0,0 +1,20 @@
+package org.blockwiseph.cftemplate.generator;
+
+import java.util.List;
+
+/**
+ * Service provider interface for the stacks of an application, so that the stacks of all the applications on the
+ * classpath can be discovered with a ServiceLoader, and generated together in one JVM, as described in
+ * @see org.blockwiseph.cftemplate.generator.CFStackDefinitions
+ *
+ * Implementations need a public constructor without arguments, and are registered by listing their fully qualified
+ * class names in a META-INF/services/org.blockwiseph.cftemplate.generator.CFStackDefinitionProvider resource.
+ */
+public interface CFStackDefinitionProvider {
+
+    /**
+     * @return the stacks to generate, each with a name that is unique across all the providers, the path of the
+     *         template file to save it to, and the top level section builders of its template
+     */
+    List<CFStackDefinition> getStackDefinitions();
+}
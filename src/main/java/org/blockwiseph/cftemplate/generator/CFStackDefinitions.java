@@ -0,0 +1,102 @@
+package org.blockwiseph.cftemplate.generator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * Contains methods to discover the stacks defined by the stack definition providers on the classpath, and to select
+ * stacks by name, so they can be generated together by
+ * @see org.blockwiseph.cftemplate.generator.CFTemplateBatchGenerator
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CFStackDefinitions {
+
+    /**
+     * Loads the stacks of all the stack definition providers registered with the class loader, in the order the
+     * providers are found in, and the order each provider returns its stacks in.
+     *
+     * @param classLoader the class loader to find the providers with
+     * @return the stacks of all the providers
+     * @throws IllegalStateException if a provider can not be loaded, or two stacks have the same name
+     */
+    public static List<CFStackDefinition> load(final ClassLoader classLoader) {
+        final List<CFStackDefinition> stackDefinitions = new ArrayList<>();
+        final Map<String, String> providersByStackName = new HashMap<>();
+        try {
+            for (final CFStackDefinitionProvider provider
+                    : ServiceLoader.load(CFStackDefinitionProvider.class, classLoader)) {
+                final String providerName = provider.getClass().getName();
+                for (final CFStackDefinition stackDefinition : provider.getStackDefinitions()) {
+                    final String previousProvider =
+                            providersByStackName.putIfAbsent(stackDefinition.getStackName(), providerName);
+                    if (previousProvider != null) {
+                        throw new IllegalStateException(String.format("Stack %s is defined by both %s and %s",
+                                stackDefinition.getStackName(), previousProvider, providerName));
+                    }
+                    stackDefinitions.add(stackDefinition);
+                }
+            }
+        } catch (ServiceConfigurationError e) {
+            throw new IllegalStateException("Unable to load stack definition providers", e);
+        }
+        return stackDefinitions;
+    }
+
+    /**
+     * Selects the stacks whose names match any of the patterns, in which '*' matches any number of characters, and '?'
+     * matches a single character.
+     *
+     * @param stackDefinitions the stacks to select from
+     * @param namePatterns     the patterns of the names of the stacks to select, or no patterns to select all the stacks
+     * @return the selected stacks, in the same order as the passed in stacks
+     * @throws IllegalArgumentException if a pattern matches none of the stacks, which is most likely a typo
+     */
+    public static List<CFStackDefinition> select(final List<CFStackDefinition> stackDefinitions,
+                                                 final Collection<String> namePatterns) {
+        if (namePatterns.isEmpty()) {
+            return stackDefinitions;
+        }
+        final Map<String, Pattern> patterns = new LinkedHashMap<>();
+        namePatterns.forEach(namePattern -> patterns.put(namePattern, globPattern(namePattern)));
+        for (final Map.Entry<String, Pattern> pattern : patterns.entrySet()) {
+            if (stackDefinitions.stream().noneMatch(stack -> pattern.getValue().matcher(stack.getStackName()).matches())) {
+                throw new IllegalArgumentException("No stack matches " + pattern.getKey());
+            }
+        }
+        return stackDefinitions.stream()
+                .filter(stack -> patterns.values().stream()
+                        .anyMatch(pattern -> pattern.matcher(stack.getStackName()).matches()))
+                .collect(Collectors.toList());
+    }
+
+    private static Pattern globPattern(final String namePattern) {
+        final StringBuilder regex = new StringBuilder();
+        final StringBuilder literal = new StringBuilder();
+        for (final char c : namePattern.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,32 @@
+package org.blockwiseph.cftemplate.generator;
+
+import java.util.Optional;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Value class with the result of generating a single stack: how long rendering and saving its template took, and the
+ * failure if the stack could not be generated.
+ */
+@Builder
+@Getter
+public class CFStackGenerationResult {
+
+    private final String stackName;
+    private final String cfTemplateFilePath;
+    private final long renderNanos;
+    private final long saveNanos;
+
+    @Getter(AccessLevel.NONE)
+    private final Throwable failure;
+
+    public boolean isSuccessful() {
+        return failure == null;
+    }
+
+    public Optional<Throwable> getFailure() {
+        return Optional.ofNullable(failure);
+    }
+}
@@ -0,0 +1,244 @@
+package org.blockwiseph.cftemplate.generator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.blockwiseph.cftemplate.generator.metrics.CFFlightRecorder;
+import org.blockwiseph.cftemplate.generator.metrics.CFFlightRecording;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderListener;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderOptions;
+import com.google.common.util.concurrent.Futures;
+import lombok.Builder;
+
+/**
+ * Generates many stacks concurrently in one JVM, without creating a Guice injector per stack.
+ *
+ * At most maxConcurrency stacks are rendered and saved at the same time. Virtual threads are used when the runtime
+ * supports them, and a fixed thread pool otherwise. A failure to generate one stack does not abort the others, and is
+ * reported in the result of that stack.
+ * In incremental mode, the template of a stack is only saved if it changed since it was last saved.
+ * If template limits are set, a stack whose template exceeds them fails, or is saved with a warning, as set in the limits.
+ * If validating references is set, a stack whose template references undefined logical ids fails.
+ * If a render listener is set, it is shared by all stacks, so it must be thread safe.
+ * The supply and save phases of each stack are recorded as Java Flight Recorder events, like
+ * @see org.blockwiseph.cftemplate.generator.CFTemplateGenerator
+ *
+ * The stacks can also be generated pipelined, with generateAsync, so the template of a stack is saved while it is
+ * rendered, and the next stack is rendered while the last chunks of the template of the previous one are written.
+ */
+@Builder
+public class CFTemplateBatchGenerator {
+
+    @Builder.Default
+    private final int maxConcurrency = Runtime.getRuntime().availableProcessors();
+
+    @Builder.Default
+    private final CFRenderOptions renderOptions = CFRenderOptions.SEQUENTIAL;
+
+    @Builder.Default
+    private final CFTemplateFormat templateFormat = CFTemplateFormat.YAML;
+
+    private final CFRenderListener renderListener;
+    private final CFTemplateLimits templateLimits;
+    private final boolean validateReferences;
+    private final boolean syncOnSave;
+    private final boolean incremental;
+
+    /**
+     * Generates the passed in stacks concurrently, and waits until all of them are generated.
+     *
+     * @param stackDefinitions the stacks to generate
+     * @return the result of each stack, in the same order as the passed in stacks
+     */
+    public List<CFStackGenerationResult> generate(final Collection<CFStackDefinition> stackDefinitions) {
+        final Semaphore permits = new Semaphore(maxConcurrency);
+        final ExecutorService executor = newExecutor();
+        try {
+            final List<Future<CFStackGenerationResult>> results = stackDefinitions.stream()
+                    .map(stackDefinition -> executor.submit(() -> generate(stackDefinition, permits)))
+                    .collect(Collectors.toList());
+            return results.stream()
+                    .map(Futures::getUnchecked)
+                    .collect(Collectors.toList());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates the passed in stacks concurrently and pipelined. The template of each stack is saved while it is
+     * rendered, as described in CFTemplateGenerator.generateCFTemplateAsync, and the permit of a stack is released as
+     * soon as its template is rendered, so at most maxConcurrency templates are rendered at the same time, while the
+     * templates rendered before them are still being written.
+     * The save time of each stack is the time it took to finish saving its template once it was rendered.
+     *
+     * @param stackDefinitions the stacks to generate
+     * @return a future of the result of each stack, in the same order as the passed in stacks, which completes once all
+     *         of them are generated
+     */
+    public CompletableFuture<List<CFStackGenerationResult>> generateAsync(
+            final Collection<CFStackDefinition> stackDefinitions) {
+        final Semaphore permits = new Semaphore(maxConcurrency);
+        final ExecutorService executor = newPipelineExecutor();
+        final List<CFStackDefinition> stacks = new ArrayList<>(stackDefinitions);
+        final List<CompletableFuture<CFStackGenerationResult>> results = stacks.stream()
+                .map(stackDefinition -> new CompletableFuture<CFStackGenerationResult>())
+                .collect(Collectors.toList());
+        executor.execute(() -> {
+            for (int index = 0; index < stacks.size(); index++) {
+                final CompletableFuture<CFStackGenerationResult> result = results.get(index);
+                generateAsync(stacks.get(index), permits, executor).whenComplete((generated, failure) -> {
+                    if (failure != null) {
+                        result.completeExceptionally(failure);
+                    } else {
+                        result.complete(generated);
+                    }
+                });
+            }
+        });
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0]))
+                .thenApply(allGenerated -> results.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList()))
+                .whenComplete((generated, failure) -> executor.shutdown());
+    }
+
+    private CompletableFuture<CFStackGenerationResult> generateAsync(final CFStackDefinition stackDefinition,
+                                                                     final Semaphore permits,
+                                                                     final ExecutorService executor) {
+        final CFStackGenerationResult.CFStackGenerationResultBuilder result = CFStackGenerationResult.builder()
+                .stackName(stackDefinition.getStackName())
+                .cfTemplateFilePath(stackDefinition.getCfTemplateFilePath());
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(result.failure(e).build());
+        }
+
+        final CFTemplateGenerator.AsyncGeneration generation;
+        final long renderStart = System.nanoTime();
+        try {
+            generation = newModule(stackDefinition).getCFTemplateGenerator().startAsyncGeneration(executor);
+        } catch (RuntimeException e) {
+            permits.release();
+            return CompletableFuture.completedFuture(result.failure(e).build());
+        }
+        final CompletableFuture<Long> renderEnd = generation.getRendered().handle((rendered, failure) -> {
+            permits.release();
+            return System.nanoTime();
+        });
+        return CompletableFuture.allOf(renderEnd, generation.getSaved()).handle((generated, ignored) -> {
+            final long saveEnd = System.nanoTime();
+            result.renderNanos(renderEnd.join() - renderStart);
+            final Throwable failure = failureOf(generation.getRendered());
+            if (failure != null) {
+                return result.failure(failure).build();
+            }
+            final Throwable saveFailure = failureOf(generation.getSaved());
+            return saveFailure != null
+                    ? result.failure(saveFailure).build()
+                    : result.saveNanos(saveEnd - renderEnd.join()).build();
+        });
+    }
+
+    /**
+     * @return the failure of a completed future, or null if it completed normally
+     */
+    private static Throwable failureOf(final CompletableFuture<?> future) {
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause();
+        } catch (CancellationException e) {
+            return e;
+        }
+    }
+
+    private CFStackGenerationResult generate(final CFStackDefinition stackDefinition, final Semaphore permits) {
+        final CFStackGenerationResult.CFStackGenerationResultBuilder result = CFStackGenerationResult.builder()
+                .stackName(stackDefinition.getStackName())
+                .cfTemplateFilePath(stackDefinition.getCfTemplateFilePath());
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return result.failure(e).build();
+        }
+
+        try {
+            final CFTemplateGenerator cfTemplateGenerator = newModule(stackDefinition).getCFTemplateGenerator();
+            final Supplier<RenderedCFTemplate> cfTemplateSupplier = cfTemplateGenerator.getEncodedCFTemplateSupplier();
+            final Consumer<RenderedCFTemplate> cfTemplateSaver = cfTemplateGenerator.getEncodedCFTemplateSaver();
+
+            final long renderStart = System.nanoTime();
+            final CFFlightRecording supplyRecording = CFFlightRecorder.beginGenerationPhase(CFFlightRecorder.SUPPLY_PHASE);
+            final RenderedCFTemplate cfTemplate = cfTemplateSupplier.get();
+            supplyRecording.end(cfTemplate.size());
+            final long saveStart = System.nanoTime();
+            result.renderNanos(saveStart - renderStart);
+            final CFFlightRecording saveRecording = CFFlightRecorder.beginGenerationPhase(CFFlightRecorder.SAVE_PHASE);
+            cfTemplateSaver.accept(cfTemplate);
+            saveRecording.end(cfTemplate.size());
+            result.saveNanos(System.nanoTime() - saveStart);
+        } catch (RuntimeException e) {
+            result.failure(e);
+        } finally {
+            permits.release();
+        }
+        return result.build();
+    }
+
+    private CFTemplateGeneratorModule newModule(final CFStackDefinition stackDefinition) {
+        return CFTemplateGeneratorModule.builder()
+                .cfTemplateFilePath(stackDefinition.getCfTemplateFilePath())
+                .topLevelSectionBuilders(stackDefinition.getTopLevelSectionBuilders())
+                .renderOptions(renderOptions)
+                .renderListener(renderListener)
+                .templateFormat(templateFormat)
+                .templateLimits(templateLimits)
+                .validateReferences(validateReferences)
+                .syncOnSave(syncOnSave)
+                .incremental(incremental)
+                .build();
+    }
+
+    /**
+     * Creates an executor with a virtual thread per task if the runtime supports virtual threads, or a fixed thread
+     * pool of maxConcurrency threads otherwise. The number of stacks generated at once is bounded by the semaphore in
+     * both cases.
+     */
+    private ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(maxConcurrency);
+        }
+    }
+
+    /**
+     * Creates an executor with a virtual thread per task if the runtime supports virtual threads, or a cached thread
+     * pool otherwise, since the task starting the stacks blocks on the semaphore while the stacks are rendered on the
+     * same executor. The number of stacks rendered at once is bounded by the semaphore in both cases, which is acquired
+     * by a single task starting the stacks one after another.
+     */
+    private static ExecutorService newPipelineExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -1,25 +1,154 @@
 package org.blockwiseph.cftemplate.generator;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
 import java.util.function.Consumer;
 
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
+import org.blockwiseph.cftemplate.generator.metrics.CFFlightRecorder;
+import org.blockwiseph.cftemplate.generator.metrics.CFFlightRecording;
+import org.blockwiseph.cftemplate.generator.util.Utf8ByteEmitter;
 
-@AllArgsConstructor(access = AccessLevel.PACKAGE)
+/**
+ * Saves the template to a file, encoded as UTF-8. A template that is already encoded is written to the file with
+ * gathering writes of its buffers.
+ * The template is written to a temporary file in the same directory, which is then atomically renamed to the template
+ * file, so readers never see a partially written template. Optionally, the temporary file is forced to the storage
+ * device before it is renamed.
+ * Each save is recorded as a Java Flight Recorder event, with the path and size of the template file, as described in
+ * @see org.blockwiseph.cftemplate.generator.metrics.CFFlightRecorder
+ */
 class CFTemplateFileSaver implements Consumer<String> {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final String cfTemplateFilePath;
+    private final boolean syncOnSave;
+    private ByteBuffer buffer;
+
+    CFTemplateFileSaver(final String cfTemplateFilePath) {
+        this(cfTemplateFilePath, false);
+    }
+
+    CFTemplateFileSaver(final String cfTemplateFilePath, final boolean syncOnSave) {
+        this.cfTemplateFilePath = cfTemplateFilePath;
+        this.syncOnSave = syncOnSave;
+    }
 
     @Override
-    public void accept(String s) {
+    public void accept(final String s) {
+        save(writer -> writer.write(s));
+    }
+
+    /**
+     * Atomically replaces the template file with the contents written by the template writer.
+     * The direct buffer of the writer is allocated by the first such save and reused by the next ones, so saving is
+     * serialized per saver, and savers of encoded or streamed templates never allocate it.
+     *
+     * @param templateWriter writes the template contents to the passed in Writer
+     */
+    synchronized void save(final TemplateWriter templateWriter) {
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+        final ByteBuffer writeBuffer = buffer;
+        saveAtomically(channel -> {
+            try (Writer writer = new FileChannelTemplateWriter(channel, writeBuffer, syncOnSave)) {
+                templateWriter.write(writer);
+            }
+        });
+    }
+
+    /**
+     * Atomically replaces the template file with the bytes of an encoded template.
+     *
+     * @param template the template, encoded as UTF-8
+     */
+    void save(final Utf8ByteEmitter template) {
+        saveAtomically(channel -> {
+            template.writeTo(channel);
+            if (syncOnSave) {
+                channel.force(true);
+            }
+        });
+    }
+
+    /**
+     * Atomically replaces the template file with the chunks of a template, writing them as they arrive while the
+     * template is rendered. Nothing is saved if rendering the template fails.
+     *
+     * @param chunks the chunks of the template, encoded as UTF-8
+     */
+    void save(final TemplateChunkQueue chunks) {
+        saveAtomically(channel -> {
+            chunks.drainTo(channel);
+            if (syncOnSave) {
+                channel.force(true);
+            }
+        });
+    }
+
+    private void saveAtomically(final ChannelWriter channelWriter) {
+        final Path templateFile = Paths.get(cfTemplateFilePath).toAbsolutePath();
+        final Path tempFile = templateFile.resolveSibling(
+                "." + templateFile.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        final CFFlightRecording saveRecording = CFFlightRecorder.beginSave(templateFile.toString());
         try {
-            Files.write(Paths.get(cfTemplateFilePath), s.getBytes(Charset.defaultCharset()));
+            try (FileChannel channel =
+                         FileChannel.open(tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                channelWriter.write(channel);
+            }
+            moveAtomically(tempFile, templateFile);
+            if (saveRecording.isEnabled()) {
+                saveRecording.end(Files.size(templateFile));
+            }
         } catch (IOException e) {
-            throw new RuntimeException("Unable to save yaml file");
+            deleteTempFile(tempFile, e);
+            throw new UncheckedIOException("Unable to save yaml file " + templateFile, e);
+        } catch (RuntimeException e) {
+            deleteTempFile(tempFile, e);
+            throw e;
         }
     }
+
+    private static void moveAtomically(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteTempFile(final Path tempFile, final Exception cause) {
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Writes the contents of a template to a Writer.
+     */
+    @FunctionalInterface
+    interface TemplateWriter {
+        void write(Writer writer) throws IOException;
+    }
+
+    /**
+     * Writes the contents of a template to the channel of the temporary file.
+     */
+    @FunctionalInterface
+    private interface ChannelWriter {
+        void write(FileChannel channel) throws IOException;
+    }
 }
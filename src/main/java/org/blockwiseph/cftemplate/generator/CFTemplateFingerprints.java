@@ -0,0 +1,115 @@
+package org.blockwiseph.cftemplate.generator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Value class with the fingerprints of a rendered template: one for the whole template, one for each top level
+ * section, and one for each resource, keyed by resource id.
+ *
+ * The fingerprints of the last saved template are kept in an index file next to the template file, so that a later
+ * run can tell whether the template, or which of its sections and resources, changed since.
+ * The index is a text file with one fingerprint per line, e.g.
+ * <pre>
+ * template 3f2a...
+ * section 91bc...
+ * resource MyLambdaFunction 07de...
+ * </pre>
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+public class CFTemplateFingerprints {
+
+    private static final String INDEX_FILE_SUFFIX = ".fingerprints";
+    private static final String TEMPLATE = "template";
+    private static final String SECTION = "section";
+    private static final String RESOURCE = "resource";
+    private static final int FINGERPRINT_LINE_PARTS = 2;
+    private static final int RESOURCE_LINE_PARTS = 3;
+
+    private final String templateFingerprint;
+    private final List<String> sectionFingerprints;
+    private final Map<String, String> resourceFingerprints;
+
+    /**
+     * Returns the path of the index file for a template file, which is a hidden file in the same directory.
+     *
+     * @param cfTemplateFilePath the path of the template file
+     * @return the path of the index file with the fingerprints of the template
+     */
+    public static Path indexFileOf(final String cfTemplateFilePath) {
+        final Path templateFile = Paths.get(cfTemplateFilePath).toAbsolutePath();
+        return templateFile.resolveSibling("." + templateFile.getFileName() + INDEX_FILE_SUFFIX);
+    }
+
+    /**
+     * Reads the fingerprints from an index file.
+     *
+     * @param indexFile the index file to read
+     * @return the fingerprints in the index file, or empty if there is no index file or it is not a valid index
+     * @throws UncheckedIOException if the index file exists, but can not be read
+     */
+    public static Optional<CFTemplateFingerprints> read(final Path indexFile) {
+        String templateFingerprint = null;
+        final List<String> sectionFingerprints = new ArrayList<>();
+        final Map<String, String> resourceFingerprints = new LinkedHashMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] parts = line.split(" ");
+                if (parts.length == FINGERPRINT_LINE_PARTS && TEMPLATE.equals(parts[0])) {
+                    templateFingerprint = parts[1];
+                } else if (parts.length == FINGERPRINT_LINE_PARTS && SECTION.equals(parts[0])) {
+                    sectionFingerprints.add(parts[1]);
+                } else if (parts.length == RESOURCE_LINE_PARTS && RESOURCE.equals(parts[0])) {
+                    resourceFingerprints.put(parts[1], parts[2]);
+                } else {
+                    return Optional.empty();
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read fingerprints from " + indexFile, e);
+        }
+
+        if (templateFingerprint == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new CFTemplateFingerprints(templateFingerprint, sectionFingerprints, resourceFingerprints));
+    }
+
+    /**
+     * Writes the fingerprints in the format of an index file.
+     *
+     * @param writer the Writer to write the fingerprints to
+     * @throws IOException if writing fails
+     */
+    public void write(final Writer writer) throws IOException {
+        writer.write(TEMPLATE + " " + templateFingerprint + "\n");
+        for (final String sectionFingerprint : sectionFingerprints) {
+            writer.write(SECTION + " " + sectionFingerprint + "\n");
+        }
+        for (final Map.Entry<String, String> resourceFingerprint : resourceFingerprints.entrySet()) {
+            writer.write(RESOURCE + " " + resourceFingerprint.getKey() + " " + resourceFingerprint.getValue() + "\n");
+        }
+    }
+}
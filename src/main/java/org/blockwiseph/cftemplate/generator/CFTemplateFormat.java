@@ -0,0 +1,27 @@
+package org.blockwiseph.cftemplate.generator;
+
+/**
+ * Enum containing the formats the cloud formation template can be generated in.
+ * The JSON formats use the long form of the intrinsic functions, e.g. {"Ref": "Bucket"} for "!Ref Bucket".
+ * The compact YAML formats write the leaves of the template in flow style with minimal whitespace, with the intrinsic
+ * functions in their long form, or in their short form, as described in
+ * @see org.blockwiseph.cftemplate.generator.yaml.CFCompactYamlTranslator
+ *
+ * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/template-formats.html">AWS CloudFormation Template Formats Documentation</a>
+ */
+public enum CFTemplateFormat {
+
+    YAML,
+    JSON,
+    PRETTY_JSON,
+    COMPACT_YAML,
+    COMPACT_YAML_SHORT_FUNCTIONS;
+
+    boolean isJson() {
+        return this == JSON || this == PRETTY_JSON;
+    }
+
+    boolean isCompactYaml() {
+        return this == COMPACT_YAML || this == COMPACT_YAML_SHORT_FUNCTIONS;
+    }
+}
@@ -1,24 +1,196 @@
 package org.blockwiseph.cftemplate.generator;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
+import org.blockwiseph.cftemplate.generator.metrics.CFFlightRecorder;
+import org.blockwiseph.cftemplate.generator.metrics.CFFlightRecording;
+import org.blockwiseph.cftemplate.generator.util.Utf8ByteEmitter;
 import com.google.inject.Inject;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 /**
  * The main Generator class. It takes in a template supplier and template saver.
  * It calls the supplier to get the template, and then invokes the saved with the returned template.
+ * If the supplier fails, e.g. because the template exceeds the CloudFormation quotas it is checked against, nothing is
+ * saved.
+ * If an encoded template supplier and saver are set, the template is passed from one to the other encoded as UTF-8
+ * bytes instead, so it is never built as a String.
+ * If a streaming template supplier and saver are set, the template can be generated asynchronously, saving it while it
+ * is rendered, as described in generateCFTemplateAsync.
+ * The supply and save phases are recorded as Java Flight Recorder events, as described in
+ * @see org.blockwiseph.cftemplate.generator.metrics.CFFlightRecorder
  */
-@AllArgsConstructor(access = AccessLevel.PACKAGE, onConstructor = @__({@Inject}))
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter(AccessLevel.PACKAGE)
 public class CFTemplateGenerator {
 
+    private static final AtomicInteger SAVER_THREADS = new AtomicInteger();
+    private static final ExecutorService SAVER_EXECUTOR = Executors.newCachedThreadPool(saveTask -> {
+        final Thread saverThread = new Thread(saveTask, "cf-template-saver-" + SAVER_THREADS.incrementAndGet());
+        saverThread.setDaemon(true);
+        return saverThread;
+    });
+
     private final Supplier<String> cfTemplateSupplier;
     private final Consumer<String> cfTemplateSaver;
+    private final Supplier<RenderedCFTemplate> encodedCFTemplateSupplier;
+    private final Consumer<RenderedCFTemplate> encodedCFTemplateSaver;
+    private final Consumer<Utf8ByteEmitter> streamingCFTemplateSupplier;
+    private final Consumer<TemplateChunkQueue> streamingCFTemplateSaver;
+
+    @Inject
+    CFTemplateGenerator(final Supplier<String> cfTemplateSupplier, final Consumer<String> cfTemplateSaver) {
+        this(cfTemplateSupplier, cfTemplateSaver, null, null, null, null);
+    }
+
+    CFTemplateGenerator(final Supplier<String> cfTemplateSupplier, final Consumer<String> cfTemplateSaver,
+                        final Supplier<RenderedCFTemplate> encodedCFTemplateSupplier,
+                        final Consumer<RenderedCFTemplate> encodedCFTemplateSaver) {
+        this(cfTemplateSupplier, cfTemplateSaver, encodedCFTemplateSupplier, encodedCFTemplateSaver, null, null);
+    }
 
     public void generateCFTemplate() {
+        final CFFlightRecording supplyRecording = CFFlightRecorder.beginGenerationPhase(CFFlightRecorder.SUPPLY_PHASE);
+        if (encodedCFTemplateSupplier != null) {
+            final RenderedCFTemplate cfTemplate = encodedCFTemplateSupplier.get();
+            supplyRecording.end(cfTemplate.size());
+            final CFFlightRecording saveRecording = CFFlightRecorder.beginGenerationPhase(CFFlightRecorder.SAVE_PHASE);
+            encodedCFTemplateSaver.accept(cfTemplate);
+            saveRecording.end(cfTemplate.size());
+            return;
+        }
         final String cfTemplate = cfTemplateSupplier.get();
+        final long bytes = supplyRecording.isEnabled() ? Utf8ByteEmitter.encodedLength(cfTemplate, 0, cfTemplate.length()) : -1;
+        supplyRecording.end(bytes);
+        final CFFlightRecording saveRecording = CFFlightRecorder.beginGenerationPhase(CFFlightRecorder.SAVE_PHASE);
         cfTemplateSaver.accept(cfTemplate);
+        saveRecording.end(bytes);
+    }
+
+    /**
+     * Generates the template asynchronously. The template is rendered and encoded into a bounded queue of chunks by one
+     * task, while another task writes the chunks to the template file as they arrive, so writing the template overlaps
+     * rendering it, and the memory held by the template is bounded by the queue rather than by the size of the
+     * template. The template is rendered on the passed in executor, while the chunks are written on a dedicated saver
+     * thread, since the writing task blocks until the chunks arrive, and would keep the rendering task from ever running
+     * if they shared an executor that can not run both at the same time, e.g. a single thread executor or a saturated
+     * pool.
+     *
+     * If the template can not be streamed, e.g. in incremental mode, where it is only saved if it changed, it is
+     * rendered by one task, and saved by another once it is rendered.
+     *
+     * @param executor the executor to render the template on
+     * @return a future that completes once the template is saved, or completes exceptionally with the failure to render
+     *         the template, or else to save it. If rendering fails, the template file is left untouched.
+     */
+    public CompletableFuture<Void> generateCFTemplateAsync(final Executor executor) {
+        final AsyncGeneration generation = startAsyncGeneration(executor);
+        return generation.getRendered().thenCombine(generation.getSaved(), (rendered, saved) -> null);
+    }
+
+    /**
+     * Starts generating the template asynchronously, as described in generateCFTemplateAsync.
+     *
+     * @return the futures of the rendering and the saving of the template
+     */
+    AsyncGeneration startAsyncGeneration(final Executor executor) {
+        if (streamingCFTemplateSupplier != null) {
+            return startStreamingGeneration(executor);
+        } else if (encodedCFTemplateSupplier != null) {
+            return startGeneration(encodedCFTemplateSupplier, encodedCFTemplateSaver, RenderedCFTemplate::size, executor);
+        }
+        return startGeneration(cfTemplateSupplier, cfTemplateSaver,
+                cfTemplate -> Utf8ByteEmitter.encodedLength(cfTemplate, 0, cfTemplate.length()), executor);
+    }
+
+    private AsyncGeneration startStreamingGeneration(final Executor executor) {
+        final TemplateChunkQueue chunks = new TemplateChunkQueue();
+        final Utf8ByteEmitter cfTemplate = new Utf8ByteEmitter(chunks);
+        final CompletableFuture<Void> saved = CompletableFuture.runAsync(() -> {
+            final CFFlightRecording saveRecording = CFFlightRecorder.beginGenerationPhase(CFFlightRecorder.SAVE_PHASE);
+            streamingCFTemplateSaver.accept(chunks);
+            saveRecording.end(cfTemplate.size());
+        }, SAVER_EXECUTOR);
+        saved.whenComplete((ignored, failure) -> {
+            if (failure != null) {
+                chunks.abort(failure instanceof CompletionException ? failure.getCause() : failure);
+            }
+        });
+        final CompletableFuture<Void> rendered;
+        try {
+            rendered = CompletableFuture.runAsync(() -> {
+                final CFFlightRecording supplyRecording =
+                        CFFlightRecorder.beginGenerationPhase(CFFlightRecorder.SUPPLY_PHASE);
+                try {
+                    streamingCFTemplateSupplier.accept(cfTemplate);
+                    cfTemplate.flush();
+                    chunks.close();
+                } catch (IOException e) {
+                    throw renderingFailure(chunks, new UncheckedIOException("Unable to render template", e));
+                } catch (RuntimeException e) {
+                    throw renderingFailure(chunks, e);
+                }
+                supplyRecording.end(cfTemplate.size());
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            chunks.fail(e);
+            throw e;
+        }
+        rendered.whenComplete((ignored, failure) -> {
+            if (failure != null && chunks.getSaveFailure() == null) {
+                chunks.fail(failure instanceof CompletionException ? failure.getCause() : failure);
+            }
+        });
+        return new AsyncGeneration(rendered, saved);
+    }
+
+    /**
+     * Returns the failure to render the template, unless rendering failed because saving failed first, in which case
+     * the failure to save the template is returned instead. The failure is passed on to the saver once rendering
+     * completes, whatever it failed with, even an Error, so the saver never waits for chunks that will not come.
+     */
+    private static RuntimeException renderingFailure(final TemplateChunkQueue chunks, final RuntimeException failure) {
+        final Throwable saveFailure = chunks.getSaveFailure();
+        return saveFailure != null ? new CompletionException(saveFailure) : failure;
+    }
+
+    private static <T> AsyncGeneration startGeneration(final Supplier<T> supplier, final Consumer<T> saver,
+                                                       final ToLongFunction<T> bytes, final Executor executor) {
+        final CompletableFuture<T> cfTemplate = CompletableFuture.supplyAsync(() -> {
+            final CFFlightRecording supplyRecording = CFFlightRecorder.beginGenerationPhase(CFFlightRecorder.SUPPLY_PHASE);
+            final T supplied = supplier.get();
+            supplyRecording.end(supplyRecording.isEnabled() ? bytes.applyAsLong(supplied) : -1);
+            return supplied;
+        }, executor);
+        final CompletableFuture<Void> saved = cfTemplate.thenAcceptAsync(supplied -> {
+            final CFFlightRecording saveRecording = CFFlightRecorder.beginGenerationPhase(CFFlightRecorder.SAVE_PHASE);
+            saver.accept(supplied);
+            saveRecording.end(saveRecording.isEnabled() ? bytes.applyAsLong(supplied) : -1);
+        }, executor);
+        return new AsyncGeneration(cfTemplate.thenRun(() -> { }), saved);
+    }
+
+    /**
+     * The futures of a template being generated asynchronously: one completing once the template is rendered, and one
+     * completing once it is saved. A streamed template is saved while it is rendered.
+     */
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    @Getter(AccessLevel.PACKAGE)
+    static final class AsyncGeneration {
+        private final CompletableFuture<Void> rendered;
+        private final CompletableFuture<Void> saved;
     }
 }
@@ -1,36 +1,97 @@
 package org.blockwiseph.cftemplate.generator;
 
-import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
-
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderListener;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderOptions;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 
 /**
  * Guice Module to instantiate the CFTemplateGenerator.
  * This module should be instantiated with a template file path, and a list of top level section builders.
+ * Optional settings, such as render options to render large templates in parallel, a render listener such as
+ * CFRenderStatistics to measure the rendering of each section, generating the template as JSON or compact YAML instead
+ * of YAML, checking the template against the CloudFormation quotas or checking its references before it is saved,
+ * syncing the template file to the storage device when it is saved, or only saving the template when it changed since
+ * the last run, can be set by creating the module with its builder.
  *
  * Once this module is instantiated, an object of @see org.blockwiseph.cftemplate.generator.CFTemplateGenerator}
  * should be obtained from here.
  */
-@AllArgsConstructor
+@Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class CFTemplateGeneratorModule extends AbstractModule {
 
     private final String cfTemplateFilePath;
     private final List<CFSectionBuilder> topLevelSectionBuilders;
 
+    @Builder.Default
+    private final CFRenderOptions renderOptions = CFRenderOptions.SEQUENTIAL;
+
+    @Builder.Default
+    private final CFTemplateFormat templateFormat = CFTemplateFormat.YAML;
+
+    private final CFRenderListener renderListener;
+    private final CFTemplateLimits templateLimits;
+    private final boolean validateReferences;
+    private final boolean syncOnSave;
+    private final boolean incremental;
+
+    public CFTemplateGeneratorModule(final String cfTemplateFilePath,
+                                     final List<CFSectionBuilder> topLevelSectionBuilders) {
+        this(cfTemplateFilePath, topLevelSectionBuilders, CFRenderOptions.SEQUENTIAL, CFTemplateFormat.YAML,
+                null, null, false, false, false);
+    }
+
+    /**
+     * Provides the generator, which passes the template from the supplier to the saver encoded as UTF-8 bytes.
+     * In incremental mode, the template and its fingerprints are saved only when the template
+     * changed since the fingerprints were last saved, as described in
+     * @see org.blockwiseph.cftemplate.generator.CFTemplateFingerprints
+     * Otherwise the template can also be generated asynchronously, saving it while it is rendered, as described in
+     * @see org.blockwiseph.cftemplate.generator.CFTemplateGenerator
+     */
+    @Provides
+    CFTemplateGenerator getCFTemplateGenerator() {
+        if (!incremental) {
+            final CFTemplateSupplier cfTemplateSupplier = cfTemplateSupplierBuilder().build();
+            final CFTemplateFileSaver cfTemplateSaver = new CFTemplateFileSaver(cfTemplateFilePath, syncOnSave);
+            return new CFTemplateGenerator(cfTemplateSupplier, cfTemplateSaver,
+                    cfTemplateSupplier::getEncoded, cfTemplate -> cfTemplateSaver.save(cfTemplate.getEncoded()),
+                    cfTemplateSupplier::renderTo, cfTemplateSaver::save);
+        }
+        final CFTemplateSupplier cfTemplateSupplier = cfTemplateSupplierBuilder()
+                .fingerprinting(true)
+                .build();
+        final IncrementalCFTemplateSaver cfTemplateSaver = new IncrementalCFTemplateSaver(cfTemplateFilePath, syncOnSave);
+        return new CFTemplateGenerator(null, null, cfTemplateSupplier::getEncoded, cfTemplateSaver::save);
+    }
+
     @Provides
     Consumer<String> getCFTemplateSaver() {
-        return new CFTemplateFileSaver(cfTemplateFilePath);
+        return new CFTemplateFileSaver(cfTemplateFilePath, syncOnSave);
     }
 
     @Provides
     Supplier<String> getCFTemplateSupplier() {
-        return () -> aggregating(topLevelSectionBuilders, "\n\n").getSectionContents();
+        return cfTemplateSupplierBuilder().build();
+    }
+
+    private CFTemplateSupplier.CFTemplateSupplierBuilder cfTemplateSupplierBuilder() {
+        return CFTemplateSupplier.builder()
+                .cfTemplateFilePath(cfTemplateFilePath)
+                .topLevelSectionBuilders(topLevelSectionBuilders)
+                .renderOptions(renderOptions)
+                .renderListener(renderListener)
+                .templateFormat(templateFormat)
+                .templateLimits(templateLimits)
+                .validateReferences(validateReferences);
     }
 }
@@ -0,0 +1,57 @@
+package org.blockwiseph.cftemplate.generator;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * The CloudFormation quotas a template is checked against while it is rendered, so a template that would be rejected
+ * at deploy time is caught before it is saved. The number of resources, parameters, outputs and mappings are counted
+ * from the entries of the top level sections with those names, and the template size is the size of the saved template
+ * in UTF-8 bytes.
+ *
+ * If failOnExceeded is set, the generation fails with an IllegalStateException as soon as a quota is exceeded, and
+ * nothing is saved. Otherwise a warning is logged for each exceeded quota, and the template is saved.
+ *
+ * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/cloudformation-limits.html">AWS CloudFormation Quotas Documentation</a>
+ */
+@Builder(toBuilder = true)
+@Getter
+public class CFTemplateLimits {
+
+    private static final int MAX_RESOURCES = 500;
+    private static final int MAX_PARAMETERS = 200;
+    private static final int MAX_OUTPUTS = 200;
+    private static final int MAX_MAPPINGS = 200;
+    private static final long MAX_S3_TEMPLATE_BYTES = 1024 * 1024;
+    private static final long MAX_INLINE_TEMPLATE_BYTES = 51_200;
+
+    /**
+     * The quotas of a template that is uploaded to S3 before the stack is created or updated.
+     */
+    public static final CFTemplateLimits S3_TEMPLATE = CFTemplateLimits.builder().build();
+
+    /**
+     * The quotas of a template that is passed inline as the template body when the stack is created or updated.
+     */
+    public static final CFTemplateLimits INLINE_TEMPLATE = CFTemplateLimits.builder()
+            .maxTemplateBytes(MAX_INLINE_TEMPLATE_BYTES)
+            .build();
+
+    @Builder.Default
+    private final int maxResources = MAX_RESOURCES;
+
+    @Builder.Default
+    private final int maxParameters = MAX_PARAMETERS;
+
+    @Builder.Default
+    private final int maxOutputs = MAX_OUTPUTS;
+
+    @Builder.Default
+    private final int maxMappings = MAX_MAPPINGS;
+
+    @Builder.Default
+    private final long maxTemplateBytes = MAX_S3_TEMPLATE_BYTES;
+
+    @Builder.Default
+    private final boolean failOnExceeded = true;
+}
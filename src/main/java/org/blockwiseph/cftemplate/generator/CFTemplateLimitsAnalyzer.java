@@ -0,0 +1,160 @@
+package org.blockwiseph.cftemplate.generator;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import org.blockwiseph.cftemplate.generator.util.ByteCountingAppendable;
+
+/**
+ * Checks a template against the CloudFormation quotas while it is rendered, without holding or parsing the template.
+ *
+ * The entries of the top level sections are counted from the YAML written by the section builders, as the lines of a
+ * section that are indented by exactly 2 spaces and start a mapping key. The size of the template is counted in UTF-8
+ * bytes from the characters of the saved template, after the YAML is translated to the template format.
+ * The quotas, and what happens when one is exceeded, are described in CFTemplateLimits.
+ *
+ * @see org.blockwiseph.cftemplate.generator.CFTemplateLimits
+ */
+class CFTemplateLimitsAnalyzer {
+
+    private static final Logger LOGGER = Logger.getLogger(CFTemplateLimitsAnalyzer.class.getName());
+
+    private static final int ENTRY_INDENTATION = 2;
+
+    private final CFTemplateLimits limits;
+    private final Map<String, Integer> maxEntriesBySection = new HashMap<>();
+    private final Map<String, Integer> entriesBySection = new HashMap<>();
+    private final Set<String> exceededQuotas = new HashSet<>();
+
+    private long templateBytes;
+
+    CFTemplateLimitsAnalyzer(final CFTemplateLimits limits) {
+        this.limits = limits;
+        maxEntriesBySection.put("Resources", limits.getMaxResources());
+        maxEntriesBySection.put("Parameters", limits.getMaxParameters());
+        maxEntriesBySection.put("Outputs", limits.getMaxOutputs());
+        maxEntriesBySection.put("Mappings", limits.getMaxMappings());
+    }
+
+    /**
+     * @param out the Appendable the YAML of the top level sections is passed on to
+     * @return an Appendable that counts the entries of the top level sections in the YAML written to it
+     */
+    Appendable countingEntries(final Appendable out) {
+        return new EntryCountingAppendable(out);
+    }
+
+    /**
+     * @param out the Appendable the saved template is passed on to
+     * @return an Appendable that counts the UTF-8 bytes of the template written to it
+     */
+    Appendable countingBytes(final Appendable out) {
+        return new ByteCountingAppendable(out, this::addBytes);
+    }
+
+    private void addEntry(final String section) {
+        final Integer maxEntries = maxEntriesBySection.get(section);
+        if (maxEntries != null) {
+            final int entries = entriesBySection.merge(section, 1, Integer::sum);
+            checkQuota(section.toLowerCase(Locale.ROOT), entries, maxEntries);
+        }
+    }
+
+    private void addBytes(final long bytes) {
+        templateBytes += bytes;
+        checkQuota("template bytes", templateBytes, limits.getMaxTemplateBytes());
+    }
+
+    private void checkQuota(final String quota, final long actual, final long max) {
+        if (actual <= max) {
+            return;
+        }
+        final String message = String.format("Template exceeds the CloudFormation quota of %d %s", max, quota);
+        if (limits.isFailOnExceeded()) {
+            throw new IllegalStateException(message);
+        }
+        if (exceededQuotas.add(quota)) {
+            LOGGER.warning(message);
+        }
+    }
+
+    private final class EntryCountingAppendable implements Appendable {
+
+        private final Appendable out;
+        private final StringBuilder sectionName = new StringBuilder();
+
+        private String section;
+        private int indentation;
+        private boolean atLineStart = true;
+        private boolean inSectionName;
+
+        private EntryCountingAppendable(final Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        public Appendable append(final CharSequence csq) throws IOException {
+            return append(csq, 0, String.valueOf(csq).length());
+        }
+
+        @Override
+        public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+            final CharSequence chars = csq == null ? "null" : csq;
+            for (int i = start; i < end; i++) {
+                scan(chars.charAt(i));
+            }
+            out.append(chars, start, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(final char c) throws IOException {
+            scan(c);
+            out.append(c);
+            return this;
+        }
+
+        private void scan(final char c) {
+            if (c == '\n') {
+                endSectionName();
+                atLineStart = true;
+                indentation = 0;
+            } else if (inSectionName) {
+                if (c == ':') {
+                    endSectionName();
+                } else {
+                    sectionName.append(c);
+                }
+            } else if (atLineStart) {
+                if (c == ' ') {
+                    indentation++;
+                } else {
+                    atLineStart = false;
+                    startLine(c);
+                }
+            }
+        }
+
+        private void startLine(final char c) {
+            if (indentation == 0) {
+                sectionName.setLength(0);
+                sectionName.append(c);
+                inSectionName = true;
+            } else if (indentation == ENTRY_INDENTATION && section != null && c != '-' && c != '#') {
+                addEntry(section);
+            }
+        }
+
+        private void endSectionName() {
+            if (inSectionName) {
+                section = sectionName.toString();
+                inSectionName = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.blockwiseph.cftemplate.generator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderOptions;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionRenderer;
+import org.blockwiseph.cftemplate.generator.util.ByteCountingAppendable;
+import org.blockwiseph.cftemplate.generator.yaml.CFCompactYamlTranslator;
+import com.google.common.io.CharStreams;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Value class comparing the size of a template rendered as YAML with the size of the same template rendered as
+ * compact YAML, and whether the compact template fits in the quota of a template passed inline as the template body,
+ * rather than uploaded to S3 first. The sizes are in UTF-8 bytes. The compact YAML is described in
+ * @see org.blockwiseph.cftemplate.generator.yaml.CFCompactYamlTranslator
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+public class CFTemplateSizeReport {
+
+    private static final double PERCENT = 100.0;
+    private static final String SPACE_BETWEEN_TOP_LEVEL_SECTIONS = "\n\n";
+
+    private final long prettyBytes;
+    private final long compactBytes;
+
+    /**
+     * Renders the template once, counting the bytes of the YAML as it is translated to compact YAML.
+     *
+     * @param topLevelSectionBuilders the top level section builders of the template
+     * @param options                 the options to render with
+     * @param shortFunctions          whether to write the intrinsic functions in their short form in the compact YAML
+     * @return the size report of the template
+     */
+    public static CFTemplateSizeReport of(final List<CFSectionBuilder> topLevelSectionBuilders,
+                                          final CFRenderOptions options, final boolean shortFunctions) {
+        final ByteCountingAppendable compactOut = new ByteCountingAppendable(CharStreams.nullWriter());
+        final CFCompactYamlTranslator translator = new CFCompactYamlTranslator(compactOut, shortFunctions);
+        final ByteCountingAppendable prettyOut = new ByteCountingAppendable(translator);
+        try {
+            for (int index = 0; index < topLevelSectionBuilders.size(); index++) {
+                if (index > 0) {
+                    prettyOut.append(SPACE_BETWEEN_TOP_LEVEL_SECTIONS);
+                }
+                CFSectionRenderer.render(topLevelSectionBuilders.get(index), prettyOut, 0, options);
+            }
+            translator.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to render template", e);
+        }
+        return new CFTemplateSizeReport(prettyOut.getBytes(), compactOut.getBytes());
+    }
+
+    public long getSavedBytes() {
+        return prettyBytes - compactBytes;
+    }
+
+    /**
+     * @return the saved bytes as a percentage of the size of the YAML template
+     */
+    public double getSavedPercent() {
+        return prettyBytes == 0 ? 0 : getSavedBytes() * PERCENT / prettyBytes;
+    }
+
+    /**
+     * @return whether the compact template fits in the quota of a template passed inline as the template body
+     */
+    public boolean isCompactFitsInline() {
+        return compactBytes <= CFTemplateLimits.INLINE_TEMPLATE.getMaxTemplateBytes();
+    }
+
+    public boolean isPrettyFitsInline() {
+        return prettyBytes <= CFTemplateLimits.INLINE_TEMPLATE.getMaxTemplateBytes();
+    }
+
+    /**
+     * @return a one line report of the sizes, e.g.
+     *         "YAML 60211 bytes (S3), compact YAML 47830 bytes (inline), saved 12381 bytes (20.6%)"
+     */
+    public String getReport() {
+        return String.format("YAML %d bytes (%s), compact YAML %d bytes (%s), saved %d bytes (%.1f%%)",
+                prettyBytes, isPrettyFitsInline() ? "inline" : "S3",
+                compactBytes, isCompactFitsInline() ? "inline" : "S3",
+                getSavedBytes(), getSavedPercent());
+    }
+
+    @Override
+    public String toString() {
+        return getReport();
+    }
+}
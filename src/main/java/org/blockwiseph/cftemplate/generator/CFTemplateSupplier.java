@@ -0,0 +1,214 @@
+package org.blockwiseph.cftemplate.generator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import org.blockwiseph.cftemplate.generator.json.CFJsonTranslator;
+import org.blockwiseph.cftemplate.generator.metrics.CFFlightRecorder;
+import org.blockwiseph.cftemplate.generator.metrics.CFFlightRecording;
+import org.blockwiseph.cftemplate.generator.node.CFReferenceIndex;
+import org.blockwiseph.cftemplate.generator.node.CFReferenceIndexer;
+import org.blockwiseph.cftemplate.generator.node.YamlEventParser;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderListener;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderOptions;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionRenderer;
+import org.blockwiseph.cftemplate.generator.util.ByteCountingAppendable;
+import org.blockwiseph.cftemplate.generator.util.FingerprintingAppendable;
+import org.blockwiseph.cftemplate.generator.util.TeeAppendable;
+import org.blockwiseph.cftemplate.generator.util.Utf8ByteEmitter;
+import org.blockwiseph.cftemplate.generator.yaml.CFCompactYamlTranslator;
+import lombok.Builder;
+
+/**
+ * Supplies the template by rendering its top level sections one after another, translating them to the template
+ * format as they are rendered. The template can also be supplied encoded as UTF-8 bytes, ready to be saved, without
+ * building it as a String first, or rendered into an emitter whose chunks are saved while the template is rendered.
+ *
+ * If template limits are set, the template is checked against them while it is rendered, as described in
+ * @see org.blockwiseph.cftemplate.generator.CFTemplateLimits
+ *
+ * If a render listener is set, the sections of the template are reported to the listener the listener returns for the
+ * template file, as described in
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderListener
+ *
+ * The rendering of each top level section is recorded as a Java Flight Recorder event, with the number of bytes
+ * written to the template while it was rendered, as described in
+ * @see org.blockwiseph.cftemplate.generator.metrics.CFFlightRecorder
+ *
+ * If validating references is set, the references of the template are indexed while it is rendered, and the template
+ * is rejected if it references undefined logical ids or defines a logical id more than once. Unused parameters and
+ * conditions are logged as warnings. The checks are described in
+ * @see org.blockwiseph.cftemplate.generator.node.CFReferenceIndex
+ *
+ * If the template format is compact YAML, the sizes of the template as YAML and as compact YAML are logged, as
+ * described in
+ * @see org.blockwiseph.cftemplate.generator.CFTemplateSizeReport
+ *
+ * If fingerprinting is set, the template, each of its top level sections, and each of its resources are fingerprinted.
+ * The sections and resources are fingerprinted before they are translated to the template format, while the template
+ * is fingerprinted as it is saved, so changing the format changes its fingerprint.
+ * The fingerprints are returned with the encoded template they describe, to be used by
+ * @see org.blockwiseph.cftemplate.generator.IncrementalCFTemplateSaver
+ */
+@Builder
+class CFTemplateSupplier implements Supplier<String> {
+
+    private static final Logger LOGGER = Logger.getLogger(CFTemplateSupplier.class.getName());
+
+    private static final String SPACE_BETWEEN_TOP_LEVEL_SECTIONS = "\n\n";
+
+    private final String cfTemplateFilePath;
+    private final List<CFSectionBuilder> topLevelSectionBuilders;
+    private final CFRenderOptions renderOptions;
+    private final CFRenderListener renderListener;
+    private final CFTemplateFormat templateFormat;
+    private final CFTemplateLimits templateLimits;
+    private final boolean validateReferences;
+    private final boolean fingerprinting;
+
+    @Override
+    public String get() {
+        final StringBuilder out = new StringBuilder();
+        render(out);
+        return out.toString();
+    }
+
+    /**
+     * @return the template, encoded as UTF-8 as it is rendered, with its fingerprints if fingerprinting is set
+     */
+    RenderedCFTemplate getEncoded() {
+        final Utf8ByteEmitter out = new Utf8ByteEmitter();
+        return new RenderedCFTemplate(out, render(out));
+    }
+
+    /**
+     * Renders the template encoded as UTF-8 into an emitter, which passes its chunks on to be saved while the template
+     * is rendered.
+     *
+     * @param out the emitter to render the template into
+     */
+    void renderTo(final Utf8ByteEmitter out) {
+        render(out);
+    }
+
+    /**
+     * @return the fingerprints of the rendered template, or null if fingerprinting is not set
+     */
+    private CFTemplateFingerprints render(final Appendable out) {
+        final CFRenderListener templateListener =
+                renderListener == null ? null : renderListener.forTemplate(cfTemplateFilePath);
+        final CFRenderOptions options = templateListener == null
+                ? renderOptions
+                : renderOptions.toBuilder().renderListener(templateListener).build();
+        final CFTemplateLimitsAnalyzer limitsAnalyzer =
+                templateLimits == null ? null : new CFTemplateLimitsAnalyzer(templateLimits);
+        final Appendable countedOut = limitsAnalyzer == null ? out : limitsAnalyzer.countingBytes(out);
+        final FingerprintingAppendable fingerprintedOut = fingerprinting ? new FingerprintingAppendable(countedOut) : null;
+        final Appendable templateOut = fingerprintedOut == null ? countedOut : fingerprintedOut;
+        final CFJsonTranslator jsonTranslator = templateFormat.isJson()
+                ? new CFJsonTranslator(templateOut, templateFormat == CFTemplateFormat.PRETTY_JSON)
+                : null;
+        final ByteCountingAppendable compactOut =
+                templateFormat.isCompactYaml() ? new ByteCountingAppendable(templateOut) : null;
+        final CFCompactYamlTranslator compactTranslator = compactOut == null ? null
+                : new CFCompactYamlTranslator(compactOut, templateFormat == CFTemplateFormat.COMPACT_YAML_SHORT_FUNCTIONS);
+        final ByteCountingAppendable prettyOut =
+                compactTranslator == null ? null : new ByteCountingAppendable(compactTranslator);
+        final Appendable translatedOut = jsonTranslator != null ? jsonTranslator
+                : prettyOut != null ? prettyOut
+                : templateOut;
+        final Appendable countedYamlOut =
+                limitsAnalyzer == null ? translatedOut : limitsAnalyzer.countingEntries(translatedOut);
+        final CFReferenceIndexer referenceIndexer = validateReferences ? new CFReferenceIndexer() : null;
+        final YamlEventParser referenceParser = referenceIndexer == null ? null : new YamlEventParser(referenceIndexer);
+        final Appendable yamlOut =
+                referenceParser == null ? countedYamlOut : new TeeAppendable(countedYamlOut, referenceParser);
+        final List<String> sectionFingerprints = new ArrayList<>();
+        final Map<String, String> resourceFingerprints = new LinkedHashMap<>();
+        try {
+            for (int index = 0; index < topLevelSectionBuilders.size(); index++) {
+                final CFSectionBuilder topLevelSectionBuilder = topLevelSectionBuilders.get(index);
+                if (index > 0) {
+                    yamlOut.append(SPACE_BETWEEN_TOP_LEVEL_SECTIONS);
+                }
+                final CFFlightRecording sectionRecording = CFFlightRecorder.beginSection(cfTemplateFilePath, index,
+                        CFSectionBuilderFactory.titleOf(topLevelSectionBuilder));
+                final long sectionStart = sectionRecording.isEnabled() ? lengthOf(out) : 0;
+                if (fingerprinting) {
+                    final FingerprintingAppendable sectionOut = new FingerprintingAppendable(yamlOut);
+                    resourceFingerprints.putAll(CFSectionRenderer.renderWithResourceFingerprints(
+                            topLevelSectionBuilder, sectionOut, 0, options));
+                    sectionFingerprints.add(sectionOut.fingerprint());
+                } else {
+                    CFSectionRenderer.render(topLevelSectionBuilder, yamlOut, 0, options);
+                }
+                if (sectionRecording.isEnabled()) {
+                    sectionRecording.end(bytesSince(out, sectionStart));
+                }
+            }
+            if (jsonTranslator != null) {
+                jsonTranslator.finish();
+            }
+            if (compactTranslator != null) {
+                compactTranslator.finish();
+            }
+            if (referenceParser != null) {
+                referenceParser.finish();
+            }
+            if (templateListener != null) {
+                templateListener.templateRendered();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to render template", e);
+        }
+
+        if (compactOut != null) {
+            LOGGER.info(cfTemplateFilePath + ": "
+                    + new CFTemplateSizeReport(prettyOut.getBytes(), compactOut.getBytes()).getReport());
+        }
+        if (referenceIndexer != null) {
+            checkReferences(referenceIndexer.getIndex());
+        }
+        return fingerprintedOut == null ? null : CFTemplateFingerprints.builder()
+                .templateFingerprint(fingerprintedOut.fingerprint())
+                .sectionFingerprints(sectionFingerprints)
+                .resourceFingerprints(resourceFingerprints)
+                .build();
+    }
+
+    /**
+     * @return the length of the template rendered so far, in bytes if it is encoded, and in chars otherwise
+     */
+    private static long lengthOf(final Appendable out) {
+        return out instanceof Utf8ByteEmitter ? ((Utf8ByteEmitter) out).size() : ((CharSequence) out).length();
+    }
+
+    /**
+     * @return the number of bytes of the template rendered since it had the passed in length
+     */
+    private static long bytesSince(final Appendable out, final long length) {
+        if (out instanceof Utf8ByteEmitter) {
+            return ((Utf8ByteEmitter) out).size() - length;
+        }
+        final CharSequence chars = (CharSequence) out;
+        return Utf8ByteEmitter.encodedLength(chars, (int) length, chars.length());
+    }
+
+    private static void checkReferences(final CFReferenceIndex referenceIndex) {
+        for (final String warning : referenceIndex.getWarnings()) {
+            LOGGER.warning(warning);
+        }
+        if (!referenceIndex.isValid()) {
+            throw new IllegalStateException("Template has invalid references:\n"
+                    + String.join("\n", referenceIndex.getErrors()));
+        }
+    }
+}
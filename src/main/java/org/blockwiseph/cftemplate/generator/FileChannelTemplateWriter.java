@@ -0,0 +1,116 @@
+package org.blockwiseph.cftemplate.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writer that encodes the template to UTF-8 incrementally into a byte buffer, and writes the buffer to a file channel
+ * whenever it is full. The template is never encoded as a whole, so encoding does not double the peak memory.
+ * Closing the writer flushes the remaining bytes, optionally forces them to the storage device, and closes the channel.
+ */
+class FileChannelTemplateWriter extends Writer {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final boolean syncOnClose;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private boolean hasPendingHighSurrogate;
+    private char pendingHighSurrogate;
+
+    FileChannelTemplateWriter(final FileChannel channel, final ByteBuffer buffer, final boolean syncOnClose) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.syncOnClose = syncOnClose;
+        buffer.clear();
+    }
+
+    @Override
+    public void write(final char[] cbuf, final int off, final int len) throws IOException {
+        encode(CharBuffer.wrap(cbuf, off, len));
+    }
+
+    @Override
+    public void write(final String str, final int off, final int len) throws IOException {
+        encode(CharBuffer.wrap(str, off, off + len));
+    }
+
+    @Override
+    public Writer append(final CharSequence csq) throws IOException {
+        encode(CharBuffer.wrap(csq == null ? "null" : csq));
+        return this;
+    }
+
+    @Override
+    public Writer append(final CharSequence csq, final int start, final int end) throws IOException {
+        encode(CharBuffer.wrap(csq == null ? "null" : csq, start, end));
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            encode(CharBuffer.allocate(0), true);
+            encoder.flush(buffer);
+            drain();
+            if (syncOnClose) {
+                channel.force(true);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Encodes the chars, keeping a trailing high surrogate until the next chars arrive, since it can only be encoded
+     * together with the low surrogate that follows it.
+     */
+    private void encode(final CharBuffer chars) throws IOException {
+        while (hasPendingHighSurrogate && chars.hasRemaining()) {
+            hasPendingHighSurrogate = false;
+            encode(CharBuffer.wrap(new char[] {pendingHighSurrogate, chars.get()}), false);
+        }
+        encode(chars, false);
+    }
+
+    private void encode(final CharBuffer chars, final boolean endOfInput) throws IOException {
+        if (endOfInput && hasPendingHighSurrogate) {
+            hasPendingHighSurrogate = false;
+            encode(CharBuffer.wrap(new char[] {pendingHighSurrogate}), true);
+        }
+        CoderResult result = encoder.encode(chars, buffer, endOfInput);
+        while (result.isOverflow()) {
+            drain();
+            result = encoder.encode(chars, buffer, endOfInput);
+        }
+        if (result.isError()) {
+            result.throwException();
+        }
+        if (chars.hasRemaining()) {
+            hasPendingHighSurrogate = true;
+            pendingHighSurrogate = chars.get();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
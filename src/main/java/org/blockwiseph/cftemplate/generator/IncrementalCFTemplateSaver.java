@@ -0,0 +1,48 @@
+package org.blockwiseph.cftemplate.generator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+/**
+ * Saves the template only if it changed since it was last saved, so that the template file, and its modification
+ * time, are left untouched when regenerating an unchanged template.
+ *
+ * Whether the template changed is decided by comparing its fingerprint with the one in the index file next to the
+ * template file, which is written after each save. The fingerprints are passed in with the template they describe.
+ * The template file is expected to be written by this saver only.
+ */
+class IncrementalCFTemplateSaver {
+
+    private final String cfTemplateFilePath;
+    private final CFTemplateFileSaver templateSaver;
+    private final CFTemplateFileSaver indexSaver;
+
+    /**
+     * @param cfTemplateFilePath the path of the template file
+     * @param syncOnSave         whether to force the files to the storage device when they are saved
+     */
+    IncrementalCFTemplateSaver(final String cfTemplateFilePath, final boolean syncOnSave) {
+        this.cfTemplateFilePath = cfTemplateFilePath;
+        this.templateSaver = new CFTemplateFileSaver(cfTemplateFilePath, syncOnSave);
+        this.indexSaver = new CFTemplateFileSaver(
+                CFTemplateFingerprints.indexFileOf(cfTemplateFilePath).toString(), syncOnSave);
+    }
+
+    /**
+     * @param template the template, encoded as UTF-8, with its fingerprints
+     */
+    void save(final RenderedCFTemplate template) {
+        final CFTemplateFingerprints fingerprints = template.getFingerprints();
+        final Path indexFile = CFTemplateFingerprints.indexFileOf(cfTemplateFilePath);
+        final Optional<CFTemplateFingerprints> savedFingerprints = CFTemplateFingerprints.read(indexFile);
+        if (savedFingerprints.isPresent() && Files.exists(Paths.get(cfTemplateFilePath))
+                && savedFingerprints.get().getTemplateFingerprint().equals(fingerprints.getTemplateFingerprint())) {
+            return;
+        }
+
+        templateSaver.save(template.getEncoded());
+        indexSaver.save(fingerprints::write);
+    }
+}
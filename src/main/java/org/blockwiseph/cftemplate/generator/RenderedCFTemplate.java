@@ -0,0 +1,30 @@
+package org.blockwiseph.cftemplate.generator;
+
+import org.blockwiseph.cftemplate.generator.util.Utf8ByteEmitter;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A template rendered and encoded as UTF-8, passed from the supplier to the saver together with its fingerprints, if
+ * it was fingerprinted while it was rendered. The saver thus always gets the fingerprints of the template it saves,
+ * even while other templates are rendered by the same supplier.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter(AccessLevel.PACKAGE)
+final class RenderedCFTemplate {
+
+    private final Utf8ByteEmitter encoded;
+
+    /**
+     * The fingerprints of the template, or null if it was not fingerprinted.
+     */
+    private final CFTemplateFingerprints fingerprints;
+
+    /**
+     * @return the number of bytes of the encoded template
+     */
+    long size() {
+        return encoded.size();
+    }
+}
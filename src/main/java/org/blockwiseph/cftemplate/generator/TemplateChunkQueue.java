@@ -0,0 +1,134 @@
+package org.blockwiseph.cftemplate.generator;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.blockwiseph.cftemplate.generator.util.Utf8ByteEmitter;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * A bounded queue of the chunks of a template encoded as UTF-8, which one thread emits the template into while another
+ * thread writes the chunks to the template file as they arrive, so writing overlaps rendering, and at most capacity
+ * chunks of the template are held in memory at a time, however large the template is. Emitting blocks while the queue
+ * is full.
+ *
+ * If rendering fails, the failure is passed on to the saver, which fails too, so a partially rendered template is never
+ * saved. If saving fails, rendering fails the next time a chunk is passed on, rather than blocking forever.
+ */
+final class TemplateChunkQueue implements Utf8ByteEmitter.ChunkConsumer {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final Chunk END = new Chunk(null, null);
+
+    private final BlockingQueue<Chunk> chunks;
+
+    private volatile Throwable saveFailure;
+
+    TemplateChunkQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the maximum number of chunks waiting to be written
+     */
+    TemplateChunkQueue(final int capacity) {
+        this.chunks = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public void accept(final ByteBuffer chunk) throws IOException {
+        put(new Chunk(chunk, null));
+    }
+
+    /**
+     * Tells the saver the template is complete, once the emitter it is emitted into is flushed.
+     *
+     * @throws IOException if saving the template failed
+     */
+    void close() throws IOException {
+        put(END);
+    }
+
+    /**
+     * Tells the saver that rendering the template failed, so it fails too, without saving anything. Nothing is passed
+     * on if saving already failed, since nothing takes the chunks anymore.
+     *
+     * @param failure the failure to render the template
+     */
+    void fail(final Throwable failure) {
+        try {
+            put(new Chunk(null, failure));
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Tells the renderer that saving the template failed, so it fails the next time a chunk is passed on.
+     *
+     * @param failure the failure to save the template
+     */
+    void abort(final Throwable failure) {
+        saveFailure = failure;
+        chunks.clear();
+    }
+
+    /**
+     * @return the failure to save the template, or null if saving did not fail
+     */
+    Throwable getSaveFailure() {
+        return saveFailure;
+    }
+
+    /**
+     * Writes the chunks to the channel as they arrive, until the template is complete.
+     *
+     * @param channel the channel of the template file
+     * @throws IOException if rendering the template failed, or writing it failed
+     */
+    void drainTo(final WritableByteChannel channel) throws IOException {
+        try {
+            for (Chunk next = chunks.take(); next != END; next = chunks.take()) {
+                if (next.failure != null) {
+                    throw new IOException("Unable to render template", next.failure);
+                }
+                while (next.bytes.hasRemaining()) {
+                    channel.write(next.bytes);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(e);
+            throw new InterruptedIOException("Interrupted while saving template");
+        } catch (IOException | RuntimeException e) {
+            abort(e);
+            throw e;
+        }
+    }
+
+    private void put(final Chunk next) throws IOException {
+        try {
+            do {
+                if (saveFailure != null) {
+                    throw new IOException("Unable to save template", saveFailure);
+                }
+            } while (!chunks.offer(next, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while rendering template");
+        }
+    }
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class Chunk {
+        private final ByteBuffer bytes;
+        private final Throwable failure;
+    }
+}
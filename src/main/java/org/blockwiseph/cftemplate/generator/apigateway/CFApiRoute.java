@@ -0,0 +1,43 @@
+package org.blockwiseph.cftemplate.generator.apigateway;
+
+import java.util.Map;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.APIGatewayMethod;
+import com.google.common.collect.ImmutableMap;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import com.amazonaws.http.HttpMethodName;
+
+/**
+ * Value class for a route of a REST API, which invokes a lambda function for an HTTP method on a path, e.g. "GET" on
+ * "/users/{userId}/orders". The path starts with "/", and has no empty segments, quotes, backslashes or control
+ * characters. The HTTP method is only OPTIONS in route tables without CORS, which otherwise generate that method.
+ * The lambdaArn, authorizerId and requestTemplates are values of the method, as in
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.APIGatewayMethod
+ * e.g. getAttArn("Function") and referencing("Authorizer"). The authorizerId and operationName are optional.
+ */
+@Builder
+@Getter
+@EqualsAndHashCode
+@ToString
+public class CFApiRoute {
+
+    private final String path;
+    private final HttpMethodName httpMethod;
+    private final String lambdaArn;
+    private final String operationName;
+    private final String authorizerId;
+
+    @Builder.Default
+    private final APIGatewayMethod.AuthorizationType authorizationType = APIGatewayMethod.AuthorizationType.NONE;
+
+    @Builder.Default
+    private final Map<String, String> requestTemplates = ImmutableMap.of("application/json", "\"$input.json('$')\"");
+
+    @Builder.Default
+    private final APIGatewayMethod.PassthroughBehavior passthroughBehavior =
+            APIGatewayMethod.PassthroughBehavior.WHEN_NO_TEMPLATES;
+}
@@ -0,0 +1,338 @@
+package org.blockwiseph.cftemplate.generator.apigateway;
+
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.apiResponseForAllowedMethods;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.apiResponseParametersAllTrue;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.getATTAttribute;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.referencing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.APIGatewayCorsMethod;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.APIGatewayDeployment;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.APIGatewayMethod;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.APIGatewayResource;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.APIResponse;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import lombok.Builder;
+
+import com.amazonaws.http.HttpMethodName;
+
+/**
+ * Generates the resources of a REST API from its route table, instead of a resource per path segment and a method per
+ * route written by hand. The routes are inserted into a trie of their path segments, and the resources are generated
+ * from the trie:
+ * - an APIGatewayResource for each distinct path, with the resource of its parent path (or the root resource of the
+ *   REST API) as its parent,
+ * - an APIGatewayMethod for each route, integrating its lambda function,
+ * - an APIGatewayCorsMethod for each path with routes, answering CORS preflight requests with the methods of the
+ *   path, unless CORS is disabled,
+ * - an APIGatewayDeployment that depends on all the methods, so the API is deployed once they are all created.
+ * The responses of the methods are shared by all the methods with the same allowed methods.
+ *
+ * The logical ids are the prefix, followed by "Resource", "Method" or "Deployment", and the path segments with their
+ * non alphanumeric characters removed, e.g. "ApiResourceUsersUserIdOrders" and "ApiMethodUsersUserIdOrdersGet" for
+ * "/users/{userId}/orders", and "Root" for the root path. Paths that would have the same logical id are numbered in
+ * the order of their routes, e.g. "ApiResourceUsers2" for "/_users" after "/users".
+ * Generating the resources takes time linear in the total length of the paths.
+ *
+ * @see <a href="https://docs.aws.amazon.com/apigateway/latest/developerguide/how-to-cors.html">AWS APIGateway CORS Documentation</a>
+ */
+@Builder
+public class CFApiRouteTable {
+
+    private static final String ROOT_NAME = "Root";
+    private static final String PATH_SEPARATOR = "/";
+    private static final int FIRST_NUMBER = 2;
+    private static final int OK = 200;
+    private static final Map<String, String> EMPTY_MODEL = ImmutableMap.of("application/json", "Empty");
+    private static final Map<String, String> EMPTY_RESPONSE_TEMPLATE = ImmutableMap.of("application/json", "\"\"");
+
+    /**
+     * The logical id of the APIGatewayRestAPI resource of the API.
+     */
+    private final String restApiId;
+
+    @Builder.Default
+    private final String logicalIdPrefix = "Api";
+
+    @Builder.Default
+    private final boolean cors = true;
+
+    @Builder.Default
+    private final List<CFApiRoute> routes = ImmutableList.of();
+
+    /**
+     * Generates the resources of the routes.
+     *
+     * @return the resources and methods of each path, in the order of the paths' first routes, with each path
+     *         followed by the paths under it, then the deployment
+     * @throws IllegalArgumentException if a path is not valid, e.g. it has empty segments, or quotes, backslashes or
+     *                                  control characters, two routes have the same path and HTTP method, or a route
+     *                                  has the OPTIONS method while CORS is enabled, as CORS generates that method
+     */
+    public List<CFSectionBuilder> resources() {
+        final Map<String, Integer> names = new HashMap<>();
+        names.put(ROOT_NAME, FIRST_NUMBER);
+        final PathNode root = new PathNode(null, null, ROOT_NAME);
+        for (final CFApiRoute route : routes) {
+            if (cors && isOptions(route.getHttpMethod())) {
+                throw new IllegalArgumentException(String.format(
+                        "Route %s %s conflicts with the generated CORS method, disable CORS to route OPTIONS requests",
+                        route.getHttpMethod(), route.getPath()));
+            }
+            final PathNode node = insert(root, route.getPath(), names);
+            if (node.routes.putIfAbsent(route.getHttpMethod(), route) != null) {
+                throw new IllegalArgumentException(
+                        String.format("Duplicate route %s %s", route.getHttpMethod(), route.getPath()));
+            }
+        }
+
+        final List<CFSectionBuilder> resources = new ArrayList<>();
+        final List<String> methodIds = new ArrayList<>();
+        final Map<Set<HttpMethodName>, List<APIResponse>> integrationResponses = new HashMap<>();
+        final List<APIResponse> methodResponses = ImmutableList.of(APIResponse.builder()
+                .statusCode(OK)
+                .responseParameters(apiResponseParametersAllTrue())
+                .responseModels(EMPTY_MODEL)
+                .build());
+
+        final Deque<PathNode> pendingNodes = new ArrayDeque<>();
+        pendingNodes.push(root);
+        while (!pendingNodes.isEmpty()) {
+            final PathNode node = pendingNodes.pop();
+            if (node != root) {
+                resources.add(APIGatewayResource.builder()
+                        .resourceId(node.logicalId(logicalIdPrefix, "Resource"))
+                        .parentId(node.parent == root ? rootResourceId() : referencing(resourceIdOf(node.parent)))
+                        .restApiId(referencing(restApiId))
+                        .pathPart(pathPartOf(node.segment))
+                        .build());
+            }
+            if (!node.routes.isEmpty()) {
+                final Set<HttpMethodName> allowedMethods = EnumSet.copyOf(node.routes.keySet());
+                final List<APIResponse> responses = integrationResponses.computeIfAbsent(allowedMethods,
+                        methods -> ImmutableList.of(integrationResponse(methods)));
+                for (final CFApiRoute route : node.routes.values()) {
+                    resources.add(method(node, route, responses, methodResponses, methodIds));
+                }
+                if (cors) {
+                    resources.add(corsMethod(node, responses, methodResponses, methodIds));
+                }
+            }
+            final List<PathNode> children = new ArrayList<>(node.children.values());
+            for (final ListIterator<PathNode> child = children.listIterator(children.size()); child.hasPrevious();) {
+                pendingNodes.push(child.previous());
+            }
+        }
+
+        resources.add(APIGatewayDeployment.builder()
+                .resourceId(logicalIdPrefix + "Deployment")
+                .dependsOn(Collections.unmodifiableList(methodIds))
+                .restAPIId(referencing(restApiId))
+                .build());
+        return resources;
+    }
+
+    private static PathNode insert(final PathNode root, final String path, final Map<String, Integer> names) {
+        if (path == null || !path.startsWith(PATH_SEPARATOR)) {
+            throw new IllegalArgumentException("Route paths must start with " + PATH_SEPARATOR + ": " + path);
+        }
+        PathNode node = root;
+        if (path.length() == 1) {
+            return node;
+        }
+        int start = 1;
+        while (start <= path.length()) {
+            final int separator = path.indexOf(PATH_SEPARATOR, start);
+            final int end = separator < 0 ? path.length() : separator;
+            if (end == start) {
+                throw new IllegalArgumentException("Route paths must not have empty segments: " + path);
+            }
+            final String segment = path.substring(start, end);
+            if (!isQuotable(segment)) {
+                throw new IllegalArgumentException(
+                        "Route paths must not have quotes, backslashes or control characters: " + path);
+            }
+            final PathNode parent = node;
+            node = parent.children.computeIfAbsent(segment, s -> new PathNode(parent, s,
+                    unique((parent == root ? "" : parent.name) + nameOf(s), names)));
+            start = end + 1;
+        }
+        return node;
+    }
+
+    private APIGatewayMethod method(final PathNode node, final CFApiRoute route,
+                                    final List<APIResponse> integrationResponses,
+                                    final List<APIResponse> methodResponses,
+                                    final List<String> methodIds) {
+        return APIGatewayMethod.builder()
+                .resourceId(methodId(node, route.getHttpMethod(), methodIds))
+                .operationName(route.getOperationName())
+                .restAPIId(referencing(restApiId))
+                .apiResourceId(apiResourceIdOf(node))
+                .authorizerId(route.getAuthorizerId())
+                .authorizationType(route.getAuthorizationType())
+                .httpMethod(route.getHttpMethod())
+                .integrationType(APIGatewayMethod.IntegrationType.AWS)
+                .integrationHttpMethod(HttpMethodName.POST)
+                .lambdaArn(route.getLambdaArn())
+                .requestTemplates(route.getRequestTemplates())
+                .passthroughBehavior(route.getPassthroughBehavior())
+                .integrationResponses(integrationResponses)
+                .methodResponses(methodResponses)
+                .build();
+    }
+
+    private APIGatewayCorsMethod corsMethod(final PathNode node, final List<APIResponse> integrationResponses,
+                                            final List<APIResponse> methodResponses, final List<String> methodIds) {
+        final String methodId = node.logicalId(logicalIdPrefix, "Method") + "Options";
+        methodIds.add(methodId);
+        return APIGatewayCorsMethod.builder()
+                .resourceId(methodId)
+                .restAPIId(referencing(restApiId))
+                .apiResourceId(apiResourceIdOf(node))
+                .integrationResponses(integrationResponses)
+                .methodResponses(methodResponses)
+                .build();
+    }
+
+    /**
+     * Compares the name, as OPTIONS is only a constant of HttpMethodName in later versions of the SDK.
+     */
+    private static boolean isOptions(final HttpMethodName httpMethod) {
+        return "OPTIONS".equals(httpMethod.name());
+    }
+
+    /**
+     * @return whether the segment can be put in double quotes as it is, which API Gateway path parts always can
+     */
+    private static boolean isQuotable(final String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            final char c = segment.charAt(i);
+            if (c == '"' || c == '\\' || Character.isISOControl(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Quotes the segments that are not plain YAML scalars, such as path parameters, e.g. "{userId}". The segments are
+     * checked to be quotable when the routes are inserted, so they need no escaping.
+     */
+    private static String pathPartOf(final String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            final char c = segment.charAt(i);
+            if (!isAsciiAlphanumeric(c) && c != '-' && c != '_' && c != '.') {
+                return '"' + segment + '"';
+            }
+        }
+        return segment;
+    }
+
+    private static APIResponse integrationResponse(final Set<HttpMethodName> allowedMethods) {
+        return APIResponse.builder()
+                .statusCode(OK)
+                .responseParameters(apiResponseForAllowedMethods(allowedMethods.toArray(new HttpMethodName[0])))
+                .responseTemplates(EMPTY_RESPONSE_TEMPLATE)
+                .build();
+    }
+
+    /**
+     * The names of the paths are unique, and no HTTP method name ends with another, so the method ids are unique too.
+     * The CORS method takes the id of the OPTIONS method, so OPTIONS routes are rejected while CORS is enabled.
+     */
+    private String methodId(final PathNode node, final HttpMethodName httpMethod, final List<String> methodIds) {
+        final String methodId = node.logicalId(logicalIdPrefix, "Method") + nameOf(httpMethod.name().toLowerCase());
+        methodIds.add(methodId);
+        return methodId;
+    }
+
+    private String apiResourceIdOf(final PathNode node) {
+        return node.parent == null ? rootResourceId() : referencing(resourceIdOf(node));
+    }
+
+    private String resourceIdOf(final PathNode node) {
+        return node.logicalId(logicalIdPrefix, "Resource");
+    }
+
+    private String rootResourceId() {
+        return getATTAttribute(restApiId, "RootResourceId");
+    }
+
+    /**
+     * Takes the name, or the name followed by the lowest number from 2 that makes it unique, if it is taken. The names
+     * are mapped to the number to try next, so that numbering many equal names takes linear time.
+     */
+    private static String unique(final String name, final Map<String, Integer> names) {
+        final Integer nextNumber = names.putIfAbsent(name, FIRST_NUMBER);
+        if (nextNumber == null) {
+            return name;
+        }
+        for (int number = nextNumber;; number++) {
+            final String numberedName = name + number;
+            if (names.putIfAbsent(numberedName, FIRST_NUMBER) == null) {
+                names.put(name, number + 1);
+                return numberedName;
+            }
+        }
+    }
+
+    /**
+     * @return the alphanumeric characters of the segment, with the first character of each run of them in upper case,
+     *         e.g. "UserId" for "{user_id}"
+     */
+    private static String nameOf(final String segment) {
+        final StringBuilder name = new StringBuilder(segment.length());
+        boolean startOfRun = true;
+        for (int i = 0; i < segment.length(); i++) {
+            final char c = segment.charAt(i);
+            if (isAsciiAlphanumeric(c)) {
+                name.append(startOfRun ? Character.toUpperCase(c) : c);
+                startOfRun = false;
+            } else {
+                startOfRun = true;
+            }
+        }
+        return name.toString();
+    }
+
+    private static boolean isAsciiAlphanumeric(final char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9';
+    }
+
+    /**
+     * A path of the trie, with the routes on it and the paths under it, in the order of their first routes.
+     */
+    private static final class PathNode {
+
+        private final PathNode parent;
+        private final String segment;
+        private final String name;
+        private final Map<String, PathNode> children = new LinkedHashMap<>();
+        private final Map<HttpMethodName, CFApiRoute> routes = new EnumMap<>(HttpMethodName.class);
+
+        private PathNode(final PathNode parent, final String segment, final String name) {
+            this.parent = parent;
+            this.segment = segment;
+            this.name = name;
+        }
+
+        private String logicalId(final String logicalIdPrefix, final String kind) {
+            return logicalIdPrefix + kind + name;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.blockwiseph.cftemplate.generator.cli;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.blockwiseph.cftemplate.generator.CFStackDefinition;
+import org.blockwiseph.cftemplate.generator.CFStackDefinitions;
+import org.blockwiseph.cftemplate.generator.CFStackGenerationResult;
+import org.blockwiseph.cftemplate.generator.CFTemplateBatchGenerator;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * Command line entry point that generates the stacks of all the stack definition providers on the classpath
+ * concurrently in one JVM, so applications do not each need a main method of their own, nor pay for the startup of a
+ * JVM per stack. The providers are described in
+ * @see org.blockwiseph.cftemplate.generator.CFStackDefinitionProvider
+ *
+ * The arguments are options, and patterns of the names of the stacks to generate, in which '*' matches any number of
+ * characters, e.g. "api-*". All the stacks are generated if no patterns are passed. Once the stacks are generated, a
+ * summary of how long rendering and saving each stack took is printed, and the exit code is 0 if all of them were
+ * generated, 1 if any failed, and 2 if the arguments are invalid or the stacks can not be loaded.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CFTemplateGeneratorCli {
+
+    private static final int EXIT_FAILED = 1;
+    private static final int EXIT_USAGE = 2;
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String ROW_FORMAT = "%-40s %12s %12s  %s%n";
+    private static final String TIMED_ROW_FORMAT = "%-40s %12.1f %12.1f  %s%n";
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: CFTemplateGeneratorCli [options] [stack name patterns...]",
+            "  --concurrency=N          the maximum number of stacks rendered at the same time",
+            "  --format=FORMAT          YAML, JSON, PRETTY_JSON, COMPACT_YAML or COMPACT_YAML_SHORT_FUNCTIONS",
+            "  --incremental            only save the templates that changed since they were last saved",
+            "  --validate-references    fail the stacks that reference undefined logical ids",
+            "  --sync-on-save           force the template files to the storage device when they are saved",
+            "  --pipelined              save each template while it is rendered",
+            "  --list                   list the selected stacks without generating them",
+            "  --help                   print this message");
+
+    public static void main(final String[] args) {
+        final int exitCode = run(System.out, Thread.currentThread().getContextClassLoader(), args);
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Generates the stacks selected by the arguments, as described in the class documentation.
+     *
+     * @param out         the stream to print the summary, or any usage error, to
+     * @param classLoader the class loader to find the stack definition providers with
+     * @param args        the options and stack name patterns
+     * @return the exit code
+     */
+    public static int run(final PrintStream out, final ClassLoader classLoader, final String... args) {
+        final CliOptions options;
+        final List<CFStackDefinition> stackDefinitions;
+        try {
+            options = CliOptions.parse(args);
+            if (options.isHelp()) {
+                out.println(USAGE);
+                return 0;
+            }
+            stackDefinitions = CFStackDefinitions.select(CFStackDefinitions.load(classLoader),
+                    options.getStackNamePatterns());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            out.println(e.getMessage());
+            out.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        if (options.isList()) {
+            stackDefinitions.forEach(stack -> out.println(stack.getStackName() + " " + stack.getCfTemplateFilePath()));
+            return 0;
+        }
+
+        final CFTemplateBatchGenerator batchGenerator = CFTemplateBatchGenerator.builder()
+                .maxConcurrency(options.getMaxConcurrency())
+                .templateFormat(options.getTemplateFormat())
+                .validateReferences(options.isValidateReferences())
+                .syncOnSave(options.isSyncOnSave())
+                .incremental(options.isIncremental())
+                .build();
+        final long start = System.nanoTime();
+        final List<CFStackGenerationResult> results = options.isPipelined()
+                ? batchGenerator.generateAsync(stackDefinitions).join()
+                : batchGenerator.generate(stackDefinitions);
+        printSummary(out, results, System.nanoTime() - start);
+        return results.stream().allMatch(CFStackGenerationResult::isSuccessful) ? 0 : EXIT_FAILED;
+    }
+
+    private static void printSummary(final PrintStream out, final List<CFStackGenerationResult> results,
+                                     final long nanos) {
+        out.printf(ROW_FORMAT, "Stack", "Render ms", "Save ms", "Result");
+        long renderNanos = 0;
+        long saveNanos = 0;
+        for (final CFStackGenerationResult result : results) {
+            renderNanos += result.getRenderNanos();
+            saveNanos += result.getSaveNanos();
+            out.printf(TIMED_ROW_FORMAT, result.getStackName(), result.getRenderNanos() / NANOS_PER_MILLI,
+                    result.getSaveNanos() / NANOS_PER_MILLI, result.getFailure()
+                            .map(failure -> "FAILED " + failure)
+                            .orElse("OK " + result.getCfTemplateFilePath()));
+        }
+        final long generated = results.stream().filter(CFStackGenerationResult::isSuccessful).count();
+        out.printf("Generated %d of %d stacks in %.1f ms (render %.1f ms, save %.1f ms in total)%n",
+                generated, results.size(), nanos / NANOS_PER_MILLI, renderNanos / NANOS_PER_MILLI,
+                saveNanos / NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,111 @@
+package org.blockwiseph.cftemplate.generator.cli;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.blockwiseph.cftemplate.generator.CFTemplateFormat;
+import lombok.Getter;
+
+/**
+ * The options of the command line generator, parsed from its arguments, as described in
+ * @see org.blockwiseph.cftemplate.generator.cli.CFTemplateGeneratorCli
+ */
+@Getter
+final class CliOptions {
+
+    private static final String OPTION_PREFIX = "--";
+    private static final char VALUE_SEPARATOR = '=';
+
+    private int maxConcurrency = Runtime.getRuntime().availableProcessors();
+    private CFTemplateFormat templateFormat = CFTemplateFormat.YAML;
+    private boolean incremental;
+    private boolean validateReferences;
+    private boolean syncOnSave;
+    private boolean pipelined;
+    private boolean list;
+    private boolean help;
+    private final List<String> stackNamePatterns = new ArrayList<>();
+
+    /**
+     * @param args the arguments of the command line generator
+     * @return the parsed options
+     * @throws IllegalArgumentException if an option is unknown, or its value is invalid
+     */
+    static CliOptions parse(final String... args) {
+        final CliOptions options = new CliOptions();
+        for (final String arg : args) {
+            if (!arg.startsWith(OPTION_PREFIX)) {
+                options.stackNamePatterns.add(arg);
+                continue;
+            }
+            final int separator = arg.indexOf(VALUE_SEPARATOR);
+            final String name = separator < 0 ? arg : arg.substring(0, separator);
+            final String value = separator < 0 ? null : arg.substring(separator + 1);
+            switch (name) {
+                case "--concurrency":
+                    options.maxConcurrency = parseConcurrency(requireValue(name, value));
+                    break;
+                case "--format":
+                    options.templateFormat = parseFormat(requireValue(name, value));
+                    break;
+                case "--incremental":
+                    options.incremental = flag(name, value);
+                    break;
+                case "--validate-references":
+                    options.validateReferences = flag(name, value);
+                    break;
+                case "--sync-on-save":
+                    options.syncOnSave = flag(name, value);
+                    break;
+                case "--pipelined":
+                    options.pipelined = flag(name, value);
+                    break;
+                case "--list":
+                    options.list = flag(name, value);
+                    break;
+                case "--help":
+                    options.help = flag(name, value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+        return options;
+    }
+
+    private static String requireValue(final String name, final String value) {
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Option " + name + " requires a value, e.g. " + name + "=...");
+        }
+        return value;
+    }
+
+    private static boolean flag(final String name, final String value) {
+        if (value != null) {
+            throw new IllegalArgumentException("Option " + name + " does not take a value");
+        }
+        return true;
+    }
+
+    private static int parseConcurrency(final String value) {
+        final int concurrency;
+        try {
+            concurrency = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Concurrency must be a positive number: " + value, e);
+        }
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be a positive number: " + value);
+        }
+        return concurrency;
+    }
+
+    private static CFTemplateFormat parseFormat(final String value) {
+        try {
+            return CFTemplateFormat.valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown template format " + value, e);
+        }
+    }
+}
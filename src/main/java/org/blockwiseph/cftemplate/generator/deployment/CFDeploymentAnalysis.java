@@ -0,0 +1,273 @@
+package org.blockwiseph.cftemplate.generator.deployment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFReference;
+import org.blockwiseph.cftemplate.generator.node.CFReferences;
+import org.blockwiseph.cftemplate.generator.node.MappingNode;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+
+/**
+ * Analyzes the order in which CloudFormation can create the resources of a template, to find the chains of
+ * dependencies that keep resources from being created in parallel.
+ *
+ * A resource depends on the resources it references with "Ref", "Fn::GetAtt" or "Fn::Sub", and on the resources in
+ * its "DependsOn" attribute. References to parameters and to resources outside the analyzed resources are ignored.
+ * The resources are grouped into waves: the first wave has the resources without dependencies, and each later wave the
+ * resources whose dependencies are all in earlier waves, so the resources of a wave can be created in parallel.
+ * The critical path is a longest chain of dependencies, whose length is the number of waves, and the critical
+ * dependencies are the dependencies on any longest chain. Removing or restructuring a critical dependency is the only
+ * way to reduce the number of waves.
+ *
+ * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-attribute-dependson.html">AWS CloudFormation DependsOn Attribute Documentation</a>
+ */
+public final class CFDeploymentAnalysis {
+
+    private final List<String> logicalIds;
+    private final List<CFResourceDependency> dependencies;
+    private final List<List<String>> waves;
+    private final List<String> criticalPath;
+    private final List<CFResourceDependency> criticalDependencies;
+
+    private CFDeploymentAnalysis(final List<String> logicalIds, final List<CFResourceDependency> dependencies,
+                                 final List<List<String>> waves, final List<String> criticalPath,
+                                 final List<CFResourceDependency> criticalDependencies) {
+        this.logicalIds = logicalIds;
+        this.dependencies = dependencies;
+        this.waves = waves;
+        this.criticalPath = criticalPath;
+        this.criticalDependencies = criticalDependencies;
+    }
+
+    /**
+     * Analyzes the resources built by section builders of the Resources section, such as the resources of
+     * @see org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources
+     *
+     * @param resourceBuilders the section builders of the resources
+     * @return the analysis of the resources
+     * @throws IllegalArgumentException if a section builder does not build a mapping of logical ids to resources, a
+     *                                  logical id is defined more than once, or the resources depend on each other in a
+     *                                  cycle, which CloudFormation rejects
+     */
+    public static CFDeploymentAnalysis of(final List<? extends CFSectionBuilder> resourceBuilders) {
+        final Map<String, CFNode> resources = new LinkedHashMap<>();
+        for (final CFSectionBuilder resourceBuilder : resourceBuilders) {
+            final CFNode node = resourceBuilder.toNode();
+            if (!(node instanceof MappingNode)) {
+                throw new IllegalArgumentException("Resources must be mappings of logical ids to resources: " + node);
+            }
+            for (final MappingNode.Entry entry : ((MappingNode) node).getEntries()) {
+                if (resources.put(entry.getKey(), entry.getValue()) != null) {
+                    throw new IllegalArgumentException("Resource is defined more than once: " + entry.getKey());
+                }
+            }
+        }
+        return analyze(resources);
+    }
+
+    /**
+     * @return the logical ids of the analyzed resources, in the order they are defined
+     */
+    public List<String> getLogicalIds() {
+        return Collections.unmodifiableList(logicalIds);
+    }
+
+    /**
+     * @return the dependencies between the analyzed resources, by dependent in the order the resources are defined
+     */
+    public List<CFResourceDependency> getDependencies() {
+        return Collections.unmodifiableList(dependencies);
+    }
+
+    /**
+     * @return the logical ids of the resources of each wave, in the order the waves are created in
+     */
+    public List<List<String>> getWaves() {
+        return Collections.unmodifiableList(waves);
+    }
+
+    /**
+     * @return the logical ids of a longest chain of dependencies, starting with the resource created first
+     */
+    public List<String> getCriticalPath() {
+        return Collections.unmodifiableList(criticalPath);
+    }
+
+    /**
+     * @return the dependencies on any longest chain of dependencies, in the order of the waves of their dependencies
+     */
+    public List<CFResourceDependency> getCriticalDependencies() {
+        return Collections.unmodifiableList(criticalDependencies);
+    }
+
+    /**
+     * @return a readable report of the waves, the critical path and the critical dependencies
+     */
+    public String getReport() {
+        final StringBuilder report = new StringBuilder()
+                .append(String.format("%d resources in %d waves%n", logicalIds.size(), waves.size()));
+        for (int wave = 0; wave < waves.size(); wave++) {
+            report.append(String.format("Wave %d: %s%n", wave + 1, String.join(", ", waves.get(wave))));
+        }
+        report.append(String.format("Critical path: %s%n", String.join(" -> ", criticalPath)));
+        for (final CFResourceDependency dependency : criticalDependencies) {
+            report.append(String.format("Critical dependency: %s depends on %s with %s%s%n", dependency.getDependent(),
+                    dependency.getDependency(), dependency.getKinds(),
+                    dependency.isExplicitOnly() ? ", only from DependsOn" : ""));
+        }
+        return report.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getReport();
+    }
+
+    private static CFDeploymentAnalysis analyze(final Map<String, CFNode> resources) {
+        final List<String> logicalIds = new ArrayList<>(resources.keySet());
+        final Map<String, Integer> indexByLogicalId = new HashMap<>();
+        for (int i = 0; i < logicalIds.size(); i++) {
+            indexByLogicalId.put(logicalIds.get(i), i);
+        }
+
+        final List<Map<Integer, Set<CFReference.Kind>>> dependenciesByResource = new ArrayList<>();
+        final List<List<Integer>> dependentsByResource = new ArrayList<>();
+        for (int i = 0; i < logicalIds.size(); i++) {
+            dependenciesByResource.add(new LinkedHashMap<>());
+            dependentsByResource.add(new ArrayList<>());
+        }
+        final List<CFResourceDependency> dependencies = new ArrayList<>();
+        for (int i = 0; i < logicalIds.size(); i++) {
+            final Map<Integer, Set<CFReference.Kind>> resourceDependencies = dependenciesByResource.get(i);
+            final CFReferences references = CFReferences.of(resources.get(logicalIds.get(i)));
+            addDependencies(resourceDependencies, i, references.getRefs(), CFReference.Kind.REF, indexByLogicalId);
+            addDependencies(resourceDependencies, i, references.getGetAtts(), CFReference.Kind.GET_ATT,
+                    indexByLogicalId);
+            addDependencies(resourceDependencies, i, references.getDependsOn(), CFReference.Kind.DEPENDS_ON,
+                    indexByLogicalId);
+            for (final Map.Entry<Integer, Set<CFReference.Kind>> dependency : resourceDependencies.entrySet()) {
+                dependentsByResource.get(dependency.getKey()).add(i);
+                dependencies.add(new CFResourceDependency(logicalIds.get(i), logicalIds.get(dependency.getKey()),
+                        dependency.getValue()));
+            }
+        }
+
+        final int[] waveOf = new int[logicalIds.size()];
+        final List<Integer> creationOrder = creationOrder(logicalIds, dependenciesByResource, dependentsByResource,
+                waveOf);
+        final int[] remainingChain = new int[logicalIds.size()];
+        for (int i = creationOrder.size() - 1; i >= 0; i--) {
+            final int resource = creationOrder.get(i);
+            remainingChain[resource] = 1 + dependentsByResource.get(resource).stream()
+                    .mapToInt(dependent -> remainingChain[dependent])
+                    .max()
+                    .orElse(0);
+        }
+        int criticalLength = 0;
+        for (int i = 0; i < logicalIds.size(); i++) {
+            criticalLength = Math.max(criticalLength, waveOf[i] + remainingChain[i]);
+        }
+
+        final List<List<String>> waves = new ArrayList<>();
+        for (int wave = 0; wave < criticalLength; wave++) {
+            waves.add(new ArrayList<>());
+        }
+        for (int i = 0; i < logicalIds.size(); i++) {
+            waves.get(waveOf[i]).add(logicalIds.get(i));
+        }
+
+        final List<String> criticalPath = new ArrayList<>();
+        Integer next = null;
+        for (int i = 0; i < logicalIds.size() && next == null; i++) {
+            if (waveOf[i] == 0 && remainingChain[i] == criticalLength) {
+                next = i;
+            }
+        }
+        while (next != null) {
+            final int resource = next;
+            criticalPath.add(logicalIds.get(resource));
+            next = dependentsByResource.get(resource).stream()
+                    .filter(dependent -> waveOf[dependent] == waveOf[resource] + 1
+                            && remainingChain[dependent] == remainingChain[resource] - 1)
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        final List<CFResourceDependency> criticalDependencies = new ArrayList<>();
+        for (final CFResourceDependency dependency : dependencies) {
+            final int dependent = indexByLogicalId.get(dependency.getDependent());
+            final int dependencyIndex = indexByLogicalId.get(dependency.getDependency());
+            if (waveOf[dependencyIndex] + 1 + remainingChain[dependent] == criticalLength) {
+                criticalDependencies.add(dependency);
+            }
+        }
+        criticalDependencies.sort(Comparator.comparingInt(dependency ->
+                waveOf[indexByLogicalId.get(dependency.getDependency())]));
+
+        return new CFDeploymentAnalysis(logicalIds, dependencies, waves, criticalPath, criticalDependencies);
+    }
+
+    private static void addDependencies(final Map<Integer, Set<CFReference.Kind>> resourceDependencies,
+                                        final int resource, final Set<String> referencedLogicalIds,
+                                        final CFReference.Kind kind, final Map<String, Integer> indexByLogicalId) {
+        for (final String logicalId : referencedLogicalIds) {
+            final Integer dependency = indexByLogicalId.get(logicalId);
+            if (dependency != null && dependency != resource) {
+                resourceDependencies.computeIfAbsent(dependency, d -> EnumSet.noneOf(CFReference.Kind.class)).add(kind);
+            }
+        }
+    }
+
+    /**
+     * Sorts the resources topologically with Kahn's algorithm, setting the wave of each resource to the length of the
+     * longest chain of dependencies before it.
+     *
+     * @return the resources in an order they can be created in
+     * @throws IllegalArgumentException if the resources depend on each other in a cycle
+     */
+    private static List<Integer> creationOrder(final List<String> logicalIds,
+                                               final List<Map<Integer, Set<CFReference.Kind>>> dependenciesByResource,
+                                               final List<List<Integer>> dependentsByResource, final int[] waveOf) {
+        final int[] remainingDependencies = new int[logicalIds.size()];
+        final Deque<Integer> creatable = new ArrayDeque<>();
+        for (int i = 0; i < logicalIds.size(); i++) {
+            remainingDependencies[i] = dependenciesByResource.get(i).size();
+            if (remainingDependencies[i] == 0) {
+                creatable.add(i);
+            }
+        }
+        final List<Integer> creationOrder = new ArrayList<>();
+        while (!creatable.isEmpty()) {
+            final int resource = creatable.poll();
+            creationOrder.add(resource);
+            for (final int dependent : dependentsByResource.get(resource)) {
+                waveOf[dependent] = Math.max(waveOf[dependent], waveOf[resource] + 1);
+                if (--remainingDependencies[dependent] == 0) {
+                    creatable.add(dependent);
+                }
+            }
+        }
+        if (creationOrder.size() < logicalIds.size()) {
+            final List<String> cyclic = new ArrayList<>();
+            for (int i = 0; i < logicalIds.size(); i++) {
+                if (remainingDependencies[i] > 0) {
+                    cyclic.add(logicalIds.get(i));
+                }
+            }
+            throw new IllegalArgumentException("Resources depend on each other in a cycle, or on resources that do: "
+                    + String.join(", ", cyclic));
+        }
+        return creationOrder;
+    }
+}
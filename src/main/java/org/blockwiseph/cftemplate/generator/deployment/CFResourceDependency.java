@@ -0,0 +1,40 @@
+package org.blockwiseph.cftemplate.generator.deployment;
+
+import java.util.Collections;
+import java.util.Set;
+
+import org.blockwiseph.cftemplate.generator.node.CFReference;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A dependency of one resource of a template on another, which CloudFormation creates first.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class CFResourceDependency {
+
+    private final String dependent;
+    private final String dependency;
+    private final Set<CFReference.Kind> kinds;
+
+    /**
+     * @return the ways the dependent references the dependency, e.g. with "Ref" and with "DependsOn"
+     */
+    public Set<CFReference.Kind> getKinds() {
+        return Collections.unmodifiableSet(kinds);
+    }
+
+    /**
+     * @return whether the dependency only comes from the "DependsOn" attribute of the dependent, in which case it can
+     *         be removed without changing the properties of the dependent
+     */
+    public boolean isExplicitOnly() {
+        return kinds.size() == 1 && kinds.contains(CFReference.Kind.DEPENDS_ON);
+    }
+}
@@ -0,0 +1,34 @@
+package org.blockwiseph.cftemplate.generator.diff;
+
+import java.util.Collections;
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A resource that is in both templates being compared, with different contents.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class CFResourceChange {
+
+    private final String resourceId;
+    private final String resourceType;
+    private final List<String> changedPaths;
+
+    /**
+     * @return the paths of the values that changed, e.g. "Properties.Timeout" or "Properties.Tags[2].Value". A value
+     *         that is only in one of the templates, or whose type of node changed, is reported at its own path and not
+     *         at the paths under it. An intrinsic function is compared as a whole. The path is empty if the resource
+     *         could not be compared value by value, in which case it changed as a whole.
+     */
+    public List<String> getChangedPaths() {
+        return Collections.unmodifiableList(changedPaths);
+    }
+}
@@ -0,0 +1,210 @@
+package org.blockwiseph.cftemplate.generator.diff;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.MappingNode;
+import org.blockwiseph.cftemplate.generator.node.ScalarNode;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * The resources that were added, removed and modified between two versions of a template, and the paths of the values
+ * that changed in each modified resource.
+ *
+ * The templates are compared by the fingerprints of their top level sections and resources, the same fingerprints
+ * that are saved next to templates generated incrementally, as described in
+ * @see org.blockwiseph.cftemplate.generator.CFTemplateFingerprints
+ * A resource whose fingerprint did not change is skipped without building its contents, so only the modified
+ * resources are compared value by value. A resource whose rendered contents changed without any of its values
+ * changing, e.g. by quoting a string that did not need quotes, is reported as unchanged.
+ * Only the resources built by resource section builders, such as the ones of
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources
+ * have fingerprints. A change to other resources, or to the other sections, is only reported as a changed section.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CFTemplateDiff {
+
+    private static final String TYPE = "Type";
+
+    private final List<String> changedSections;
+    private final List<String> addedResources;
+    private final List<String> removedResources;
+    private final List<CFResourceChange> modifiedResources;
+    private final int unchangedResources;
+
+    /**
+     * Compares two versions of a template, both given by their top level section builders.
+     *
+     * @param before the top level section builders of the template before the change
+     * @param after  the top level section builders of the template after the change
+     * @return the changes between the templates
+     */
+    public static CFTemplateDiff between(final List<? extends CFSectionBuilder> before,
+                                         final List<? extends CFSectionBuilder> after) {
+        return diff(TemplateSnapshot.of(before), TemplateSnapshot.of(after));
+    }
+
+    /**
+     * Compares a template that was saved with its fingerprints, by generating it incrementally, with a new version of
+     * it given by its top level section builders. The saved template is only read if some of its resources changed,
+     * in which case it must have been saved as YAML.
+     *
+     * @param cfTemplateFilePath the path of the saved template
+     * @param after              the top level section builders of the template after the change
+     * @return the changes between the saved template and the new version
+     * @throws IllegalArgumentException if no fingerprints were saved with the template, or the template can not be
+     *                                  parsed
+     */
+    public static CFTemplateDiff since(final String cfTemplateFilePath, final List<? extends CFSectionBuilder> after) {
+        return diff(TemplateSnapshot.saved(cfTemplateFilePath), TemplateSnapshot.of(after));
+    }
+
+    /**
+     * @return whether the templates render the same, in which case deploying the new version would not change the stack
+     */
+    public boolean isEmpty() {
+        return changedSections.isEmpty();
+    }
+
+    /**
+     * @return the top level sections whose rendered contents changed, by title, or by their position in the template
+     *         if they have none. Sections that are only in one of the templates are included.
+     */
+    public List<String> getChangedSections() {
+        return Collections.unmodifiableList(changedSections);
+    }
+
+    /**
+     * @return the resource ids of the resources that are only in the new version, in the order they are defined
+     */
+    public List<String> getAddedResources() {
+        return Collections.unmodifiableList(addedResources);
+    }
+
+    /**
+     * @return the resource ids of the resources that are only in the old version, in the order they were defined
+     */
+    public List<String> getRemovedResources() {
+        return Collections.unmodifiableList(removedResources);
+    }
+
+    /**
+     * @return the resources whose values changed, in the order they are defined in the new version
+     */
+    public List<CFResourceChange> getModifiedResources() {
+        return Collections.unmodifiableList(modifiedResources);
+    }
+
+    /**
+     * @return the number of resources in both versions whose values did not change
+     */
+    public int getUnchangedResources() {
+        return unchangedResources;
+    }
+
+    /**
+     * @return a human readable report of the changes, with a line per changed section and per changed resource
+     */
+    public String getReport() {
+        final StringBuilder report = new StringBuilder().append(String.format(
+                "%d added, %d removed, %d modified and %d unchanged resources, %d changed sections%n",
+                addedResources.size(), removedResources.size(), modifiedResources.size(), unchangedResources,
+                changedSections.size()));
+        for (final String section : changedSections) {
+            report.append(String.format("Changed section: %s%n", section));
+        }
+        for (final String resourceId : addedResources) {
+            report.append(String.format("+ %s%n", resourceId));
+        }
+        for (final String resourceId : removedResources) {
+            report.append(String.format("- %s%n", resourceId));
+        }
+        for (final CFResourceChange change : modifiedResources) {
+            report.append(String.format("~ %s (%s): %s%n", change.getResourceId(), change.getResourceType(),
+                    String.join(", ", change.getChangedPaths())));
+        }
+        return report.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getReport();
+    }
+
+    private static CFTemplateDiff diff(final TemplateSnapshot before, final TemplateSnapshot after) {
+        final List<String> changedSections = new ArrayList<>();
+        final List<String> beforeSections = before.getSectionFingerprints();
+        final List<String> afterSections = after.getSectionFingerprints();
+        for (int i = 0; i < Math.max(beforeSections.size(), afterSections.size()); i++) {
+            if (i >= beforeSections.size() || i >= afterSections.size()
+                    || !beforeSections.get(i).equals(afterSections.get(i))) {
+                final String title = i < afterSections.size()
+                        ? after.getSectionTitles().get(i)
+                        : before.getSectionTitles().get(i);
+                changedSections.add(title == null ? "#" + (i + 1) : title);
+            }
+        }
+
+        final Map<String, String> beforeResources = before.getResourceFingerprints();
+        final Map<String, String> afterResources = after.getResourceFingerprints();
+        final List<String> addedResources = new ArrayList<>();
+        final List<CFResourceChange> modifiedResources = new ArrayList<>();
+        int unchangedResources = 0;
+        for (final Map.Entry<String, String> afterResource : afterResources.entrySet()) {
+            final String resourceId = afterResource.getKey();
+            final String beforeFingerprint = beforeResources.get(resourceId);
+            if (beforeFingerprint == null) {
+                addedResources.add(resourceId);
+                continue;
+            }
+            if (beforeFingerprint.equals(afterResource.getValue())) {
+                unchangedResources++;
+                continue;
+            }
+            final CFResourceChange change =
+                    resourceChange(resourceId, before.resourceNode(resourceId), after.resourceNode(resourceId));
+            if (change.getChangedPaths().isEmpty()) {
+                unchangedResources++;
+            } else {
+                modifiedResources.add(change);
+            }
+        }
+        final List<String> removedResources = new ArrayList<>();
+        for (final String resourceId : beforeResources.keySet()) {
+            if (!afterResources.containsKey(resourceId)) {
+                removedResources.add(resourceId);
+            }
+        }
+        return new CFTemplateDiff(changedSections, addedResources, removedResources, modifiedResources,
+                unchangedResources);
+    }
+
+    /**
+     * Compares the contents of a resource in both versions. A resource that can not be found in the saved template,
+     * e.g. because the template was edited after it was saved, is reported as changed as a whole.
+     */
+    private static CFResourceChange resourceChange(final String resourceId, final CFNode before, final CFNode after) {
+        final List<String> changedPaths = new ArrayList<>();
+        if (before == null || after == null) {
+            changedPaths.add("");
+        } else {
+            NodeDiff.addChangedPaths("", before, after, changedPaths);
+        }
+        return new CFResourceChange(resourceId, resourceType(after == null ? before : after), changedPaths);
+    }
+
+    private static String resourceType(final CFNode resource) {
+        if (resource instanceof MappingNode) {
+            return ((MappingNode) resource).get(TYPE)
+                    .filter(ScalarNode.class::isInstance)
+                    .map(type -> ((ScalarNode) type).getValue())
+                    .orElse(null);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package org.blockwiseph.cftemplate.generator.diff;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.MappingNode;
+import org.blockwiseph.cftemplate.generator.node.SequenceNode;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * Finds the paths at which two nodes differ, as described in
+ * @see org.blockwiseph.cftemplate.generator.diff.CFResourceChange#getChangedPaths()
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class NodeDiff {
+
+    /**
+     * @param path         the path of the nodes, which is empty for the root
+     * @param before       the node before the change
+     * @param after        the node after the change
+     * @param changedPaths the list to add the paths at which the nodes differ to, in the order of the nodes
+     */
+    static void addChangedPaths(final String path, final CFNode before, final CFNode after,
+                                final List<String> changedPaths) {
+        if (before.equals(after)) {
+            return;
+        }
+        if (before instanceof MappingNode && after instanceof MappingNode) {
+            final Map<String, CFNode> beforeEntries = new LinkedHashMap<>();
+            for (final MappingNode.Entry entry : ((MappingNode) before).getEntries()) {
+                beforeEntries.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+            for (final MappingNode.Entry entry : ((MappingNode) after).getEntries()) {
+                final CFNode beforeValue = beforeEntries.remove(entry.getKey());
+                if (beforeValue == null) {
+                    changedPaths.add(keyPath(path, entry.getKey()));
+                } else {
+                    addChangedPaths(keyPath(path, entry.getKey()), beforeValue, entry.getValue(), changedPaths);
+                }
+            }
+            beforeEntries.keySet().forEach(key -> changedPaths.add(keyPath(path, key)));
+        } else if (before instanceof SequenceNode && after instanceof SequenceNode) {
+            final List<CFNode> beforeItems = ((SequenceNode) before).getItems();
+            final List<CFNode> afterItems = ((SequenceNode) after).getItems();
+            for (int i = 0; i < Math.max(beforeItems.size(), afterItems.size()); i++) {
+                final String itemPath = path + "[" + i + "]";
+                if (i >= beforeItems.size() || i >= afterItems.size()) {
+                    changedPaths.add(itemPath);
+                } else {
+                    addChangedPaths(itemPath, beforeItems.get(i), afterItems.get(i), changedPaths);
+                }
+            }
+        } else {
+            changedPaths.add(path);
+        }
+    }
+
+    private static String keyPath(final String path, final String key) {
+        return path.isEmpty() ? key : path + "." + key;
+    }
+}
@@ -0,0 +1,133 @@
+package org.blockwiseph.cftemplate.generator.diff;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.blockwiseph.cftemplate.generator.CFTemplateFingerprints;
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFNodes;
+import org.blockwiseph.cftemplate.generator.node.MappingNode;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderOptions;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionRenderer;
+import org.blockwiseph.cftemplate.generator.util.FingerprintingAppendable;
+import com.google.common.io.CharStreams;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The fingerprints of the top level sections and resources of one of the templates being compared, and the nodes of
+ * its resources. The nodes are only built for the resources whose fingerprints differ from the other template.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class TemplateSnapshot {
+
+    private static final String RESOURCES = "Resources";
+
+    @Getter(AccessLevel.PACKAGE)
+    private final List<String> sectionFingerprints;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final List<String> sectionTitles;
+
+    @Getter(AccessLevel.PACKAGE)
+    private final Map<String, String> resourceFingerprints;
+
+    private final Function<String, CFNode> resourceNodes;
+
+    /**
+     * Renders the top level section builders of a template, without keeping the rendered template, the same way the
+     * template supplier renders them when fingerprinting, so the fingerprints can be compared with saved ones.
+     */
+    static TemplateSnapshot of(final List<? extends CFSectionBuilder> topLevelSectionBuilders) {
+        final List<String> sectionFingerprints = new ArrayList<>();
+        final List<String> sectionTitles = new ArrayList<>();
+        final Map<String, String> resourceFingerprints = new LinkedHashMap<>();
+        final Map<String, CFSectionBuilder> resourceBuilders = new HashMap<>();
+        final CFRenderOptions options = CFRenderOptions.builder()
+                .renderListener(event -> {
+                    if (event.getResourceId() != null) {
+                        resourceBuilders.put(event.getResourceId(), event.getSectionBuilder());
+                    }
+                })
+                .build();
+        try {
+            for (final CFSectionBuilder topLevelSectionBuilder : topLevelSectionBuilders) {
+                final FingerprintingAppendable sectionOut = new FingerprintingAppendable(CharStreams.nullWriter());
+                resourceFingerprints.putAll(CFSectionRenderer.renderWithResourceFingerprints(
+                        topLevelSectionBuilder, sectionOut, 0, options));
+                sectionFingerprints.add(sectionOut.fingerprint());
+                sectionTitles.add(CFSectionBuilderFactory.titleOf(topLevelSectionBuilder));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to render template", e);
+        }
+        return new TemplateSnapshot(sectionFingerprints, sectionTitles, resourceFingerprints,
+                resourceId -> resourceNode(CFNodes.parse(CFSectionRenderer.renderToString(
+                        resourceBuilders.get(resourceId))), resourceId));
+    }
+
+    /**
+     * Reads the fingerprints saved next to a template file. The template file is only parsed if the node of one of its
+     * resources is needed, in which case it must be a YAML template.
+     *
+     * @throws IllegalArgumentException if there are no fingerprints saved next to the template file
+     */
+    static TemplateSnapshot saved(final String cfTemplateFilePath) {
+        final CFTemplateFingerprints fingerprints =
+                CFTemplateFingerprints.read(CFTemplateFingerprints.indexFileOf(cfTemplateFilePath))
+                        .orElseThrow(() -> new IllegalArgumentException("No fingerprints are saved for template "
+                                + cfTemplateFilePath + ", they are saved when generating it incrementally"));
+        final Map<String, CFNode> resources = new HashMap<>();
+        return new TemplateSnapshot(fingerprints.getSectionFingerprints(),
+                Collections.nCopies(fingerprints.getSectionFingerprints().size(), null),
+                fingerprints.getResourceFingerprints(),
+                resourceId -> {
+                    if (resources.isEmpty()) {
+                        resources.putAll(savedResources(cfTemplateFilePath));
+                    }
+                    return resources.get(resourceId);
+                });
+    }
+
+    /**
+     * @return the node of the contents of the resource, or null if the resource can not be found
+     */
+    CFNode resourceNode(final String resourceId) {
+        return resourceNodes.apply(resourceId);
+    }
+
+    private static CFNode resourceNode(final CFNode resources, final String resourceId) {
+        return resources instanceof MappingNode ? ((MappingNode) resources).get(resourceId).orElse(null) : null;
+    }
+
+    private static Map<String, CFNode> savedResources(final String cfTemplateFilePath) {
+        final CFNode template;
+        try {
+            template = CFNodes.parse(new String(Files.readAllBytes(Paths.get(cfTemplateFilePath)), UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read template " + cfTemplateFilePath, e);
+        }
+        final Map<String, CFNode> resources = new HashMap<>();
+        if (template instanceof MappingNode) {
+            ((MappingNode) template).get(RESOURCES)
+                    .filter(MappingNode.class::isInstance)
+                    .ifPresent(node -> ((MappingNode) node).getEntries()
+                            .forEach(entry -> resources.put(entry.getKey(), entry.getValue())));
+        }
+        return resources;
+    }
+}
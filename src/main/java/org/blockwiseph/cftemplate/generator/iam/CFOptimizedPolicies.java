@@ -0,0 +1,126 @@
+package org.blockwiseph.cftemplate.generator.iam;
+
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.referencing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.IAMManagedPolicy;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.IAMPolicyDocument;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.IAMPolicyStatement;
+
+/**
+ * The policies of a role compacted by
+ * @see org.blockwiseph.cftemplate.generator.iam.CFPolicyOptimizer
+ *
+ * The inline policies are set as the policies of the role, and the managed policies are added to the template as
+ * resources attached to the role, e.g.
+ * IAMRole.builder().resourceId("Role").policies(optimized.getInlinePolicies())...
+ * and optimized.managedPolicyResources("Role").
+ */
+public final class CFOptimizedPolicies {
+
+    private final List<IAMPolicyDocument> inlinePolicies;
+    private final List<IAMPolicyDocument> managedPolicies;
+    private final List<Long> inlinePolicyBytes;
+    private final List<Long> managedPolicyBytes;
+    private final int actionCount;
+    private final int compactedActionCount;
+
+    CFOptimizedPolicies(final List<List<IAMPolicyStatement>> inlinePolicies,
+                        final List<List<IAMPolicyStatement>> managedPolicies,
+                        final int actionCount, final int compactedActionCount) {
+        this.inlinePolicies = documentsOf(inlinePolicies);
+        this.managedPolicies = documentsOf(managedPolicies);
+        this.inlinePolicyBytes = bytesOf(inlinePolicies);
+        this.managedPolicyBytes = bytesOf(managedPolicies);
+        this.actionCount = actionCount;
+        this.compactedActionCount = compactedActionCount;
+    }
+
+    /**
+     * @return the inline policies, which are no policies if there are no statements, and one otherwise
+     */
+    public List<IAMPolicyDocument> getInlinePolicies() {
+        return inlinePolicies;
+    }
+
+    public List<IAMPolicyDocument> getManagedPolicies() {
+        return managedPolicies;
+    }
+
+    /**
+     * @return the sizes of the inline policies, in characters without whitespace, as IAM counts them
+     */
+    public List<Long> getInlinePolicyBytes() {
+        return inlinePolicyBytes;
+    }
+
+    /**
+     * @return the sizes of the managed policies, in characters without whitespace, as IAM counts them
+     */
+    public List<Long> getManagedPolicyBytes() {
+        return managedPolicyBytes;
+    }
+
+    /**
+     * @return the number of actions of the statements before they were compacted
+     */
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    /**
+     * @return the number of actions of the compacted statements
+     */
+    public int getCompactedActionCount() {
+        return compactedActionCount;
+    }
+
+    /**
+     * Builds the managed policy resources attached to the role, with logical ids named after the role, e.g.
+     * "RoleManagedPolicy1".
+     *
+     * @param roleId the logical id of the role
+     * @return the managed policy resources, to add to the Resources section
+     */
+    public List<CFSectionBuilder> managedPolicyResources(final String roleId) {
+        final List<CFSectionBuilder> resources = new ArrayList<>();
+        for (int i = 0; i < managedPolicies.size(); i++) {
+            resources.add(IAMManagedPolicy.builder()
+                    .resourceId(roleId + "ManagedPolicy" + (i + 1))
+                    .policyDocument(managedPolicies.get(i))
+                    .roles(Collections.singletonList(referencing(roleId)))
+                    .build());
+        }
+        return resources;
+    }
+
+    /**
+     * @return a report of the number of actions and the sizes of the policies
+     */
+    public String getReport() {
+        return String.format("%d actions compacted to %d, inline policies of %s characters, managed policies of %s "
+                + "characters", actionCount, compactedActionCount, inlinePolicyBytes, managedPolicyBytes);
+    }
+
+    @Override
+    public String toString() {
+        return getReport();
+    }
+
+    private static List<IAMPolicyDocument> documentsOf(final List<List<IAMPolicyStatement>> policies) {
+        return Collections.unmodifiableList(policies.stream()
+                .map(statements -> IAMPolicyDocument.builder().statements(statements).build())
+                .collect(Collectors.toList()));
+    }
+
+    private static List<Long> bytesOf(final List<List<IAMPolicyStatement>> policies) {
+        return Collections.unmodifiableList(policies.stream()
+                .map(CFPolicyOptimizer::documentBytes)
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,272 @@
+package org.blockwiseph.cftemplate.generator.iam;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.IAMPolicyDocument;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.IAMPolicyStatement;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import lombok.Builder;
+
+/**
+ * Compacts the statements of the policies of a role, so they stay under the IAM policy size quotas:
+ * - the actions of the statements with the same resources are merged into one statement,
+ * - the actions of the services in wildcardServices are collapsed into a wildcard for the service, e.g. "s3:*",
+ * - duplicate actions, which IAM compares ignoring case, and actions matched by a wildcard action of the same
+ *   statement, e.g. "s3:GetObject" with "s3:Get*", are removed.
+ *
+ * If the compacted statements fit in an inline policy of the role, they are put in one. Otherwise the statements are
+ * split, and packed into the inline policy and as few managed policies as possible, in their order, as described in
+ * @see org.blockwiseph.cftemplate.generator.iam.CFOptimizedPolicies
+ *
+ * The sizes of the policies are counted like IAM does, in characters of the JSON policy document without whitespace.
+ * Resources that are intrinsic functions, e.g. getAttArn("Table"), are resolved by CloudFormation to ARNs that are
+ * usually longer than the function, so the limits should leave room for them. The inline policy limit applies to all
+ * the inline policies of the role together, so it should be lowered by the size of the role's other inline policies.
+ *
+ * @see <a href="https://docs.aws.amazon.com/IAM/latest/UserGuide/reference_iam-quotas.html">AWS IAM Quotas Documentation</a>
+ */
+@Builder
+public class CFPolicyOptimizer {
+
+    private static final long MAX_INLINE_POLICY_BYTES = 10_240;
+    private static final long MAX_MANAGED_POLICY_BYTES = 6_144;
+    private static final int MAX_MANAGED_POLICIES = 10;
+
+    private static final String ALL_ACTIONS = "*";
+    private static final String SERVICE_SEPARATOR = ":";
+    private static final int DOCUMENT_BYTES =
+            ("{\"Version\":" + IAMPolicyDocument.VERSION + ",\"Statement\":[]}").length();
+    private static final int STATEMENT_BYTES = "{\"Effect\":\"Allow\",\"Action\":[],\"Resource\":[]}".length();
+    private static final int QUOTES_BYTES = 2;
+
+    /**
+     * The services whose actions may be collapsed into a wildcard for the service, e.g. "logs".
+     */
+    @Builder.Default
+    private final Set<String> wildcardServices = ImmutableSet.of();
+
+    @Builder.Default
+    private final long maxInlinePolicyBytes = MAX_INLINE_POLICY_BYTES;
+
+    @Builder.Default
+    private final long maxManagedPolicyBytes = MAX_MANAGED_POLICY_BYTES;
+
+    @Builder.Default
+    private final int maxManagedPolicies = MAX_MANAGED_POLICIES;
+
+    /**
+     * Compacts the statements and splits them across policies.
+     *
+     * @param statements the statements of the policies of the role
+     * @return the compacted policies
+     * @throws IllegalArgumentException if a single action does not fit in a policy, or the statements need more managed
+     *                                  policies than the maximum
+     */
+    public CFOptimizedPolicies optimize(final List<IAMPolicyStatement> statements) {
+        final Set<String> collapsedServices = wildcardServices.stream()
+                .map(service -> service.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        final Map<List<String>, Map<String, String>> actionsByResources = new LinkedHashMap<>();
+        int actionCount = 0;
+        for (final IAMPolicyStatement statement : statements) {
+            final Map<String, String> actions = actionsByResources.computeIfAbsent(
+                    ImmutableList.copyOf(new LinkedHashSet<>(statement.getResources())), resources -> new LinkedHashMap<>());
+            for (final String action : statement.getActions()) {
+                final String service = serviceOf(action);
+                final String compactedAction = collapsedServices.contains(service)
+                        ? service + SERVICE_SEPARATOR + ALL_ACTIONS
+                        : action.trim();
+                actions.putIfAbsent(compactedAction.toLowerCase(Locale.ROOT), compactedAction);
+                actionCount++;
+            }
+        }
+
+        final List<IAMPolicyStatement> compacted = new ArrayList<>();
+        for (final Map.Entry<List<String>, Map<String, String>> entry : actionsByResources.entrySet()) {
+            final List<String> actions = withoutMatchedActions(entry.getValue().values());
+            if (!actions.isEmpty()) {
+                compacted.add(IAMPolicyStatement.builder().actions(actions).resources(entry.getKey()).build());
+            }
+        }
+        final int compactedActionCount = compacted.stream().mapToInt(statement -> statement.getActions().size()).sum();
+
+        if (documentBytes(compacted) <= maxInlinePolicyBytes) {
+            return new CFOptimizedPolicies(compacted.isEmpty() ? ImmutableList.of() : ImmutableList.of(compacted),
+                    ImmutableList.of(), actionCount, compactedActionCount);
+        }
+        return pack(split(compacted, Math.min(maxInlinePolicyBytes, maxManagedPolicyBytes)), actionCount,
+                compactedActionCount);
+    }
+
+    /**
+     * Packs the statements first fit into the inline policy, then into managed policies, in their order.
+     */
+    private CFOptimizedPolicies pack(final List<IAMPolicyStatement> statements, final int actionCount,
+                                     final int compactedActionCount) {
+        final List<List<IAMPolicyStatement>> policies = new ArrayList<>();
+        final List<Long> policyBytes = new ArrayList<>();
+        for (final IAMPolicyStatement statement : statements) {
+            final long bytes = statementBytes(statement);
+            int policy = 0;
+            while (policy < policies.size()
+                    && policyBytes.get(policy) + 1 + bytes > (policy == 0 ? maxInlinePolicyBytes : maxManagedPolicyBytes)) {
+                policy++;
+            }
+            if (policy == policies.size()) {
+                policies.add(new ArrayList<>());
+                policyBytes.add((long) DOCUMENT_BYTES - 1);
+            }
+            policies.get(policy).add(statement);
+            policyBytes.set(policy, policyBytes.get(policy) + 1 + bytes);
+        }
+        if (policies.size() - 1 > maxManagedPolicies) {
+            throw new IllegalArgumentException(String.format(
+                    "The statements need %d managed policies, more than the maximum of %d",
+                    policies.size() - 1, maxManagedPolicies));
+        }
+        return new CFOptimizedPolicies(policies.subList(0, 1), policies.subList(1, policies.size()), actionCount,
+                compactedActionCount);
+    }
+
+    /**
+     * Splits the statements whose actions do not fit in a policy of the maximum size into statements that do.
+     */
+    private static List<IAMPolicyStatement> split(final List<IAMPolicyStatement> statements, final long maxBytes) {
+        final List<IAMPolicyStatement> splitStatements = new ArrayList<>();
+        for (final IAMPolicyStatement statement : statements) {
+            final long resourcesBytes = DOCUMENT_BYTES + STATEMENT_BYTES + listBytes(statement.getResources());
+            List<String> actions = new ArrayList<>();
+            long bytes = resourcesBytes;
+            for (final String action : statement.getActions()) {
+                final long actionBytes = (actions.isEmpty() ? 0 : 1) + valueBytes(action);
+                if (resourcesBytes + valueBytes(action) > maxBytes) {
+                    throw new IllegalArgumentException(String.format(
+                            "Action %s on %s does not fit in a policy of %d characters",
+                            action, statement.getResources(), maxBytes));
+                }
+                if (bytes + actionBytes > maxBytes) {
+                    splitStatements.add(statement.toBuilder().actions(actions).build());
+                    actions = new ArrayList<>();
+                    bytes = resourcesBytes + valueBytes(action);
+                } else {
+                    bytes += actionBytes;
+                }
+                actions.add(action);
+            }
+            splitStatements.add(statement.toBuilder().actions(actions).build());
+        }
+        return splitStatements;
+    }
+
+    /**
+     * Removes the actions matched by another action, e.g. "s3:GetObject" by "s3:Get*" or "*".
+     */
+    private static List<String> withoutMatchedActions(final Collection<String> actions) {
+        final Map<String, List<String>> wildcardsByService = new LinkedHashMap<>();
+        for (final String action : actions) {
+            if (action.contains(ALL_ACTIONS) || action.contains("?")) {
+                wildcardsByService.computeIfAbsent(serviceOf(action), service -> new ArrayList<>()).add(action);
+            }
+        }
+        final List<String> unmatchedActions = new ArrayList<>();
+        for (final String action : actions) {
+            if (!isMatchedByOther(action, wildcardsByService.get(serviceOf(action)))
+                    && !isMatchedByOther(action, wildcardsByService.get(ALL_ACTIONS))) {
+                unmatchedActions.add(action);
+            }
+        }
+        return unmatchedActions;
+    }
+
+    private static boolean isMatchedByOther(final String action, final List<String> wildcards) {
+        if (wildcards != null) {
+            for (final String wildcard : wildcards) {
+                if (!wildcard.equalsIgnoreCase(action) && matches(wildcard, action)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Matches an action against a wildcard action ignoring case, where "*" matches any characters and "?" any single
+     * character, as IAM does.
+     */
+    static boolean matches(final String wildcard, final String action) {
+        int w = 0;
+        int a = 0;
+        int lastStar = -1;
+        int actionAtLastStar = 0;
+        while (a < action.length()) {
+            if (w < wildcard.length() && wildcard.charAt(w) == '*') {
+                lastStar = w++;
+                actionAtLastStar = a;
+            } else if (w < wildcard.length()
+                    && (wildcard.charAt(w) == '?' || equalsIgnoreCase(wildcard.charAt(w), action.charAt(a)))) {
+                w++;
+                a++;
+            } else if (lastStar >= 0) {
+                w = lastStar + 1;
+                a = ++actionAtLastStar;
+            } else {
+                return false;
+            }
+        }
+        while (w < wildcard.length() && wildcard.charAt(w) == '*') {
+            w++;
+        }
+        return w == wildcard.length();
+    }
+
+    private static boolean equalsIgnoreCase(final char c1, final char c2) {
+        return Character.toLowerCase(c1) == Character.toLowerCase(c2);
+    }
+
+    /**
+     * @return the service of the action in lower case, e.g. "s3" for "s3:GetObject", or "*" for "*"
+     */
+    private static String serviceOf(final String action) {
+        final String trimmed = action.trim();
+        final int separator = trimmed.indexOf(SERVICE_SEPARATOR);
+        return (separator < 0 ? trimmed : trimmed.substring(0, separator)).toLowerCase(Locale.ROOT);
+    }
+
+    static long documentBytes(final List<IAMPolicyStatement> statements) {
+        long bytes = DOCUMENT_BYTES + Math.max(statements.size() - 1, 0);
+        for (final IAMPolicyStatement statement : statements) {
+            bytes += statementBytes(statement);
+        }
+        return bytes;
+    }
+
+    private static long statementBytes(final IAMPolicyStatement statement) {
+        return STATEMENT_BYTES + listBytes(statement.getActions()) + listBytes(statement.getResources());
+    }
+
+    private static long listBytes(final List<String> values) {
+        long bytes = Math.max(values.size() - 1, 0);
+        for (final String value : values) {
+            bytes += valueBytes(value);
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the size of the value as a JSON string, without the quotes the YAML value may already have
+     */
+    private static long valueBytes(final String value) {
+        final String trimmed = value.trim();
+        final boolean quoted = trimmed.length() >= QUOTES_BYTES && trimmed.startsWith("\"") && trimmed.endsWith("\"");
+        return trimmed.length() + (quoted ? 0 : QUOTES_BYTES);
+    }
+}
@@ -0,0 +1,95 @@
+package org.blockwiseph.cftemplate.generator.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFNodes;
+import org.blockwiseph.cftemplate.generator.node.YamlEventParser;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderOptions;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionRenderer;
+
+/**
+ * An Appendable that translates the YAML written to it by the section builders into JSON, line by line, as it is
+ * written. The YAML is never held in memory as a whole, so a template can be rendered straight to JSON.
+ *
+ * The short forms of the intrinsic functions are translated to their long forms, e.g. "!Ref Bucket" is written as
+ * {"Ref": "Bucket"}, and "!GetAtt Role.Arn" as {"Fn::GetAtt": ["Role", "Arn"]}.
+ * The YAML supported by the translator is described in
+ * @see org.blockwiseph.cftemplate.generator.node.YamlEventParser
+ */
+public final class CFJsonTranslator implements Appendable {
+
+    private final YamlEventParser parser;
+
+    /**
+     * @param out    the Appendable to write the JSON to
+     * @param pretty whether to pretty print the JSON with 2 spaces per level, or to write it compact
+     */
+    public CFJsonTranslator(final Appendable out, final boolean pretty) {
+        this.parser = new YamlEventParser(new JsonEventHandler(new JsonWriter(out, pretty)));
+    }
+
+    /**
+     * Renders the section builder as JSON, and returns the rendered contents.
+     *
+     * @param sectionBuilder the section builder to render
+     * @param options        the options to render with
+     * @param pretty         whether to pretty print the JSON, or to write it compact
+     * @return the contents of the section as JSON
+     * @throws IllegalArgumentException if the section contents can not be translated to JSON
+     */
+    public static String renderToString(final CFSectionBuilder sectionBuilder, final CFRenderOptions options,
+                                        final boolean pretty) {
+        final StringBuilder out = new StringBuilder();
+        final CFJsonTranslator translator = new CFJsonTranslator(out, pretty);
+        try {
+            CFSectionRenderer.render(sectionBuilder, translator, 0, options);
+            translator.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to render section contents", e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes a node of the typed template model as JSON.
+     *
+     * @param node   the node to write
+     * @param out    the Appendable to write the JSON to
+     * @param pretty whether to pretty print the JSON, or to write it compact
+     * @throws IOException if writing to the Appendable fails
+     */
+    public static void writeJson(final CFNode node, final Appendable out, final boolean pretty) throws IOException {
+        CFNodes.emit(node, new JsonEventHandler(new JsonWriter(out, pretty)));
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) throws IOException {
+        parser.append(csq);
+        return this;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+        parser.append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    public Appendable append(final char c) throws IOException {
+        parser.append(c);
+        return this;
+    }
+
+    /**
+     * Translates the last line, and closes all open JSON objects and arrays. This must be called once everything has
+     * been written to the translator.
+     *
+     * @throws IOException if writing the JSON fails
+     */
+    public void finish() throws IOException {
+        parser.finish();
+    }
+}
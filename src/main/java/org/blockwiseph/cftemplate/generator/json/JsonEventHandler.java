@@ -0,0 +1,69 @@
+package org.blockwiseph.cftemplate.generator.json;
+
+import java.io.IOException;
+
+import org.blockwiseph.cftemplate.generator.node.CFNodeEventHandler;
+import org.blockwiseph.cftemplate.generator.node.CFNodes;
+import org.blockwiseph.cftemplate.generator.node.ScalarNode;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * Writes the structure of a template as JSON. Intrinsic functions are written in their long form, as an object with
+ * the function name as its only key.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+class JsonEventHandler implements CFNodeEventHandler {
+
+    private final JsonWriter json;
+
+    @Override
+    public void beginMapping() throws IOException {
+        json.beginObject();
+    }
+
+    @Override
+    public void key(final String key) throws IOException {
+        json.name(key);
+    }
+
+    @Override
+    public void endMapping() throws IOException {
+        json.endObject();
+    }
+
+    @Override
+    public void beginSequence() throws IOException {
+        json.beginArray();
+    }
+
+    @Override
+    public void endSequence() throws IOException {
+        json.endArray();
+    }
+
+    @Override
+    public void scalar(final String value, final boolean plain) throws IOException {
+        final ScalarNode scalar = CFNodes.scalar(value, plain);
+        if (scalar.isNull()) {
+            json.literalValue("null");
+        } else if (scalar.isBoolean()) {
+            json.literalValue(value.toLowerCase());
+        } else if (scalar.isNumber()) {
+            json.literalValue(value);
+        } else {
+            json.stringValue(value);
+        }
+    }
+
+    @Override
+    public void beginFunction(final String functionName) throws IOException {
+        json.beginObject();
+        json.name(functionName);
+    }
+
+    @Override
+    public void endFunction() throws IOException {
+        json.endObject();
+    }
+}
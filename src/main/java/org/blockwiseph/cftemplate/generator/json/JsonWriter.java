@@ -0,0 +1,140 @@
+package org.blockwiseph.cftemplate.generator.json;
+
+import java.io.IOException;
+
+/**
+ * Writes JSON tokens to an Appendable as they are produced, either compact or pretty printed with 2 spaces per level.
+ * The writer does not validate the order of the tokens, which is the responsibility of the caller.
+ */
+final class JsonWriter {
+
+    private static final String HEX_DIGITS = "0123456789abcdef";
+    private static final int FIRST_PRINTABLE_CHAR = 0x20;
+    private static final int HEX_DIGIT_BITS = 4;
+    private static final int HEX_DIGIT_MASK = 0xf;
+
+    private final Appendable out;
+    private final boolean pretty;
+
+    private int depth;
+    private boolean first = true;
+    private boolean afterName;
+
+    JsonWriter(final Appendable out, final boolean pretty) {
+        this.out = out;
+        this.pretty = pretty;
+    }
+
+    void beginObject() throws IOException {
+        beforeValue();
+        out.append('{');
+        depth++;
+        first = true;
+    }
+
+    void endObject() throws IOException {
+        endContainer('}');
+    }
+
+    void beginArray() throws IOException {
+        beforeValue();
+        out.append('[');
+        depth++;
+        first = true;
+    }
+
+    void endArray() throws IOException {
+        endContainer(']');
+    }
+
+    void name(final String name) throws IOException {
+        beforeValue();
+        appendQuoted(name);
+        out.append(pretty ? ": " : ":");
+        afterName = true;
+    }
+
+    void stringValue(final String value) throws IOException {
+        beforeValue();
+        appendQuoted(value);
+    }
+
+    /**
+     * Writes a number, boolean or null literal as is.
+     */
+    void literalValue(final String literal) throws IOException {
+        beforeValue();
+        out.append(literal);
+    }
+
+    private void endContainer(final char end) throws IOException {
+        depth--;
+        if (!first) {
+            newLine();
+        }
+        out.append(end);
+        first = false;
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (!first) {
+                out.append(',');
+            }
+            newLine();
+        }
+        first = false;
+    }
+
+    private void newLine() throws IOException {
+        if (pretty) {
+            out.append('\n');
+            for (int i = 0; i < depth; i++) {
+                out.append("  ");
+            }
+        }
+    }
+
+    private void appendQuoted(final String str) throws IOException {
+        out.append('"');
+        int unescapedStart = 0;
+        for (int i = 0; i < str.length(); i++) {
+            final char c = str.charAt(i);
+            if (c == '"' || c == '\\' || c < FIRST_PRINTABLE_CHAR) {
+                out.append(str, unescapedStart, i);
+                appendEscaped(c);
+                unescapedStart = i + 1;
+            }
+        }
+        out.append(str, unescapedStart, str.length());
+        out.append('"');
+    }
+
+    private void appendEscaped(final char c) throws IOException {
+        switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            default:
+                out.append("\\u00")
+                        .append(HEX_DIGITS.charAt((c >> HEX_DIGIT_BITS) & HEX_DIGIT_MASK))
+                        .append(HEX_DIGITS.charAt(c & HEX_DIGIT_MASK));
+        }
+    }
+}
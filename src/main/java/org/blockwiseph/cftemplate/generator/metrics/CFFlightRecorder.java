@@ -0,0 +1,68 @@
+package org.blockwiseph.cftemplate.generator.metrics;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * Begins Java Flight Recorder events for the phases of generating a template, so that slow generations can be
+ * correlated with GC and I/O in the same recording. The events are:
+ * - org.blockwiseph.cftemplate.GenerationPhase, for the supply and save phases of each generated template
+ * - org.blockwiseph.cftemplate.Section, for each top level section of the template, with its title
+ * - org.blockwiseph.cftemplate.Save, for each saved template file, with its path
+ * Each event records its duration and the number of bytes generated or saved during it. The events are in the
+ * "CloudFormation Template Generator" category, are enabled by default, and are only written to a recording that is
+ * running, as any other JFR event.
+ *
+ * The event classes are only loaded on JVMs that have the jdk.jfr API, which are JDK 11 and later, and JDK 8 from
+ * update 262. On other JVMs, the recordings record nothing.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CFFlightRecorder {
+
+    public static final String SUPPLY_PHASE = "supply";
+    public static final String SAVE_PHASE = "save";
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    /**
+     * @return whether the JVM has the jdk.jfr API, so events are recorded when a recording is running
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * @param phase the phase of the generation, SUPPLY_PHASE or SAVE_PHASE
+     * @return the recording of the phase, to end once the phase is done
+     */
+    public static CFFlightRecording beginGenerationPhase(final String phase) {
+        return AVAILABLE ? FlightRecorderEvents.beginGenerationPhase(phase) : CFFlightRecording.NONE;
+    }
+
+    /**
+     * @param templateFile the path of the template file the section is generated for
+     * @param index        the position of the section in the template
+     * @param title        the title of the section, or null if it has none
+     * @return the recording of the rendering of the section, to end once the section is rendered
+     */
+    public static CFFlightRecording beginSection(final String templateFile, final int index, final String title) {
+        return AVAILABLE ? FlightRecorderEvents.beginSection(templateFile, index, title) : CFFlightRecording.NONE;
+    }
+
+    /**
+     * @param templateFile the path of the template file being saved
+     * @return the recording of the saving of the template file, to end once it is saved
+     */
+    public static CFFlightRecording beginSave(final String templateFile) {
+        return AVAILABLE ? FlightRecorderEvents.beginSave(templateFile) : CFFlightRecording.NONE;
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, CFFlightRecorder.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError | SecurityException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.blockwiseph.cftemplate.generator.metrics;
+
+/**
+ * A Java Flight Recorder event that was begun by
+ * @see org.blockwiseph.cftemplate.generator.metrics.CFFlightRecorder
+ * and is committed to the recording when it is ended. An event that is not ended is not recorded.
+ */
+public interface CFFlightRecording {
+
+    /**
+     * The recording used when the JVM does not support Java Flight Recorder, which records nothing.
+     */
+    CFFlightRecording NONE = new CFFlightRecording() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void end(final long bytes) {
+        }
+    };
+
+    /**
+     * @return whether the event is being recorded, so that the bytes passed to end need not be computed otherwise
+     */
+    boolean isEnabled();
+
+    /**
+     * Ends the event, and commits it to the recording if it is enabled and lasted longer than its threshold.
+     *
+     * @param bytes the number of bytes generated or saved during the event
+     */
+    void end(long bytes);
+}
@@ -0,0 +1,209 @@
+package org.blockwiseph.cftemplate.generator.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderListener;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionRenderEvent;
+
+/**
+ * A render listener that aggregates the measurements of the resources of the rendered templates.
+ *
+ * After each template is rendered, a report of its topN slowest and topN largest resources, and of the totals per
+ * resource type, is logged, and kept as the last report. The totals over all templates can be read from the getters,
+ * which can be exposed through JMX by registering the statistics with registerMBean. Only resources are aggregated, as
+ * the measurements of the other sections include the resources in them.
+ * The statistics can be shared by templates rendered concurrently, such as the stacks of a batch generator.
+ */
+public final class CFRenderStatistics implements CFRenderListener, CFRenderStatisticsMXBean {
+
+    private static final Logger LOGGER = Logger.getLogger(CFRenderStatistics.class.getName());
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int topN;
+    private final LongAdder templatesRendered = new LongAdder();
+    private final LongAdder resourcesRendered = new LongAdder();
+    private final LongAdder resourceRenderNanos = new LongAdder();
+    private final LongAdder resourceBytes = new LongAdder();
+    private final LongAdder resourceAllocatedBytes = new LongAdder();
+    private final Map<String, LongAdder> renderNanosByResourceType = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> bytesByResourceType = new ConcurrentHashMap<>();
+
+    private volatile boolean allocationsMeasured = true;
+    private volatile String lastReport;
+
+    /**
+     * @param topN the number of slowest and largest resources in the report of each template
+     */
+    public CFRenderStatistics(final int topN) {
+        this.topN = topN;
+    }
+
+    /**
+     * Registers the statistics with the platform MBean server.
+     *
+     * @param name the value of the name key of the object name, e.g. the name of the application
+     * @return the object name the statistics are registered with
+     * @throws IllegalStateException if the statistics cannot be registered, e.g. because the name is already taken
+     */
+    public ObjectName registerMBean(final String name) {
+        try {
+            final ObjectName objectName = new ObjectName(String.format("%s:type=%s,name=%s",
+                    CFRenderStatistics.class.getPackage().getName(), CFRenderStatistics.class.getSimpleName(),
+                    ObjectName.quote(name)));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register render statistics " + name, e);
+        }
+    }
+
+    @Override
+    public void sectionRendered(final CFSectionRenderEvent event) {
+        if (event.getResourceId() == null) {
+            return;
+        }
+        resourcesRendered.increment();
+        resourceRenderNanos.add(event.getNanos());
+        resourceBytes.add(event.getBytes());
+        if (event.getAllocatedBytes() < 0) {
+            allocationsMeasured = false;
+        } else {
+            resourceAllocatedBytes.add(event.getAllocatedBytes());
+        }
+        final String resourceType = String.valueOf(event.getResourceType());
+        renderNanosByResourceType.computeIfAbsent(resourceType, type -> new LongAdder()).add(event.getNanos());
+        bytesByResourceType.computeIfAbsent(resourceType, type -> new LongAdder()).add(event.getBytes());
+    }
+
+    @Override
+    public CFRenderListener forTemplate(final String cfTemplateFilePath) {
+        return new TemplateStatistics(cfTemplateFilePath);
+    }
+
+    @Override
+    public long getTemplatesRendered() {
+        return templatesRendered.sum();
+    }
+
+    @Override
+    public long getResourcesRendered() {
+        return resourcesRendered.sum();
+    }
+
+    @Override
+    public long getResourceRenderNanos() {
+        return resourceRenderNanos.sum();
+    }
+
+    @Override
+    public long getResourceBytes() {
+        return resourceBytes.sum();
+    }
+
+    @Override
+    public long getResourceAllocatedBytes() {
+        return allocationsMeasured ? resourceAllocatedBytes.sum() : -1;
+    }
+
+    @Override
+    public Map<String, Long> getRenderNanosByResourceType() {
+        return sums(renderNanosByResourceType);
+    }
+
+    @Override
+    public Map<String, Long> getBytesByResourceType() {
+        return sums(bytesByResourceType);
+    }
+
+    @Override
+    public String getLastReport() {
+        return lastReport;
+    }
+
+    private static Map<String, Long> sums(final Map<String, LongAdder> adders) {
+        final Map<String, Long> sums = new TreeMap<>();
+        adders.forEach((key, adder) -> sums.put(key, adder.sum()));
+        return sums;
+    }
+
+    /**
+     * Collects the resources of a single template, and reports them once the template is rendered.
+     */
+    private final class TemplateStatistics implements CFRenderListener {
+
+        private final String cfTemplateFilePath;
+        private final long startNanos = System.nanoTime();
+        private final List<CFSectionRenderEvent> resources = Collections.synchronizedList(new ArrayList<>());
+
+        private TemplateStatistics(final String cfTemplateFilePath) {
+            this.cfTemplateFilePath = cfTemplateFilePath;
+        }
+
+        @Override
+        public void sectionRendered(final CFSectionRenderEvent event) {
+            CFRenderStatistics.this.sectionRendered(event);
+            if (event.getResourceId() != null) {
+                resources.add(event);
+            }
+        }
+
+        @Override
+        public void templateRendered() {
+            final long nanos = System.nanoTime() - startNanos;
+            templatesRendered.increment();
+            final String report = report(nanos);
+            lastReport = report;
+            LOGGER.info(report);
+        }
+
+        private String report(final long nanos) {
+            final List<CFSectionRenderEvent> rendered;
+            synchronized (resources) {
+                rendered = new ArrayList<>(resources);
+            }
+            final StringBuilder report = new StringBuilder(String.format("Rendered %s in %.3f ms: %d resources, %d bytes",
+                    cfTemplateFilePath, nanos / NANOS_PER_MILLI, rendered.size(),
+                    rendered.stream().mapToLong(CFSectionRenderEvent::getBytes).sum()));
+
+            report.append(String.format("%nSlowest resources:"));
+            appendTop(report, rendered, Comparator.comparingLong(CFSectionRenderEvent::getNanos));
+            report.append(String.format("%nLargest resources:"));
+            appendTop(report, rendered, Comparator.comparingLong(CFSectionRenderEvent::getBytes));
+
+            final Map<String, List<CFSectionRenderEvent>> resourcesByType = new TreeMap<>();
+            rendered.forEach(resource -> resourcesByType.computeIfAbsent(String.valueOf(resource.getResourceType()),
+                    type -> new ArrayList<>()).add(resource));
+            report.append(String.format("%nBy resource type:"));
+            resourcesByType.forEach((type, resourcesOfType) -> report.append(String.format(
+                    "%n  %s: %d resources, %.3f ms, %d bytes", type, resourcesOfType.size(),
+                    resourcesOfType.stream().mapToLong(CFSectionRenderEvent::getNanos).sum() / NANOS_PER_MILLI,
+                    resourcesOfType.stream().mapToLong(CFSectionRenderEvent::getBytes).sum())));
+            return report.toString();
+        }
+
+        private void appendTop(final StringBuilder report, final List<CFSectionRenderEvent> rendered,
+                               final Comparator<CFSectionRenderEvent> comparator) {
+            rendered.stream()
+                    .sorted(comparator.reversed())
+                    .limit(topN)
+                    .forEach(resource -> report.append(String.format("%n  %s (%s): %.3f ms, %d bytes%s",
+                            resource.getResourceId(), resource.getResourceType(), resource.getNanos() / NANOS_PER_MILLI,
+                            resource.getBytes(), resource.getAllocatedBytes() < 0
+                                    ? ""
+                                    : String.format(", %d bytes allocated", resource.getAllocatedBytes()))));
+        }
+    }
+}
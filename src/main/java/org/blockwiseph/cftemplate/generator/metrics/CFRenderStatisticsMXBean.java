@@ -0,0 +1,33 @@
+package org.blockwiseph.cftemplate.generator.metrics;
+
+import java.util.Map;
+
+/**
+ * The counters of
+ * @see org.blockwiseph.cftemplate.generator.metrics.CFRenderStatistics
+ * exposed through JMX. All counters are totals since the statistics were created.
+ */
+public interface CFRenderStatisticsMXBean {
+
+    long getTemplatesRendered();
+
+    long getResourcesRendered();
+
+    long getResourceRenderNanos();
+
+    long getResourceBytes();
+
+    /**
+     * @return the bytes allocated while rendering resources, or -1 if the JVM does not measure allocations
+     */
+    long getResourceAllocatedBytes();
+
+    Map<String, Long> getRenderNanosByResourceType();
+
+    Map<String, Long> getBytesByResourceType();
+
+    /**
+     * @return the report of the last rendered template, or null if no template was rendered yet
+     */
+    String getLastReport();
+}
@@ -0,0 +1,102 @@
+package org.blockwiseph.cftemplate.generator.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * The Java Flight Recorder events of
+ * @see org.blockwiseph.cftemplate.generator.metrics.CFFlightRecorder
+ * This class is only loaded when the JVM has the jdk.jfr API. The events do not record stack traces, since they are
+ * always begun from the same places.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class FlightRecorderEvents {
+
+    private static final String CATEGORY = "CloudFormation Template Generator";
+
+    static CFFlightRecording beginGenerationPhase(final String phase) {
+        final GenerationPhaseEvent event = new GenerationPhaseEvent();
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    static CFFlightRecording beginSection(final String templateFile, final int index, final String title) {
+        final SectionEvent event = new SectionEvent();
+        event.templateFile = templateFile;
+        event.index = index;
+        event.title = title;
+        event.begin();
+        return event;
+    }
+
+    static CFFlightRecording beginSave(final String templateFile) {
+        final SaveEvent event = new SaveEvent();
+        event.templateFile = templateFile;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * An event that records the bytes generated or saved during it, and is committed when it is ended.
+     */
+    @StackTrace(false)
+    abstract static class BytesEvent extends Event implements CFFlightRecording {
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Override
+        public void end(final long eventBytes) {
+            end();
+            if (shouldCommit()) {
+                bytes = eventBytes;
+                commit();
+            }
+        }
+    }
+
+    @Name("org.blockwiseph.cftemplate.GenerationPhase")
+    @Label("Template Generation Phase")
+    @Description("Supplying or saving a template, with the size of the template")
+    @Category(CATEGORY)
+    static final class GenerationPhaseEvent extends BytesEvent {
+
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("org.blockwiseph.cftemplate.Section")
+    @Label("Template Section")
+    @Description("Rendering a top level section of a template, with the bytes written to the template meanwhile")
+    @Category(CATEGORY)
+    static final class SectionEvent extends BytesEvent {
+
+        @Label("Template File")
+        String templateFile;
+
+        @Label("Index")
+        int index;
+
+        @Label("Title")
+        String title;
+    }
+
+    @Name("org.blockwiseph.cftemplate.Save")
+    @Label("Template Save")
+    @Description("Saving a template file, with the size of the file")
+    @Category(CATEGORY)
+    static final class SaveEvent extends BytesEvent {
+
+        @Label("Template File")
+        String templateFile;
+    }
+}
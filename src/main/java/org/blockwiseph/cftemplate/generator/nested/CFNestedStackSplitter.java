@@ -0,0 +1,471 @@
+package org.blockwiseph.cftemplate.generator.nested;
+
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.description;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromPlainString;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.referencing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.blockwiseph.cftemplate.generator.CFStackDefinition;
+import org.blockwiseph.cftemplate.generator.CFStackGenerationResult;
+import org.blockwiseph.cftemplate.generator.CFTemplateBatchGenerator;
+import org.blockwiseph.cftemplate.generator.CFTemplateLimits;
+import org.blockwiseph.cftemplate.generator.json.CFJsonTranslator;
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFNodes;
+import org.blockwiseph.cftemplate.generator.node.CFReferences;
+import org.blockwiseph.cftemplate.generator.node.IntrinsicFunctionNode;
+import org.blockwiseph.cftemplate.generator.node.MappingNode;
+import org.blockwiseph.cftemplate.generator.node.ScalarNode;
+import org.blockwiseph.cftemplate.generator.node.SequenceNode;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.ConditionCFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.OutputCFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.ParameterCFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.CloudFormationStack;
+import com.google.common.collect.ImmutableList;
+import lombok.Builder;
+
+/**
+ * Splits a stack whose Resources section exceeds the CloudFormation quotas into a parent stack and nested stacks.
+ * The sections of the stack are set separately, with the same section builders that would be passed to
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory
+ *
+ * If the resources fit in the quotas, the stack is not split. Otherwise the resources are partitioned into nested
+ * stacks, keeping resources that use each other's attributes together, and the parent stack creates the nested stacks
+ * with AWS::CloudFormation::Stack resources. A resource referenced with "Ref" from another nested stack, or from the
+ * outputs of the parent stack, is output by its nested stack and passed on as a parameter, or output, with the same
+ * name. The parameters and conditions used by a nested stack are copied to it, and the parameters are passed on from
+ * the parent stack, parameters of a list type joined with "Fn::Join" since nested stack parameters are strings.
+ * Resources are packed so that no nested stack needs more parameters than the template limits allow.
+ *
+ * The templates of the nested stacks are saved next to the template of the parent stack, e.g. "stack-NestedStack1.yml"
+ * for "stack.yml", and referenced from the parent stack with the template URL prefix followed by their file name.
+ * With the default empty prefix, the file names can be replaced with S3 URLs by "aws cloudformation package".
+ * The stacks are then generated concurrently with
+ * @see org.blockwiseph.cftemplate.generator.CFTemplateBatchGenerator
+ *
+ * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/using-cfn-nested-stacks.html">AWS CloudFormation Nested Stacks Documentation</a>
+ */
+@Builder
+public class CFNestedStackSplitter {
+
+    private static final String NESTED_STACK_ID_PREFIX = "NestedStack";
+    private static final String NESTED_STACK_OUTPUT_PREFIX = "Outputs.";
+    private static final String GET_ATT = "Fn::GetAtt";
+    private static final String REF = "Ref";
+    private static final String SUB = "Fn::Sub";
+    private static final int PERCENT = 100;
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^A-Za-z0-9]");
+    private static final Pattern LIST_PARAMETER_TYPE = Pattern.compile("CommaDelimitedList|List<");
+
+    private final String stackName;
+    private final String cfTemplateFilePath;
+    private final String description;
+
+    @Builder.Default
+    private final String templateURLPrefix = "";
+
+    @Builder.Default
+    private final CFTemplateLimits templateLimits = CFTemplateLimits.S3_TEMPLATE;
+
+    /**
+     * The share of the template size quota used for the resources of a nested stack, leaving the rest for the
+     * parameters, conditions and outputs copied to or added to it.
+     */
+    @Builder.Default
+    private final int resourceBytesPercent = 80;
+
+    @Builder.Default
+    private final List<ParameterCFSectionBuilder> parameters = ImmutableList.of();
+
+    @Builder.Default
+    private final List<ConditionCFSectionBuilder> conditions = ImmutableList.of();
+
+    @Builder.Default
+    private final List<CFSectionBuilder> resources = ImmutableList.of();
+
+    @Builder.Default
+    private final List<OutputCFSectionBuilder> outputs = ImmutableList.of();
+
+    /**
+     * Splits the stack and generates the templates of the parent stack and the nested stacks concurrently.
+     *
+     * @param batchGenerator the batch generator to generate the templates with
+     * @return the result of the parent stack, followed by the results of the nested stacks
+     */
+    public List<CFStackGenerationResult> generate(final CFTemplateBatchGenerator batchGenerator) {
+        return batchGenerator.generate(split());
+    }
+
+    /**
+     * Splits the stack into a parent stack and nested stacks, if its resources exceed the quotas. Every resource is
+     * rendered once, and the rendered resources are reused by the nested stacks.
+     *
+     * @return the definition of the parent stack, followed by the definitions of the nested stacks, or the definition
+     *         of the stack only if it is not split
+     * @throws IllegalArgumentException if a resource section builder does not build resources, an output uses
+     *                                  "Fn::Sub" with a resource of a nested stack, or resources that must be kept
+     *                                  together need more parameters than the quota of a nested stack
+     */
+    public List<CFStackDefinition> split() {
+        final List<SplitResource> splitResources = new ArrayList<>();
+        for (int i = 0; i < resources.size(); i++) {
+            splitResources.add(SplitResource.of(i, resources.get(i)));
+        }
+        final Map<String, CFReferences> conditionReferences = referencesByLogicalId(conditions);
+        final Set<String> parameterNames = referencesByLogicalId(parameters).keySet();
+        final Set<String> listParameterNames = listParameterNames(parameters);
+        final Set<String> passableLogicalIds = new HashSet<>(parameterNames);
+        splitResources.forEach(resource -> passableLogicalIds.addAll(resource.getLogicalIds()));
+        final long maxResourceBytes = templateLimits.getMaxTemplateBytes() * resourceBytesPercent / PERCENT;
+        final List<List<SplitResource>> partitions = ResourcePartitioner.partition(splitResources,
+                templateLimits.getMaxResources(), maxResourceBytes, templateLimits.getMaxParameters(),
+                resource -> {
+                    final Set<String> parametersUsed = usedLogicalIds(ImmutableList.of(resource), conditionReferences);
+                    parametersUsed.retainAll(passableLogicalIds);
+                    return parametersUsed;
+                });
+        if (partitions.size() <= 1) {
+            return ImmutableList.of(CFStackDefinition.builder()
+                    .stackName(stackName)
+                    .cfTemplateFilePath(cfTemplateFilePath)
+                    .topLevelSectionBuilders(topLevelSections(description, parameters, conditions,
+                            resourceContents(splitResources), outputs))
+                    .build());
+        }
+
+        final Map<String, Integer> nestedStackOfLogicalId = new HashMap<>();
+        final List<NestedStack> nestedStacks = new ArrayList<>();
+        for (int index = 0; index < partitions.size(); index++) {
+            for (final SplitResource resource : partitions.get(index)) {
+                for (final String logicalId : resource.getLogicalIds()) {
+                    nestedStackOfLogicalId.put(logicalId, index);
+                }
+            }
+            nestedStacks.add(new NestedStack(nestedStackId(index), partitions.get(index)));
+        }
+
+        for (final NestedStack nestedStack : nestedStacks) {
+            final Set<String> usedConditions = conditionClosure(usedConditions(nestedStack.resources),
+                    conditionReferences);
+            final Set<String> usedLogicalIds = usedLogicalIds(nestedStack.resources, conditionReferences);
+
+            for (final String logicalId : usedLogicalIds) {
+                final Integer referencedIndex = nestedStackOfLogicalId.get(logicalId);
+                if (listParameterNames.contains(logicalId)) {
+                    nestedStack.parameterValues.put(logicalId, joiningList(logicalId));
+                } else if (parameterNames.contains(logicalId)) {
+                    nestedStack.parameterValues.put(logicalId, referencing(logicalId));
+                } else if (referencedIndex != null && !nestedStacks.get(referencedIndex).equals(nestedStack)) {
+                    final NestedStack referencedNestedStack = nestedStacks.get(referencedIndex);
+                    referencedNestedStack.outputValues.put(logicalId, referencing(logicalId));
+                    nestedStack.parameterValues.put(logicalId, referencedNestedStack.outputReference(logicalId));
+                    nestedStack.crossStackParameters.add(
+                            titleWithAggregateBuilders(logicalId, singleLine("Type", "String")));
+                }
+            }
+            nestedStack.parameters.addAll(withLogicalIds(parameters, usedLogicalIds));
+            nestedStack.parameters.addAll(nestedStack.crossStackParameters);
+            nestedStack.conditions.addAll(withLogicalIds(conditions, usedConditions));
+            if (nestedStack.parameterValues.size() > templateLimits.getMaxParameters()) {
+                throw new IllegalArgumentException(String.format(
+                        "%s of stack %s needs %d parameters, more than the quota of %d, for the parameters and "
+                                + "resources of other nested stacks used by its resources %s, which can not be split",
+                        nestedStack.id, stackName, nestedStack.parameterValues.size(),
+                        templateLimits.getMaxParameters(), nestedStack.resources.stream()
+                                .flatMap(resource -> resource.getLogicalIds().stream())
+                                .collect(Collectors.toList())));
+            }
+        }
+        final List<CFSectionBuilder> parentOutputs = outputs.stream()
+                .map(output -> parentOutput(output, nestedStackOfLogicalId, nestedStacks))
+                .collect(Collectors.toList());
+
+        final List<CFStackDefinition> stackDefinitions = new ArrayList<>();
+        stackDefinitions.add(CFStackDefinition.builder()
+                .stackName(stackName)
+                .cfTemplateFilePath(cfTemplateFilePath)
+                .topLevelSectionBuilders(topLevelSections(description, parameters, conditions,
+                        nestedStacks.stream()
+                                .map(nestedStack -> CloudFormationStack.builder()
+                                        .resourceId(nestedStack.id)
+                                        .templateURL(templateURLPrefix
+                                                + fileNameOf(nestedStackTemplateFilePath(nestedStack)))
+                                        .parameters(nestedStack.parameterValues)
+                                        .build())
+                                .collect(Collectors.toList()),
+                        parentOutputs))
+                .build());
+        for (final NestedStack nestedStack : nestedStacks) {
+            stackDefinitions.add(CFStackDefinition.builder()
+                    .stackName(stackName + "-" + nestedStack.id)
+                    .cfTemplateFilePath(nestedStackTemplateFilePath(nestedStack))
+                    .topLevelSectionBuilders(topLevelSections(
+                            description == null ? null : description + " - " + nestedStack.id,
+                            nestedStack.parameters,
+                            nestedStack.conditions,
+                            resourceContents(nestedStack.resources),
+                            nestedStack.outputValues.entrySet().stream()
+                                    .map(output -> titleWithAggregateBuilders(output.getKey(),
+                                            singleLine("Value", output.getValue())))
+                                    .collect(Collectors.toList())))
+                    .build());
+        }
+        return stackDefinitions;
+    }
+
+    private static List<CFSectionBuilder> topLevelSections(final String description,
+                                                          final List<? extends CFSectionBuilder> parameters,
+                                                          final List<? extends CFSectionBuilder> conditions,
+                                                          final List<? extends CFSectionBuilder> resources,
+                                                          final List<? extends CFSectionBuilder> outputs) {
+        final List<CFSectionBuilder> topLevelSections = new ArrayList<>();
+        if (description != null) {
+            topLevelSections.add(description(description));
+        }
+        if (!parameters.isEmpty()) {
+            topLevelSections.add(titleWithAggregateBuilders("Parameters", ImmutableList.copyOf(parameters)));
+        }
+        if (!conditions.isEmpty()) {
+            topLevelSections.add(titleWithAggregateBuilders("Conditions", ImmutableList.copyOf(conditions)));
+        }
+        topLevelSections.add(titleWithAggregateBuilders("Resources", ImmutableList.copyOf(resources)));
+        if (!outputs.isEmpty()) {
+            topLevelSections.add(titleWithAggregateBuilders("Outputs", ImmutableList.copyOf(outputs)));
+        }
+        return topLevelSections;
+    }
+
+    private static List<CFSectionBuilder> resourceContents(final List<SplitResource> resources) {
+        return resources.stream()
+                .map(resource -> fromPlainString(resource.getContents()))
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, CFReferences> referencesByLogicalId(
+            final List<? extends CFSectionBuilder> sectionBuilders) {
+        final Map<String, CFReferences> references = new LinkedHashMap<>();
+        for (final CFSectionBuilder sectionBuilder : sectionBuilders) {
+            for (final MappingNode.Entry entry : entriesOf(sectionBuilder)) {
+                references.put(entry.getKey(), CFReferences.of(entry.getValue()));
+            }
+        }
+        return references;
+    }
+
+    /**
+     * @return the names of the parameters of a list type, which are passed to a nested stack as a single string
+     */
+    private static Set<String> listParameterNames(final List<? extends CFSectionBuilder> parameters) {
+        final Set<String> names = new HashSet<>();
+        for (final CFSectionBuilder parameter : parameters) {
+            for (final MappingNode.Entry entry : entriesOf(parameter)) {
+                if (entry.getValue() instanceof MappingNode && ((MappingNode) entry.getValue()).get("Type")
+                        .filter(type -> LIST_PARAMETER_TYPE.matcher(scalarValue(type)).find())
+                        .isPresent()) {
+                    names.add(entry.getKey());
+                }
+            }
+        }
+        return names;
+    }
+
+    private static String joiningList(final String parameterName) {
+        return String.format("!Join [ \",\", %s ]", referencing(parameterName));
+    }
+
+    private static <T extends CFSectionBuilder> List<T> withLogicalIds(final List<T> sectionBuilders,
+                                                                       final Set<String> logicalIds) {
+        return sectionBuilders.stream()
+                .filter(sectionBuilder -> entriesOf(sectionBuilder).stream()
+                        .anyMatch(entry -> logicalIds.contains(entry.getKey())))
+                .collect(Collectors.toList());
+    }
+
+    private static List<MappingNode.Entry> entriesOf(final CFSectionBuilder sectionBuilder) {
+        final CFNode node = sectionBuilder.toNode();
+        return node instanceof MappingNode ? ((MappingNode) node).getEntries() : ImmutableList.of();
+    }
+
+    /**
+     * @return the logical ids used by the resources, directly or through the conditions they use
+     */
+    private static Set<String> usedLogicalIds(final List<SplitResource> resources,
+                                              final Map<String, CFReferences> conditionReferences) {
+        final Set<String> logicalIds = new LinkedHashSet<>();
+        resources.forEach(resource -> logicalIds.addAll(resource.getReferences().getLogicalIds()));
+        conditionClosure(usedConditions(resources), conditionReferences).forEach(condition ->
+                logicalIds.addAll(conditionReferences.get(condition).getLogicalIds()));
+        return logicalIds;
+    }
+
+    private static Set<String> usedConditions(final List<SplitResource> resources) {
+        final Set<String> conditionNames = new LinkedHashSet<>();
+        resources.forEach(resource -> conditionNames.addAll(resource.getReferences().getConditions()));
+        return conditionNames;
+    }
+
+    private static Set<String> conditionClosure(final Set<String> conditionNames,
+                                                final Map<String, CFReferences> conditionReferences) {
+        final Set<String> closure = new LinkedHashSet<>();
+        final List<String> pending = new ArrayList<>(conditionNames);
+        while (!pending.isEmpty()) {
+            final String condition = pending.remove(pending.size() - 1);
+            final CFReferences references = conditionReferences.get(condition);
+            if (references != null && closure.add(condition)) {
+                pending.addAll(references.getConditions());
+            }
+        }
+        return closure;
+    }
+
+    private CFSectionBuilder parentOutput(final OutputCFSectionBuilder output,
+                                          final Map<String, Integer> nestedStackOfLogicalId,
+                                          final List<NestedStack> nestedStacks) {
+        final List<CFSectionBuilder> parentOutputs = new ArrayList<>();
+        for (final MappingNode.Entry entry : ((MappingNode) output.toNode()).getEntries()) {
+            final List<CFSectionBuilder> attributes = new ArrayList<>();
+            for (final MappingNode.Entry attribute : ((MappingNode) entry.getValue()).getEntries()) {
+                final CFNode value =
+                        withNestedStackOutputs(attribute.getValue(), nestedStackOfLogicalId, nestedStacks);
+                attributes.add(singleLine(attribute.getKey(), toJson(value)));
+            }
+            parentOutputs.add(titleWithAggregateBuilders(entry.getKey(), attributes));
+        }
+        return aggregating(parentOutputs);
+    }
+
+    /**
+     * Replaces the references to resources of nested stacks with references to outputs of the nested stacks, and adds
+     * those outputs to the nested stacks.
+     */
+    private CFNode withNestedStackOutputs(final CFNode node, final Map<String, Integer> nestedStackOfLogicalId,
+                                          final List<NestedStack> nestedStacks) {
+        if (node instanceof MappingNode) {
+            return CFNodes.merge(((MappingNode) node).getEntries().stream()
+                    .map(entry -> CFNodes.mapping(entry.getKey(),
+                            withNestedStackOutputs(entry.getValue(), nestedStackOfLogicalId, nestedStacks)))
+                    .collect(Collectors.toList()));
+        } else if (node instanceof SequenceNode) {
+            return CFNodes.sequence(((SequenceNode) node).getItems().stream()
+                    .map(item -> withNestedStackOutputs(item, nestedStackOfLogicalId, nestedStacks))
+                    .collect(Collectors.toList()));
+        } else if (!(node instanceof IntrinsicFunctionNode)) {
+            return node;
+        }
+
+        final IntrinsicFunctionNode function = (IntrinsicFunctionNode) node;
+        final CFReferences references = CFReferences.of(function);
+        if (REF.equals(function.getFunctionName())
+                && nestedStackOfLogicalId.containsKey(scalarValue(function.getArgument()))) {
+            final String logicalId = scalarValue(function.getArgument());
+            return nestedStackOutputNode(logicalId, logicalId, referencing(logicalId),
+                    nestedStackOfLogicalId, nestedStacks);
+        } else if (GET_ATT.equals(function.getFunctionName()) && !references.getGetAtts().isEmpty()
+                && nestedStackOfLogicalId.containsKey(references.getGetAtts().iterator().next())) {
+            final String logicalId = references.getGetAtts().iterator().next();
+            final String attribute = getAttAttribute(function.getArgument());
+            return nestedStackOutputNode(logicalId, logicalId + NON_ALPHANUMERIC.matcher(attribute).replaceAll(""),
+                    "!GetAtt " + logicalId + "." + attribute, nestedStackOfLogicalId, nestedStacks);
+        } else if (SUB.equals(function.getFunctionName())) {
+            final Set<String> subVariables = new LinkedHashSet<>(references.getLogicalIds());
+            subVariables.removeAll(CFReferences.of(function.getArgument()).getLogicalIds());
+            subVariables.retainAll(nestedStackOfLogicalId.keySet());
+            if (!subVariables.isEmpty()) {
+                throw new IllegalArgumentException(
+                        "Outputs can not use resources of nested stacks as variables of Fn::Sub: " + subVariables);
+            }
+        }
+        return CFNodes.mapping(function.getFunctionName(),
+                withNestedStackOutputs(function.getArgument(), nestedStackOfLogicalId, nestedStacks));
+    }
+
+    private CFNode nestedStackOutputNode(final String logicalId, final String outputName, final String outputValue,
+                                         final Map<String, Integer> nestedStackOfLogicalId,
+                                         final List<NestedStack> nestedStacks) {
+        final NestedStack nestedStack = nestedStacks.get(nestedStackOfLogicalId.get(logicalId));
+        nestedStack.outputValues.put(outputName, outputValue);
+        return CFNodes.mapping(GET_ATT, CFNodes.sequence(ImmutableList.of(
+                CFNodes.scalar(nestedStack.id, true),
+                CFNodes.scalar(NESTED_STACK_OUTPUT_PREFIX + outputName, true))));
+    }
+
+    private static String scalarValue(final CFNode node) {
+        return node instanceof ScalarNode ? ((ScalarNode) node).getValue() : "";
+    }
+
+    private static String getAttAttribute(final CFNode argument) {
+        if (argument instanceof SequenceNode && ((SequenceNode) argument).getItems().size() > 1) {
+            return scalarValue(((SequenceNode) argument).getItems().get(1));
+        }
+        final String value = scalarValue(argument);
+        return value.substring(value.indexOf('.') + 1);
+    }
+
+    private static String toJson(final CFNode node) {
+        final StringBuilder json = new StringBuilder();
+        try {
+            CFJsonTranslator.writeJson(node, json, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write output", e);
+        }
+        return json.toString();
+    }
+
+    private static String nestedStackId(final int index) {
+        return NESTED_STACK_ID_PREFIX + (index + 1);
+    }
+
+    private String nestedStackTemplateFilePath(final NestedStack nestedStack) {
+        final String fileName = fileNameOf(cfTemplateFilePath);
+        final int extension = fileName.lastIndexOf('.');
+        final String nestedFileName = extension < 0
+                ? fileName + "-" + nestedStack.id
+                : fileName.substring(0, extension) + "-" + nestedStack.id + fileName.substring(extension);
+        return Paths.get(cfTemplateFilePath).resolveSibling(nestedFileName).toString();
+    }
+
+    private static String fileNameOf(final String filePath) {
+        return Paths.get(filePath).getFileName().toString();
+    }
+
+    /**
+     * A nested stack being assembled: its resources, the parameters and conditions copied to it, the values the parent
+     * stack passes to its parameters, and the outputs other stacks use.
+     */
+    private static final class NestedStack {
+
+        private final String id;
+        private final List<SplitResource> resources;
+        private final Map<String, String> parameterValues = new LinkedHashMap<>();
+        private final Map<String, String> outputValues = new LinkedHashMap<>();
+        private final List<CFSectionBuilder> crossStackParameters = new ArrayList<>();
+        private final List<CFSectionBuilder> parameters = new ArrayList<>();
+        private final List<CFSectionBuilder> conditions = new ArrayList<>();
+
+        private NestedStack(final String id, final List<SplitResource> resources) {
+            this.id = id;
+            this.resources = resources;
+        }
+
+        private String outputReference(final String outputName) {
+            return "!GetAtt " + id + "." + NESTED_STACK_OUTPUT_PREFIX + outputName;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package org.blockwiseph.cftemplate.generator.nested;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * Partitions the resources of a stack into the resources of its nested stacks.
+ *
+ * Resources that use an attribute of another resource with "Fn::GetAtt", or depend on it with "DependsOn", are kept in
+ * the same nested stack, as are resources whose references would otherwise form a cycle between nested stacks.
+ * The groups of resources are then packed into nested stacks in the order of their references, so a nested stack only
+ * references resources of the nested stacks before it, which can be passed to it as parameters. A new nested stack is
+ * started when the next group would exceed the maximum number of resources, the maximum size, or the maximum number of
+ * parameters, counting each stack parameter and each resource of another nested stack the resources use as one.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class ResourcePartitioner {
+
+    /**
+     * @param resources      the resources to partition, in the order of the Resources section
+     * @param maxResources   the maximum number of resources in a nested stack
+     * @param maxBytes       the maximum estimated size of the resources of a nested stack, in bytes
+     * @param maxParameters  the maximum number of parameters of a nested stack
+     * @param parametersUsed the logical ids of the stack parameters and resources a resource uses, which are passed to
+     *                       its nested stack as parameters unless they are resources of the same nested stack
+     * @return the resources of each nested stack, in the order the nested stacks are created in. A group of resources
+     *         that exceeds the maximums on its own is put in a nested stack of its own.
+     */
+    static List<List<SplitResource>> partition(final List<SplitResource> resources, final int maxResources,
+                                               final long maxBytes, final int maxParameters,
+                                               final Function<SplitResource, Set<String>> parametersUsed) {
+        final Map<String, Integer> resourceIndexByLogicalId = new HashMap<>();
+        for (final SplitResource resource : resources) {
+            resource.getLogicalIds().forEach(logicalId -> resourceIndexByLogicalId.put(logicalId, resource.getIndex()));
+        }
+
+        final int[] groupOf = groupsOfInseparableResources(resources, resourceIndexByLogicalId);
+        final List<Set<Integer>> groupDependencies = new ArrayList<>();
+        for (int i = 0; i < resources.size(); i++) {
+            groupDependencies.add(new LinkedHashSet<>());
+        }
+        for (final SplitResource resource : resources) {
+            for (final String logicalId : resource.getReferences().getLogicalIds()) {
+                final Integer referencedIndex = resourceIndexByLogicalId.get(logicalId);
+                if (referencedIndex != null && groupOf[referencedIndex] != groupOf[resource.getIndex()]) {
+                    groupDependencies.get(groupOf[resource.getIndex()]).add(groupOf[referencedIndex]);
+                }
+            }
+        }
+
+        final Map<Integer, List<SplitResource>> resourcesByGroup = new HashMap<>();
+        for (final SplitResource resource : resources) {
+            resourcesByGroup.computeIfAbsent(groupOf[resource.getIndex()], group -> new ArrayList<>()).add(resource);
+        }
+
+        final List<List<SplitResource>> nestedStacks = new ArrayList<>();
+        List<SplitResource> nestedStack = new ArrayList<>();
+        int nestedStackResources = 0;
+        long nestedStackBytes = 0;
+        for (final List<Integer> groups : stronglyConnectedComponents(groupDependencies)) {
+            final List<SplitResource> unit = new ArrayList<>();
+            for (final int group : groups) {
+                unit.addAll(resourcesByGroup.getOrDefault(group, Collections.emptyList()));
+            }
+            if (unit.isEmpty()) {
+                continue;
+            }
+            unit.sort(Comparator.comparingInt(SplitResource::getIndex));
+            final int unitResources = unit.stream().mapToInt(resource -> resource.getLogicalIds().size()).sum();
+            final long unitBytes = unit.stream().mapToLong(SplitResource::getEstimatedBytes).sum();
+            if (!nestedStack.isEmpty()
+                    && (nestedStackResources + unitResources > maxResources || nestedStackBytes + unitBytes > maxBytes
+                    || countParameters(concat(nestedStack, unit), parametersUsed) > maxParameters)) {
+                nestedStacks.add(nestedStack);
+                nestedStack = new ArrayList<>();
+                nestedStackResources = 0;
+                nestedStackBytes = 0;
+            }
+            nestedStack.addAll(unit);
+            nestedStackResources += unitResources;
+            nestedStackBytes += unitBytes;
+        }
+        if (!nestedStack.isEmpty()) {
+            nestedStacks.add(nestedStack);
+        }
+        return nestedStacks;
+    }
+
+    /**
+     * @return the number of stack parameters and resources outside of the passed in resources that they use, each of
+     *         which is a parameter of the nested stack of the resources
+     */
+    private static int countParameters(final List<SplitResource> resources,
+                                       final Function<SplitResource, Set<String>> parametersUsed) {
+        final Set<String> parameters = new LinkedHashSet<>();
+        resources.forEach(resource -> parameters.addAll(parametersUsed.apply(resource)));
+        parameters.removeAll(logicalIdsOf(resources));
+        return parameters.size();
+    }
+
+    private static Set<String> logicalIdsOf(final List<SplitResource> resources) {
+        final Set<String> logicalIds = new LinkedHashSet<>();
+        resources.forEach(resource -> logicalIds.addAll(resource.getLogicalIds()));
+        return logicalIds;
+    }
+
+    private static List<SplitResource> concat(final List<SplitResource> first, final List<SplitResource> second) {
+        final List<SplitResource> resources = new ArrayList<>(first);
+        resources.addAll(second);
+        return resources;
+    }
+
+    /**
+     * Unites the resources that use attributes of, or depend on, each other.
+     *
+     * @return the group of each resource, which is the index of one of the resources in the group
+     */
+    private static int[] groupsOfInseparableResources(final List<SplitResource> resources,
+                                                      final Map<String, Integer> resourceIndexByLogicalId) {
+        final int[] parents = new int[resources.size()];
+        Arrays.setAll(parents, i -> i);
+        for (final SplitResource resource : resources) {
+            final Set<String> inseparableLogicalIds = new LinkedHashSet<>(resource.getReferences().getGetAtts());
+            inseparableLogicalIds.addAll(resource.getReferences().getDependsOn());
+            for (final String logicalId : inseparableLogicalIds) {
+                final Integer referencedIndex = resourceIndexByLogicalId.get(logicalId);
+                if (referencedIndex != null) {
+                    parents[root(parents, referencedIndex)] = root(parents, resource.getIndex());
+                }
+            }
+        }
+        final int[] groups = new int[resources.size()];
+        Arrays.setAll(groups, i -> root(parents, i));
+        return groups;
+    }
+
+    private static int root(final int[] parents, final int index) {
+        int root = index;
+        while (parents[root] != root) {
+            parents[root] = parents[parents[root]];
+            root = parents[root];
+        }
+        return root;
+    }
+
+    /**
+     * Finds the strongly connected components of a dependency graph with Tarjan's algorithm, iteratively so that long
+     * chains of dependencies do not overflow the stack.
+     *
+     * @param dependencies the nodes each node depends on
+     * @return the components, each sorted, with the components a component depends on before it
+     */
+    private static List<List<Integer>> stronglyConnectedComponents(final List<Set<Integer>> dependencies) {
+        final int nodes = dependencies.size();
+        final int[] indexes = new int[nodes];
+        final int[] lowLinks = new int[nodes];
+        final boolean[] onStack = new boolean[nodes];
+        Arrays.fill(indexes, -1);
+
+        final List<List<Integer>> components = new ArrayList<>();
+        final Deque<Integer> stack = new ArrayDeque<>();
+        final Deque<Integer> visiting = new ArrayDeque<>();
+        final Deque<Iterator<Integer>> visitingDependencies = new ArrayDeque<>();
+        int nextIndex = 0;
+        for (int start = 0; start < nodes; start++) {
+            if (indexes[start] >= 0) {
+                continue;
+            }
+            indexes[start] = nextIndex;
+            lowLinks[start] = nextIndex++;
+            stack.push(start);
+            onStack[start] = true;
+            visiting.push(start);
+            visitingDependencies.push(dependencies.get(start).iterator());
+
+            while (!visiting.isEmpty()) {
+                final int node = visiting.peek();
+                final Iterator<Integer> nodeDependencies = visitingDependencies.peek();
+                if (nodeDependencies.hasNext()) {
+                    final int dependency = nodeDependencies.next();
+                    if (indexes[dependency] < 0) {
+                        indexes[dependency] = nextIndex;
+                        lowLinks[dependency] = nextIndex++;
+                        stack.push(dependency);
+                        onStack[dependency] = true;
+                        visiting.push(dependency);
+                        visitingDependencies.push(dependencies.get(dependency).iterator());
+                    } else if (onStack[dependency]) {
+                        lowLinks[node] = Math.min(lowLinks[node], indexes[dependency]);
+                    }
+                    continue;
+                }
+
+                visiting.pop();
+                visitingDependencies.pop();
+                if (!visiting.isEmpty()) {
+                    lowLinks[visiting.peek()] = Math.min(lowLinks[visiting.peek()], lowLinks[node]);
+                }
+                if (lowLinks[node] == indexes[node]) {
+                    final List<Integer> component = new ArrayList<>();
+                    int member;
+                    do {
+                        member = stack.pop();
+                        onStack[member] = false;
+                        component.add(member);
+                    } while (member != node);
+                    Collections.sort(component);
+                    components.add(component);
+                }
+            }
+        }
+        return components;
+    }
+}
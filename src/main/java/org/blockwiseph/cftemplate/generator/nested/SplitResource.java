@@ -0,0 +1,54 @@
+package org.blockwiseph.cftemplate.generator.nested;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFReferences;
+import org.blockwiseph.cftemplate.generator.node.MappingNode;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionRenderer;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One of the section builders of the Resources section of a stack being split, rendered once, with the logical ids of
+ * the resources it builds and the references in them. A section builder usually builds a single resource, but plain
+ * string section builders can build several, which are then always kept in the same stack.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+final class SplitResource {
+
+    private static final int RESOURCE_INDENTATION_BYTES = 2;
+
+    private final int index;
+    private final String contents;
+    private final long estimatedBytes;
+    private final List<String> logicalIds;
+    private final CFReferences references;
+
+    /**
+     * @param index           the position of the section builder in the Resources section
+     * @param resourceBuilder the section builder of the resource
+     * @return the rendered resource
+     * @throws IllegalArgumentException if the section builder does not build a mapping of logical ids to resources
+     */
+    static SplitResource of(final int index, final CFSectionBuilder resourceBuilder) {
+        final CFNode node = resourceBuilder.toNode();
+        if (!(node instanceof MappingNode)) {
+            throw new IllegalArgumentException("Resources must be mappings of logical ids to resources: " + node);
+        }
+        final String contents = CFSectionRenderer.renderToString(resourceBuilder);
+        final long lines = contents.chars().filter(c -> c == '\n').count() + 1;
+        return new SplitResource(index, contents,
+                contents.getBytes(UTF_8).length + lines * RESOURCE_INDENTATION_BYTES + 1,
+                ((MappingNode) node).getEntries().stream()
+                        .map(MappingNode.Entry::getKey)
+                        .collect(Collectors.toList()),
+                CFReferences.of(node));
+    }
+}
@@ -0,0 +1,20 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+/**
+ * A node of the typed model of a cloud formation template: a mapping, a sequence, a scalar, or an intrinsic function.
+ * Nodes are immutable values, so two nodes are equal when they represent the same template structure.
+ *
+ * The node of a section builder can be obtained with
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder#toNode()
+ */
+public interface CFNode {
+
+    /**
+     * Calls the method of the visitor for the type of this node.
+     *
+     * @param visitor the visitor to call
+     * @param <T>     the type of the result of the visitor
+     * @return the result of the visitor
+     */
+    <T> T accept(CFNodeVisitor<T> visitor);
+}
@@ -0,0 +1,91 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Builds a node tree from the events of a parsed template, or of a part of it.
+ */
+public final class CFNodeBuilder implements CFNodeEventHandler {
+
+    private final Deque<OpenNode> openNodes = new ArrayDeque<>();
+
+    private CFNode root = ScalarNode.NULL;
+
+    @Override
+    public void beginMapping() {
+        openNodes.push(new OpenNode(null));
+    }
+
+    @Override
+    public void key(final String key) {
+        openNodes.peek().key = key;
+    }
+
+    @Override
+    public void endMapping() {
+        add(CFNodes.mapping(openNodes.pop().entries));
+    }
+
+    @Override
+    public void beginSequence() {
+        openNodes.push(new OpenNode(null));
+    }
+
+    @Override
+    public void endSequence() {
+        add(CFNodes.sequence(openNodes.pop().items));
+    }
+
+    @Override
+    public void scalar(final String value, final boolean plain) {
+        add(new ScalarNode(value, plain));
+    }
+
+    @Override
+    public void beginFunction(final String functionName) {
+        openNodes.push(new OpenNode(functionName));
+    }
+
+    @Override
+    public void endFunction() {
+        final OpenNode function = openNodes.pop();
+        add(new IntrinsicFunctionNode(function.functionName,
+                function.items.isEmpty() ? ScalarNode.NULL : function.items.get(0)));
+    }
+
+    /**
+     * @return the node built from the events, which is a null scalar if there were no events
+     */
+    public CFNode build() {
+        return root;
+    }
+
+    private void add(final CFNode node) {
+        final OpenNode parent = openNodes.peek();
+        if (parent == null) {
+            root = node;
+        } else if (parent.key != null) {
+            parent.entries.add(new MappingNode.Entry(parent.key, node));
+            parent.key = null;
+        } else {
+            parent.items.add(node);
+        }
+    }
+
+    /**
+     * A mapping, sequence or function whose end was not reached yet.
+     */
+    private static final class OpenNode {
+        private final String functionName;
+        private final List<MappingNode.Entry> entries = new ArrayList<>();
+        private final List<CFNode> items = new ArrayList<>();
+        private String key;
+
+        private OpenNode(final String functionName) {
+            this.functionName = functionName;
+        }
+    }
+}
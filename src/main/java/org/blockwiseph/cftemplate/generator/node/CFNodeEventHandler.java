@@ -0,0 +1,48 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+import java.io.IOException;
+
+/**
+ * Receives the structure of a template as a stream of events, in document order.
+ * Events are produced by parsing rendered templates with
+ * @see org.blockwiseph.cftemplate.generator.node.YamlEventParser
+ * or by walking a node tree with
+ * @see org.blockwiseph.cftemplate.generator.node.CFNodes#emit(CFNode, CFNodeEventHandler)
+ */
+public interface CFNodeEventHandler {
+
+    void beginMapping() throws IOException;
+
+    /**
+     * Called before the value of each entry of a mapping.
+     *
+     * @param key the key of the entry
+     * @throws IOException if handling the event fails
+     */
+    void key(String key) throws IOException;
+
+    void endMapping() throws IOException;
+
+    void beginSequence() throws IOException;
+
+    void endSequence() throws IOException;
+
+    /**
+     * Called for a scalar value.
+     *
+     * @param value the value of the scalar, without quotes or escapes
+     * @param plain whether the scalar was written without quotes, in which case it may be a number, boolean or null
+     * @throws IOException if handling the event fails
+     */
+    void scalar(String value, boolean plain) throws IOException;
+
+    /**
+     * Called before the argument of an intrinsic function, which is followed by endFunction.
+     *
+     * @param functionName the long form name of the function, e.g. "Ref" or "Fn::GetAtt"
+     * @throws IOException if handling the event fails
+     */
+    void beginFunction(String functionName) throws IOException;
+
+    void endFunction() throws IOException;
+}
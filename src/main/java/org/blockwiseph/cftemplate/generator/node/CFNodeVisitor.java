@@ -0,0 +1,17 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+/**
+ * Visitor for the types of nodes of the typed template model.
+ *
+ * @param <T> the type of the result of visiting a node
+ */
+public interface CFNodeVisitor<T> {
+
+    T visitMapping(MappingNode mappingNode);
+
+    T visitSequence(SequenceNode sequenceNode);
+
+    T visitScalar(ScalarNode scalarNode);
+
+    T visitIntrinsicFunction(IntrinsicFunctionNode intrinsicFunctionNode);
+}
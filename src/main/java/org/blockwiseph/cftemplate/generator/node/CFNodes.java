@@ -0,0 +1,175 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * Contains factory methods to create the nodes of the typed template model, and to convert between nodes, YAML and
+ * the events of
+ * @see org.blockwiseph.cftemplate.generator.node.CFNodeEventHandler
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CFNodes {
+
+    private static final String FUNCTION_PREFIX = "Fn::";
+    private static final String VALUE_KEY = "value";
+
+    /**
+     * Parses a YAML fragment, as written by section builders, into a node.
+     *
+     * @param yaml the YAML to parse
+     * @return the node represented by the YAML, which is a null scalar for an empty fragment
+     * @throws IllegalArgumentException if the YAML can not be parsed
+     */
+    public static CFNode parse(final String yaml) {
+        final CFNodeBuilder nodeBuilder = new CFNodeBuilder();
+        final YamlEventParser parser = new YamlEventParser(nodeBuilder);
+        try {
+            parser.append(yaml);
+            parser.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to parse template", e);
+        }
+        return nodeBuilder.build();
+    }
+
+    /**
+     * Parses a value as written after the key of a single line, e.g. "!Ref Bucket", or a multi line value such as the
+     * ones generated by the CFGeneratorUtils.
+     *
+     * @param value the YAML of the value to parse
+     * @return the node represented by the value
+     * @throws IllegalArgumentException if the value can not be parsed
+     */
+    public static CFNode parseValue(final String value) {
+        final CFNode node = parse(VALUE_KEY + ": " + value);
+        if (!(node instanceof MappingNode)) {
+            throw new IllegalArgumentException("Unable to parse value " + value);
+        }
+        return ((MappingNode) node).get(VALUE_KEY).orElse(ScalarNode.NULL);
+    }
+
+    /**
+     * Returns a mapping with a single entry. If the key is the name of an intrinsic function, such as "Ref" or
+     * "Fn::Join", the intrinsic function node is returned instead.
+     *
+     * @param key   the key of the entry
+     * @param value the value of the entry
+     * @return the node with the single entry
+     */
+    public static CFNode mapping(final String key, final CFNode value) {
+        return mapping(ImmutableList.of(new MappingNode.Entry(key, value)));
+    }
+
+    /**
+     * Returns a scalar.
+     *
+     * @param value the value of the scalar
+     * @param plain whether the value is written without quotes, in which case it may be a number, boolean or null
+     * @return the scalar node
+     */
+    public static ScalarNode scalar(final String value, final boolean plain) {
+        return new ScalarNode(value, plain);
+    }
+
+    /**
+     * Returns a sequence of the passed in nodes.
+     *
+     * @param items the items of the sequence
+     * @return the sequence node
+     */
+    public static CFNode sequence(final List<CFNode> items) {
+        return new SequenceNode(ImmutableList.copyOf(items));
+    }
+
+    /**
+     * Merges the nodes of aggregated sections: the entries of mappings are merged in a single mapping, and the items of
+     * sequences in a single sequence. Null scalars, as written by empty sections, are skipped.
+     *
+     * @param nodes the nodes to merge
+     * @return the merged node, which is a null scalar if there are no nodes to merge
+     * @throws IllegalArgumentException if the nodes are not all mappings or all sequences
+     */
+    public static CFNode merge(final List<CFNode> nodes) {
+        final List<CFNode> nonNullNodes = new ArrayList<>(nodes.size());
+        for (final CFNode node : nodes) {
+            if (!(node instanceof ScalarNode && ((ScalarNode) node).isNull())) {
+                nonNullNodes.add(node);
+            }
+        }
+        if (nonNullNodes.isEmpty()) {
+            return ScalarNode.NULL;
+        }
+        if (nonNullNodes.size() == 1) {
+            return nonNullNodes.get(0);
+        }
+
+        final List<MappingNode.Entry> entries = new ArrayList<>();
+        final List<CFNode> items = new ArrayList<>();
+        for (final CFNode node : nonNullNodes) {
+            if (node instanceof MappingNode) {
+                entries.addAll(((MappingNode) node).getEntries());
+            } else if (node instanceof IntrinsicFunctionNode) {
+                final IntrinsicFunctionNode function = (IntrinsicFunctionNode) node;
+                entries.add(new MappingNode.Entry(function.getFunctionName(), function.getArgument()));
+            } else if (node instanceof SequenceNode) {
+                items.addAll(((SequenceNode) node).getItems());
+            } else {
+                throw new IllegalArgumentException("Scalar sections can not be aggregated with other sections: " + node);
+            }
+        }
+        if (!entries.isEmpty() && !items.isEmpty()) {
+            throw new IllegalArgumentException("Mappings and sequences can not be aggregated together: " + nodes);
+        }
+        return entries.isEmpty() ? sequence(items) : mapping(entries);
+    }
+
+    /**
+     * Passes the structure of the node on to the event handler, in document order.
+     *
+     * @param node    the node to emit
+     * @param handler the handler to pass the events to
+     * @throws IOException if the handler fails
+     */
+    public static void emit(final CFNode node, final CFNodeEventHandler handler) throws IOException {
+        if (node instanceof MappingNode) {
+            handler.beginMapping();
+            for (final MappingNode.Entry entry : ((MappingNode) node).getEntries()) {
+                handler.key(entry.getKey());
+                emit(entry.getValue(), handler);
+            }
+            handler.endMapping();
+        } else if (node instanceof SequenceNode) {
+            handler.beginSequence();
+            for (final CFNode item : ((SequenceNode) node).getItems()) {
+                emit(item, handler);
+            }
+            handler.endSequence();
+        } else if (node instanceof IntrinsicFunctionNode) {
+            final IntrinsicFunctionNode function = (IntrinsicFunctionNode) node;
+            handler.beginFunction(function.getFunctionName());
+            emit(function.getArgument(), handler);
+            handler.endFunction();
+        } else {
+            final ScalarNode scalar = (ScalarNode) node;
+            handler.scalar(scalar.getValue(), scalar.isPlain());
+        }
+    }
+
+    static CFNode mapping(final List<MappingNode.Entry> entries) {
+        if (entries.size() == 1 && isFunctionName(entries.get(0).getKey())) {
+            return new IntrinsicFunctionNode(entries.get(0).getKey(), entries.get(0).getValue());
+        }
+        return new MappingNode(ImmutableList.copyOf(entries));
+    }
+
+    static boolean isFunctionName(final String key) {
+        return "Ref".equals(key) || "Condition".equals(key) || key.startsWith(FUNCTION_PREFIX);
+    }
+}
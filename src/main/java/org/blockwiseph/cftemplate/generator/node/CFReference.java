@@ -0,0 +1,49 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A single reference made in a template, from an entry of one of its sections to a logical id, e.g. from the resource
+ * "Fn" of the Resources section to the resource "Role" with "Fn::GetAtt".
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class CFReference {
+
+    private final String section;
+    private final String source;
+    private final String target;
+    private final Kind kind;
+
+    /**
+     * The ways a logical id can be referenced, which determine what the logical id must be defined as.
+     */
+    public enum Kind {
+
+        /**
+         * A "Ref" or a "Fn::Sub" variable without an attribute, to a resource or a parameter.
+         */
+        REF,
+
+        /**
+         * A "Fn::GetAtt" or a "Fn::Sub" variable with an attribute, to a resource.
+         */
+        GET_ATT,
+
+        /**
+         * A "DependsOn" attribute, to a resource.
+         */
+        DEPENDS_ON,
+
+        /**
+         * A "Condition" attribute, "Fn::If" or "Condition", to a condition.
+         */
+        CONDITION
+    }
+}
@@ -0,0 +1,255 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An index of the logical ids defined in a template and of the references made to them, built in a single pass over
+ * the entries of the template, with which the template can be checked before it is deployed.
+ *
+ * Parameters and resources share the namespace of logical ids, while conditions and outputs each have their own.
+ * Errors are references to logical ids that are not defined as what the reference needs, and logical ids that are
+ * defined more than once. Warnings are parameters and conditions that are never referenced.
+ * The references are collected as described in
+ * @see org.blockwiseph.cftemplate.generator.node.CFReferences
+ * An index can be built while a template is rendered with
+ * @see org.blockwiseph.cftemplate.generator.node.CFReferenceIndexer
+ */
+public final class CFReferenceIndex {
+
+    private static final String PARAMETERS = "Parameters";
+    private static final String RESOURCES = "Resources";
+    private static final String CONDITIONS = "Conditions";
+    private static final String OUTPUTS = "Outputs";
+    private static final String TYPE = "Type";
+
+    private final Map<String, String> resourceTypes = new LinkedHashMap<>();
+    private final Set<String> parameters = new LinkedHashSet<>();
+    private final Set<String> conditions = new LinkedHashSet<>();
+    private final Set<String> outputs = new LinkedHashSet<>();
+    private final Set<String> duplicateLogicalIds = new LinkedHashSet<>();
+    private final List<CFReference> references = new ArrayList<>();
+    private final Map<String, List<CFReference>> referencesByTarget = new LinkedHashMap<>();
+
+    CFReferenceIndex() {
+    }
+
+    /**
+     * Indexes a whole template.
+     *
+     * @param template the node of the template, with its top level sections as entries
+     * @return the index of the template
+     */
+    public static CFReferenceIndex of(final CFNode template) {
+        final CFReferenceIndexer indexer = new CFReferenceIndexer();
+        try {
+            CFNodes.emit(template, indexer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return indexer.getIndex();
+    }
+
+    /**
+     * @return the logical ids of the resources, with their types, in the order they are defined
+     */
+    public Map<String, String> getResourceTypes() {
+        return Collections.unmodifiableMap(resourceTypes);
+    }
+
+    /**
+     * @return the logical ids of the parameters, in the order they are defined
+     */
+    public Set<String> getParameters() {
+        return Collections.unmodifiableSet(parameters);
+    }
+
+    /**
+     * @return the names of the conditions, in the order they are defined
+     */
+    public Set<String> getConditions() {
+        return Collections.unmodifiableSet(conditions);
+    }
+
+    /**
+     * @return all references, in the order they are made
+     */
+    public List<CFReference> getReferences() {
+        return Collections.unmodifiableList(references);
+    }
+
+    /**
+     * @param target a logical id or condition name
+     * @return the references made to the target, in the order they are made
+     */
+    public List<CFReference> getReferencesTo(final String target) {
+        return Collections.unmodifiableList(referencesByTarget.getOrDefault(target, Collections.emptyList()));
+    }
+
+    /**
+     * @return the references to logical ids that are not defined as what the reference needs, e.g. a "Fn::GetAtt" of a
+     *         parameter, or a "Ref" to a logical id that is not defined at all
+     */
+    public List<CFReference> getDanglingReferences() {
+        return references.stream()
+                .filter(reference -> !isDefined(reference))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the logical ids, condition names and output names that are defined more than once in their namespace
+     */
+    public Set<String> getDuplicateLogicalIds() {
+        return Collections.unmodifiableSet(duplicateLogicalIds);
+    }
+
+    /**
+     * @return the parameters that are never referenced with "Ref"
+     */
+    public Set<String> getUnusedParameters() {
+        return unreferenced(parameters, CFReference.Kind.REF);
+    }
+
+    /**
+     * @return the conditions that are never referenced
+     */
+    public Set<String> getUnusedConditions() {
+        return unreferenced(conditions, CFReference.Kind.CONDITION);
+    }
+
+    /**
+     * @return a description of each dangling reference and duplicate logical id
+     */
+    public List<String> getErrors() {
+        final List<String> errors = new ArrayList<>();
+        for (final CFReference reference : getDanglingReferences()) {
+            errors.add(String.format("%s.%s references undefined %s \"%s\" with %s", reference.getSection(),
+                    reference.getSource(), expectedDefinition(reference.getKind()), reference.getTarget(),
+                    reference.getKind()));
+        }
+        for (final String logicalId : duplicateLogicalIds) {
+            errors.add(String.format("\"%s\" is defined more than once", logicalId));
+        }
+        return errors;
+    }
+
+    /**
+     * @return a description of each unused parameter and condition
+     */
+    public List<String> getWarnings() {
+        final List<String> warnings = new ArrayList<>();
+        getUnusedParameters().forEach(parameter -> warnings.add(String.format("Parameter \"%s\" is never referenced",
+                parameter)));
+        getUnusedConditions().forEach(condition -> warnings.add(String.format("Condition \"%s\" is never referenced",
+                condition)));
+        return warnings;
+    }
+
+    /**
+     * @return whether the template has no dangling references and no duplicate logical ids
+     */
+    public boolean isValid() {
+        return duplicateLogicalIds.isEmpty() && references.stream().allMatch(this::isDefined);
+    }
+
+    /**
+     * Indexes an entry of a top level section. The references of entries of sections other than Resources, Conditions
+     * and Outputs, such as Mappings or Metadata, are not indexed.
+     */
+    void addEntry(final String section, final String key, final CFNode value) {
+        switch (String.valueOf(section)) {
+            case PARAMETERS:
+                define(key, parameters.add(key) && !resourceTypes.containsKey(key));
+                break;
+            case RESOURCES:
+                define(key, !parameters.contains(key) && !resourceTypes.containsKey(key));
+                resourceTypes.put(key, typeOf(value));
+                addReferences(section, key, value);
+                break;
+            case CONDITIONS:
+                define(key, conditions.add(key));
+                addReferences(section, key, value);
+                break;
+            case OUTPUTS:
+                define(key, outputs.add(key));
+                addReferences(section, key, value);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void define(final String key, final boolean unique) {
+        if (!unique) {
+            duplicateLogicalIds.add(key);
+        }
+    }
+
+    private void addReferences(final String section, final String source, final CFNode value) {
+        final CFReferences valueReferences = CFReferences.of(value);
+        valueReferences.getRefs().forEach(target -> addReference(section, source, target, CFReference.Kind.REF));
+        valueReferences.getGetAtts().forEach(target -> addReference(section, source, target, CFReference.Kind.GET_ATT));
+        valueReferences.getDependsOn().forEach(target ->
+                addReference(section, source, target, CFReference.Kind.DEPENDS_ON));
+        valueReferences.getConditions().forEach(target ->
+                addReference(section, source, target, CFReference.Kind.CONDITION));
+    }
+
+    private void addReference(final String section, final String source, final String target,
+                              final CFReference.Kind kind) {
+        final CFReference reference = new CFReference(section, source, target, kind);
+        references.add(reference);
+        referencesByTarget.computeIfAbsent(target, t -> new ArrayList<>()).add(reference);
+    }
+
+    private boolean isDefined(final CFReference reference) {
+        switch (reference.getKind()) {
+            case REF:
+                return resourceTypes.containsKey(reference.getTarget()) || parameters.contains(reference.getTarget());
+            case CONDITION:
+                return conditions.contains(reference.getTarget());
+            default:
+                return resourceTypes.containsKey(reference.getTarget());
+        }
+    }
+
+    private Set<String> unreferenced(final Set<String> definitions, final CFReference.Kind kind) {
+        final Set<String> unreferenced = new LinkedHashSet<>();
+        for (final String definition : definitions) {
+            if (getReferencesTo(definition).stream().noneMatch(reference -> reference.getKind() == kind)) {
+                unreferenced.add(definition);
+            }
+        }
+        return unreferenced;
+    }
+
+    private static String expectedDefinition(final CFReference.Kind kind) {
+        switch (kind) {
+            case REF:
+                return "resource or parameter";
+            case CONDITION:
+                return "condition";
+            default:
+                return "resource";
+        }
+    }
+
+    private static String typeOf(final CFNode resource) {
+        if (resource instanceof MappingNode) {
+            for (final MappingNode.Entry entry : ((MappingNode) resource).getEntries()) {
+                if (TYPE.equals(entry.getKey()) && entry.getValue() instanceof ScalarNode) {
+                    return ((ScalarNode) entry.getValue()).getValue();
+                }
+            }
+        }
+        return null;
+    }
+}
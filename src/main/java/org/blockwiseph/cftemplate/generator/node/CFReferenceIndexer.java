@@ -0,0 +1,123 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+/**
+ * Builds the reference index of a template from the events of the template, holding only the entry of a top level
+ * section that is being handled, so a template can be indexed while it is rendered by passing the rendered YAML to
+ * @see org.blockwiseph.cftemplate.generator.node.YamlEventParser
+ *
+ * Each entry of a top level section that is a mapping, such as a resource or a parameter, is built into a node once
+ * its value ends, then indexed and dropped. Top level sections that are not mappings are skipped.
+ */
+public final class CFReferenceIndexer implements CFNodeEventHandler {
+
+    private static final int SECTION_DEPTH = 1;
+    private static final int ENTRY_DEPTH = 2;
+
+    private final CFReferenceIndex index = new CFReferenceIndex();
+
+    private int depth;
+    private String section;
+    private String entryKey;
+    private CFNodeBuilder entryBuilder;
+    private int entryNesting;
+
+    @Override
+    public void beginMapping() {
+        if (entryBuilder != null) {
+            entryBuilder.beginMapping();
+            entryNesting++;
+        } else {
+            depth++;
+        }
+    }
+
+    @Override
+    public void key(final String key) {
+        if (entryBuilder != null) {
+            entryBuilder.key(key);
+        } else if (depth == SECTION_DEPTH) {
+            section = key;
+        } else if (depth == ENTRY_DEPTH) {
+            entryKey = key;
+            entryBuilder = new CFNodeBuilder();
+            entryNesting = 0;
+        }
+    }
+
+    @Override
+    public void endMapping() {
+        if (entryBuilder != null) {
+            entryBuilder.endMapping();
+            endNested();
+        } else {
+            depth--;
+        }
+    }
+
+    @Override
+    public void beginSequence() {
+        if (entryBuilder != null) {
+            entryBuilder.beginSequence();
+            entryNesting++;
+        } else {
+            depth++;
+        }
+    }
+
+    @Override
+    public void endSequence() {
+        if (entryBuilder != null) {
+            entryBuilder.endSequence();
+            endNested();
+        } else {
+            depth--;
+        }
+    }
+
+    @Override
+    public void scalar(final String value, final boolean plain) {
+        if (entryBuilder != null) {
+            entryBuilder.scalar(value, plain);
+            endEntryIfComplete();
+        }
+    }
+
+    @Override
+    public void beginFunction(final String functionName) {
+        if (entryBuilder != null) {
+            entryBuilder.beginFunction(functionName);
+            entryNesting++;
+        } else {
+            depth++;
+        }
+    }
+
+    @Override
+    public void endFunction() {
+        if (entryBuilder != null) {
+            entryBuilder.endFunction();
+            endNested();
+        } else {
+            depth--;
+        }
+    }
+
+    /**
+     * @return the index of the entries handled so far
+     */
+    public CFReferenceIndex getIndex() {
+        return index;
+    }
+
+    private void endNested() {
+        entryNesting--;
+        endEntryIfComplete();
+    }
+
+    private void endEntryIfComplete() {
+        if (entryNesting == 0) {
+            index.addEntry(section, entryKey, entryBuilder.build());
+            entryBuilder = null;
+        }
+    }
+}
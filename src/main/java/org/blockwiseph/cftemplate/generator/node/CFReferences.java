@@ -0,0 +1,181 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The logical ids referenced by a node of the typed template model, in the order they first appear.
+ *
+ * References are collected from the intrinsic functions in the node: "Ref", "Fn::GetAtt", the variables of "Fn::Sub",
+ * and the conditions of "Fn::If" and "Condition". The "DependsOn" and "Condition" attributes of resources are
+ * collected as well. References to pseudo parameters, such as "AWS::Region", are not collected.
+ *
+ * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/intrinsic-function-reference.html">AWS CloudFormation Intrinsic Functions Documentation</a>
+ */
+public final class CFReferences {
+
+    private static final String REF = "Ref";
+    private static final String GET_ATT = "Fn::GetAtt";
+    private static final String SUB = "Fn::Sub";
+    private static final String IF = "Fn::If";
+    private static final String CONDITION = "Condition";
+    private static final String DEPENDS_ON = "DependsOn";
+    private static final String PSEUDO_PARAMETER_SEPARATOR = "::";
+    private static final Pattern SUB_VARIABLE = Pattern.compile("\\$\\{([^!}][^}]*)}");
+
+    private final Set<String> refs = new LinkedHashSet<>();
+    private final Set<String> getAtts = new LinkedHashSet<>();
+    private final Set<String> dependsOn = new LinkedHashSet<>();
+    private final Set<String> conditions = new LinkedHashSet<>();
+
+    private CFReferences() {
+    }
+
+    /**
+     * Collects the references in a node.
+     *
+     * @param node the node to collect the references of
+     * @return the references in the node
+     */
+    public static CFReferences of(final CFNode node) {
+        final CFReferences references = new CFReferences();
+        references.collect(node);
+        return references;
+    }
+
+    /**
+     * @return the logical ids referenced with "Ref", or as a variable of "Fn::Sub" without an attribute
+     */
+    public Set<String> getRefs() {
+        return Collections.unmodifiableSet(refs);
+    }
+
+    /**
+     * @return the logical ids of the resources whose attributes are used with "Fn::GetAtt", or as a variable of
+     *         "Fn::Sub" with an attribute
+     */
+    public Set<String> getGetAtts() {
+        return Collections.unmodifiableSet(getAtts);
+    }
+
+    /**
+     * @return the logical ids of the resources in "DependsOn" attributes
+     */
+    public Set<String> getDependsOn() {
+        return Collections.unmodifiableSet(dependsOn);
+    }
+
+    /**
+     * @return the names of the conditions used in "Condition" attributes, and with "Fn::If" or "Condition"
+     */
+    public Set<String> getConditions() {
+        return Collections.unmodifiableSet(conditions);
+    }
+
+    /**
+     * @return the logical ids of all resources and parameters referenced, excluding conditions
+     */
+    public Set<String> getLogicalIds() {
+        final Set<String> logicalIds = new LinkedHashSet<>(refs);
+        logicalIds.addAll(getAtts);
+        logicalIds.addAll(dependsOn);
+        return Collections.unmodifiableSet(logicalIds);
+    }
+
+    private void collect(final CFNode node) {
+        if (node instanceof MappingNode) {
+            for (final MappingNode.Entry entry : ((MappingNode) node).getEntries()) {
+                if (DEPENDS_ON.equals(entry.getKey())) {
+                    addScalars(entry.getValue(), dependsOn);
+                } else if (CONDITION.equals(entry.getKey()) && entry.getValue() instanceof ScalarNode) {
+                    addScalars(entry.getValue(), conditions);
+                }
+                collect(entry.getValue());
+            }
+        } else if (node instanceof SequenceNode) {
+            ((SequenceNode) node).getItems().forEach(this::collect);
+        } else if (node instanceof IntrinsicFunctionNode) {
+            collectFunction((IntrinsicFunctionNode) node);
+        }
+    }
+
+    private void collectFunction(final IntrinsicFunctionNode function) {
+        final CFNode argument = function.getArgument();
+        switch (function.getFunctionName()) {
+            case REF:
+                addScalars(argument, refs);
+                break;
+            case GET_ATT:
+                addGetAtt(argument);
+                break;
+            case SUB:
+                addSubVariables(argument);
+                break;
+            case IF:
+                if (argument instanceof SequenceNode && !((SequenceNode) argument).getItems().isEmpty()) {
+                    addScalars(((SequenceNode) argument).getItems().get(0), conditions);
+                }
+                break;
+            case CONDITION:
+                addScalars(argument, conditions);
+                break;
+            default:
+                break;
+        }
+        collect(argument);
+    }
+
+    private void addGetAtt(final CFNode argument) {
+        if (argument instanceof SequenceNode && !((SequenceNode) argument).getItems().isEmpty()) {
+            addScalars(((SequenceNode) argument).getItems().get(0), getAtts);
+        } else if (argument instanceof ScalarNode) {
+            final String value = ((ScalarNode) argument).getValue();
+            final int dot = value.indexOf('.');
+            addLogicalId(dot < 0 ? value : value.substring(0, dot), getAtts);
+        }
+    }
+
+    private void addSubVariables(final CFNode argument) {
+        CFNode template = argument;
+        final Set<String> localVariables = new LinkedHashSet<>();
+        if (argument instanceof SequenceNode && !((SequenceNode) argument).getItems().isEmpty()) {
+            template = ((SequenceNode) argument).getItems().get(0);
+            final CFNode variables = ((SequenceNode) argument).getItems().size() > 1
+                    ? ((SequenceNode) argument).getItems().get(1)
+                    : null;
+            if (variables instanceof MappingNode) {
+                ((MappingNode) variables).getEntries().forEach(entry -> localVariables.add(entry.getKey()));
+            }
+        }
+        if (!(template instanceof ScalarNode)) {
+            return;
+        }
+        final Matcher matcher = SUB_VARIABLE.matcher(((ScalarNode) template).getValue());
+        while (matcher.find()) {
+            final String variable = matcher.group(1).trim();
+            final int dot = variable.indexOf('.');
+            if (dot >= 0) {
+                addLogicalId(variable.substring(0, dot), getAtts);
+            } else if (!localVariables.contains(variable)) {
+                addLogicalId(variable, refs);
+            }
+        }
+    }
+
+    private static void addScalars(final CFNode node, final Set<String> logicalIds) {
+        if (node instanceof ScalarNode) {
+            addLogicalId(((ScalarNode) node).getValue(), logicalIds);
+        } else if (node instanceof SequenceNode) {
+            ((SequenceNode) node).getItems().forEach(item -> addScalars(item, logicalIds));
+        }
+    }
+
+    private static void addLogicalId(final String logicalId, final Set<String> logicalIds) {
+        if (!logicalId.isEmpty() && !logicalId.contains(PSEUDO_PARAMETER_SEPARATOR)) {
+            logicalIds.add(logicalId);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * An intrinsic function with its argument, e.g. the function "Fn::GetAtt" with the argument ["Role", "Arn"].
+ * Functions are recognized in both their short form (!GetAtt Role.Arn) and their long form (Fn::GetAtt: [Role, Arn]).
+ *
+ * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/intrinsic-function-reference.html">AWS CloudFormation Intrinsic Functions Documentation</a>
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class IntrinsicFunctionNode implements CFNode {
+
+    private final String functionName;
+    private final CFNode argument;
+
+    @Override
+    public <T> T accept(final CFNodeVisitor<T> visitor) {
+        return visitor.visitIntrinsicFunction(this);
+    }
+}
@@ -0,0 +1,52 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+import java.util.List;
+import java.util.Optional;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A mapping of keys to nodes, in the order they appear in the template.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class MappingNode implements CFNode {
+
+    private final List<Entry> entries;
+
+    /**
+     * Returns the value of the first entry with the passed in key.
+     *
+     * @param key the key of the entry
+     * @return the value of the entry, or empty if there is no entry with the key
+     */
+    public Optional<CFNode> get(final String key) {
+        return entries.stream()
+                .filter(entry -> entry.getKey().equals(key))
+                .map(Entry::getValue)
+                .findFirst();
+    }
+
+    @Override
+    public <T> T accept(final CFNodeVisitor<T> visitor) {
+        return visitor.visitMapping(this);
+    }
+
+    /**
+     * A single key and value of a mapping.
+     */
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    @Getter
+    @EqualsAndHashCode
+    @ToString
+    public static final class Entry {
+        private final String key;
+        private final CFNode value;
+    }
+}
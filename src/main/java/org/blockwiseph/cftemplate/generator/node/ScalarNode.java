@@ -0,0 +1,46 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+import java.util.regex.Pattern;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A scalar value. Plain scalars, written without quotes, are typed the way YAML types them: they can be null, a
+ * boolean or a number, and are strings otherwise. Quoted scalars are always strings.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class ScalarNode implements CFNode {
+
+    static final ScalarNode NULL = new ScalarNode("", true);
+
+    private static final Pattern NULL_VALUE = Pattern.compile("|~|null|Null|NULL");
+    private static final Pattern BOOLEAN_VALUE = Pattern.compile("true|True|TRUE|false|False|FALSE");
+    private static final Pattern NUMBER_VALUE = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][-+]?[0-9]+)?");
+
+    private final String value;
+    private final boolean plain;
+
+    public boolean isNull() {
+        return plain && NULL_VALUE.matcher(value).matches();
+    }
+
+    public boolean isBoolean() {
+        return plain && BOOLEAN_VALUE.matcher(value).matches();
+    }
+
+    public boolean isNumber() {
+        return plain && NUMBER_VALUE.matcher(value).matches();
+    }
+
+    @Override
+    public <T> T accept(final CFNodeVisitor<T> visitor) {
+        return visitor.visitScalar(this);
+    }
+}
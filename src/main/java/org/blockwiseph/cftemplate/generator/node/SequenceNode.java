@@ -0,0 +1,26 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+import java.util.List;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * A sequence of nodes.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class SequenceNode implements CFNode {
+
+    private final List<CFNode> items;
+
+    @Override
+    public <T> T accept(final CFNodeVisitor<T> visitor) {
+        return visitor.visitSequence(this);
+    }
+}
@@ -0,0 +1,613 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * An Appendable that parses the YAML written to it by the section builders line by line, as it is written, and passes
+ * its structure on to an event handler. The YAML is never held in memory as a whole.
+ *
+ * The short forms of the intrinsic functions are passed on as functions with their long form names, e.g. "!Ref Bucket"
+ * as the function "Ref" with the argument "Bucket", and "!GetAtt Role.Arn" as the function "Fn::GetAtt" with the
+ * arguments ["Role", "Arn"].
+ *
+ * The parser supports the YAML written by the section builders of this library: block mappings and sequences,
+ * plain, quoted and block scalars, flow sequences and mappings, and tags, as well as the long form of an intrinsic
+ * function written as a value on the same line as its key, e.g. "RoleArn: Fn::GetAtt: [Role, Arn]". Anchors, aliases,
+ * complex keys, multiple documents, plain scalars continued on the next lines, and other plain scalars containing ": "
+ * are not supported, and fail with an IllegalArgumentException naming the line, rather than being guessed at. Such
+ * scalars must be quoted, or written as block scalars.
+ *
+ * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/intrinsic-function-reference.html">AWS CloudFormation Intrinsic Functions Documentation</a>
+ */
+public final class YamlEventParser implements Appendable {
+
+    private static final String GET_ATT = "GetAtt";
+    private static final String FUNCTION_PREFIX = "Fn::";
+    private static final String NON_PLAIN_STARTS = "[{!|>&*\"'";
+    private static final int HEX_RADIX = 16;
+    private static final int UNICODE_ESCAPE_LENGTH = 4;
+    private static final int HEX_ESCAPE_LENGTH = 2;
+
+    private final CFNodeEventHandler handler;
+    private final StringBuilder line = new StringBuilder();
+    private final Deque<Block> blocks = new ArrayDeque<>();
+
+    private int lineNumber;
+    private boolean awaitingValue = true;
+    private int awaitingIndent = -1;
+    private boolean awaitingFromKey;
+    private String pendingTag;
+    private BlockScalar blockScalar;
+
+    /**
+     * @param handler the handler to pass the structure of the parsed YAML on to
+     */
+    public YamlEventParser(final CFNodeEventHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) throws IOException {
+        return append(csq, 0, String.valueOf(csq).length());
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+        final CharSequence chars = csq == null ? "null" : csq;
+        for (int i = start; i < end; i++) {
+            append(chars.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(final char c) throws IOException {
+        if (c == '\n') {
+            processLine();
+        } else if (c != '\r') {
+            line.append(c);
+        }
+        return this;
+    }
+
+    /**
+     * Parses the last line, and ends all open mappings and sequences. This must be called once everything has been
+     * written to the parser.
+     *
+     * @throws IOException if the handler fails
+     */
+    public void finish() throws IOException {
+        if (line.length() > 0) {
+            processLine();
+        }
+        if (blockScalar != null) {
+            finishBlockScalar();
+        }
+        if (awaitingValue) {
+            writeNull();
+        }
+        while (!blocks.isEmpty()) {
+            closeBlock(blocks.pop());
+        }
+    }
+
+    private void processLine() throws IOException {
+        lineNumber++;
+        final String text = line.toString();
+        line.setLength(0);
+
+        final int indent = indentOf(text);
+        if (blockScalar != null) {
+            if (indent == text.length() || indent > blockScalar.parentIndent) {
+                blockScalar.lines.add(text);
+                return;
+            }
+            finishBlockScalar();
+        }
+        if (indent == text.length() || text.charAt(indent) == '#') {
+            return;
+        }
+        if (text.charAt(indent) == '\t') {
+            throw error("Tabs are not allowed for indentation");
+        }
+
+        final String content = text.substring(indent).trim();
+        final boolean sequenceItem = isSequenceItem(content);
+        closeBlocks(indent, sequenceItem);
+        parseNode(indent, content);
+    }
+
+    /**
+     * Closes the blocks that end before a line at the given indentation, and writes null for a value that was expected
+     * but did not follow.
+     */
+    private void closeBlocks(final int indent, final boolean sequenceItem) throws IOException {
+        if (awaitingValue) {
+            if (indent > awaitingIndent || awaitingFromKey && sequenceItem && indent == awaitingIndent) {
+                return;
+            }
+            writeNull();
+        }
+        while (!blocks.isEmpty() && (blocks.peek().indent > indent
+                || blocks.peek().indent == indent && blocks.peek().sequence && !sequenceItem)) {
+            closeBlock(blocks.pop());
+        }
+    }
+
+    private void parseNode(final int indent, final String content) throws IOException {
+        if (isSequenceItem(content)) {
+            openBlock(indent, true);
+            int offset = 1;
+            while (offset < content.length() && content.charAt(offset) == ' ') {
+                offset++;
+            }
+            await(indent, false);
+            if (offset < content.length()) {
+                parseNode(indent + offset, content.substring(offset));
+            }
+            return;
+        }
+
+        final int colon = mappingColonOf(content);
+        if (colon >= 0) {
+            openBlock(indent, false);
+            handler.key(parseKey(content.substring(0, colon)));
+            await(indent, true);
+            final String value = content.substring(colon + 1).trim();
+            if (!value.isEmpty()) {
+                parseValue(value);
+            }
+            return;
+        }
+
+        if (!awaitingValue) {
+            throw error("Unexpected value " + content + ", plain scalars continued on the next lines are not supported");
+        }
+        parseValue(content);
+    }
+
+    private void openBlock(final int indent, final boolean sequence) throws IOException {
+        if (!awaitingValue) {
+            final Block block = blocks.peek();
+            if (block == null || block.indent != indent || block.sequence != sequence) {
+                throw error(sequence ? "Unexpected sequence item" : "Unexpected mapping entry");
+            }
+            return;
+        }
+
+        awaitingValue = false;
+        final boolean tagged = pendingTag != null;
+        if (tagged) {
+            beginFunction(pendingTag);
+            pendingTag = null;
+        }
+        if (sequence) {
+            handler.beginSequence();
+        } else {
+            handler.beginMapping();
+        }
+        blocks.push(new Block(indent, sequence, tagged));
+    }
+
+    private void closeBlock(final Block block) throws IOException {
+        if (block.sequence) {
+            handler.endSequence();
+        } else {
+            handler.endMapping();
+        }
+        if (block.tagged) {
+            handler.endFunction();
+        }
+    }
+
+    private void await(final int indent, final boolean fromKey) {
+        awaitingValue = true;
+        awaitingIndent = indent;
+        awaitingFromKey = fromKey;
+    }
+
+    /**
+     * Parses the value of a mapping entry or a sequence item that starts on the current line.
+     */
+    private void parseValue(final String value) throws IOException {
+        String tag = pendingTag;
+        String untagged = value;
+        if (value.charAt(0) == '!') {
+            if (tag != null) {
+                throw error("Only one tag is allowed per value");
+            }
+            final int tagEnd = value.indexOf(' ') < 0 ? value.length() : value.indexOf(' ');
+            tag = parseTag(value.substring(1, tagEnd));
+            untagged = value.substring(tagEnd).trim();
+            if (untagged.isEmpty()) {
+                pendingTag = tag;
+                return;
+            }
+        }
+
+        pendingTag = null;
+        awaitingValue = false;
+        if (untagged.charAt(0) == '|' || untagged.charAt(0) == '>') {
+            blockScalar = new BlockScalar(awaitingIndent, untagged, tag, new ArrayList<>());
+            return;
+        }
+
+        final int colon = mappingColonOf(untagged);
+        final String functionName = colon < 0 ? null : parseKey(untagged.substring(0, colon));
+        if (functionName != null && !CFNodes.isFunctionName(functionName)) {
+            throw error("Unexpected mapping entry " + untagged + ", plain scalars containing \": \" must be quoted");
+        }
+        if (tag != null) {
+            beginFunction(tag);
+        }
+        if (functionName != null) {
+            handler.beginMapping();
+            handler.key(functionName);
+            new FlowParser(untagged.substring(colon + 1)).parseValue(false);
+            handler.endMapping();
+        } else {
+            new FlowParser(untagged).parseValue(GET_ATT.equals(tag));
+        }
+        if (tag != null) {
+            handler.endFunction();
+        }
+    }
+
+    private void finishBlockScalar() throws IOException {
+        final BlockScalar scalar = blockScalar;
+        blockScalar = null;
+        if (scalar.tag != null) {
+            beginFunction(scalar.tag);
+        }
+        handler.scalar(scalar.contents(), false);
+        if (scalar.tag != null) {
+            handler.endFunction();
+        }
+    }
+
+    private void writeNull() throws IOException {
+        awaitingValue = false;
+        if (pendingTag != null) {
+            beginFunction(pendingTag);
+            handler.scalar("", true);
+            handler.endFunction();
+            pendingTag = null;
+        } else {
+            handler.scalar("", true);
+        }
+    }
+
+    private void beginFunction(final String tag) throws IOException {
+        handler.beginFunction("Ref".equals(tag) || "Condition".equals(tag) ? tag : FUNCTION_PREFIX + tag);
+    }
+
+    private String parseTag(final String tag) {
+        if (tag.isEmpty() || tag.charAt(0) == '!') {
+            throw error("Unsupported tag !" + tag);
+        }
+        return tag;
+    }
+
+    private String parseKey(final String key) {
+        final String trimmed = key.trim();
+        if (trimmed.startsWith("\"") || trimmed.startsWith("'")) {
+            final FlowParser parser = new FlowParser(trimmed);
+            return parser.parseQuoted();
+        }
+        return trimmed;
+    }
+
+    private IllegalArgumentException error(final String message) {
+        return new IllegalArgumentException(
+                String.format("%s at line %d of the template, which can not be parsed", message, lineNumber));
+    }
+
+    private static int indentOf(final String text) {
+        int indent = 0;
+        while (indent < text.length() && text.charAt(indent) == ' ') {
+            indent++;
+        }
+        return indent;
+    }
+
+    private static boolean isSequenceItem(final String content) {
+        return content.equals("-") || content.startsWith("- ");
+    }
+
+    /**
+     * Returns the index of the colon separating the key from the value, if the content is a mapping entry, or -1.
+     */
+    private static int mappingColonOf(final String content) {
+        final char first = content.charAt(0);
+        if (first == '"' || first == '\'') {
+            final int closingQuote = closingQuoteOf(content, first);
+            final int colon = closingQuote + 1;
+            return closingQuote > 0 && isMappingColon(content, colon) ? colon : -1;
+        }
+        if (NON_PLAIN_STARTS.indexOf(first) >= 0) {
+            return -1;
+        }
+        for (int i = 0; i < content.length(); i++) {
+            if (isMappingColon(content, i)) {
+                return i;
+            }
+            if (content.startsWith(" #", i)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isMappingColon(final String content, final int index) {
+        return index < content.length() && content.charAt(index) == ':'
+                && (index + 1 == content.length() || content.charAt(index + 1) == ' ');
+    }
+
+    private static int closingQuoteOf(final String content, final char quote) {
+        for (int i = 1; i < content.length(); i++) {
+            final char c = content.charAt(i);
+            if (quote == '"' && c == '\\') {
+                i++;
+            } else if (c == quote) {
+                if (quote == '\'' && i + 1 < content.length() && content.charAt(i + 1) == '\'') {
+                    i++;
+                } else {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @AllArgsConstructor
+    private static final class Block {
+        private final int indent;
+        private final boolean sequence;
+        private final boolean tagged;
+    }
+
+    /**
+     * A literal (|) or folded (>) block scalar, with its lines collected until a line that is not indented deeper
+     * than its parent.
+     */
+    @AllArgsConstructor
+    private static final class BlockScalar {
+        private final int parentIndent;
+        private final String header;
+        private final String tag;
+        private final List<String> lines;
+
+        private String contents() {
+            int lastContentLine = lines.size() - 1;
+            while (lastContentLine >= 0 && indentOf(lines.get(lastContentLine)) == lines.get(lastContentLine).length()) {
+                lastContentLine--;
+            }
+            final int contentIndent = lastContentLine < 0 ? 0 : lines.stream()
+                    .filter(line -> indentOf(line) < line.length())
+                    .mapToInt(YamlEventParser::indentOf)
+                    .findFirst()
+                    .orElse(0);
+
+            final boolean folded = header.charAt(0) == '>';
+            final StringBuilder contents = new StringBuilder();
+            String previousLine = null;
+            for (int i = 0; i <= lastContentLine; i++) {
+                final String line = lines.get(i).length() <= contentIndent ? "" : lines.get(i).substring(contentIndent);
+                if (previousLine != null) {
+                    if (!folded || line.isEmpty()) {
+                        contents.append('\n');
+                    } else if (!previousLine.isEmpty()) {
+                        contents.append(' ');
+                    }
+                }
+                contents.append(line);
+                previousLine = line;
+            }
+
+            if (header.contains("+")) {
+                for (int i = lastContentLine; i < lines.size(); i++) {
+                    contents.append('\n');
+                }
+            } else if (!header.contains("-") && lastContentLine >= 0) {
+                contents.append('\n');
+            }
+            return contents.toString();
+        }
+    }
+
+    /**
+     * Parses a value written on a single line: a plain or quoted scalar, or a flow sequence or mapping, any of which can
+     * be tagged.
+     */
+    private final class FlowParser {
+
+        private final String text;
+        private int position;
+
+        private FlowParser(final String text) {
+            this.text = text;
+        }
+
+        private void parseValue(final boolean splitAttribute) throws IOException {
+            parseNode(false, splitAttribute);
+            skipSpaces();
+            if (position < text.length() && !text.startsWith("#", position)) {
+                throw error("Unexpected text " + text.substring(position));
+            }
+        }
+
+        private void parseNode(final boolean inFlow, final boolean splitAttribute) throws IOException {
+            skipSpaces();
+            final char c = position < text.length() ? text.charAt(position) : ' ';
+            if (c == '[') {
+                parseSequence();
+            } else if (c == '{') {
+                parseMapping();
+            } else if (c == '"' || c == '\'') {
+                handler.scalar(parseQuoted(), false);
+            } else if (c == '!') {
+                final int tagStart = ++position;
+                while (position < text.length() && " ,[]{}".indexOf(text.charAt(position)) < 0) {
+                    position++;
+                }
+                final String tag = parseTag(text.substring(tagStart, position));
+                beginFunction(tag);
+                parseNode(inFlow, GET_ATT.equals(tag));
+                handler.endFunction();
+            } else if (c == '&' || c == '*' && inFlow) {
+                throw error("Anchors and aliases are not supported");
+            } else {
+                final String plain = parsePlain(inFlow);
+                final int attributeSeparator = plain.indexOf('.');
+                if (splitAttribute && attributeSeparator > 0) {
+                    handler.beginSequence();
+                    handler.scalar(plain.substring(0, attributeSeparator), true);
+                    handler.scalar(plain.substring(attributeSeparator + 1), true);
+                    handler.endSequence();
+                } else {
+                    handler.scalar(plain, true);
+                }
+            }
+        }
+
+        private void parseSequence() throws IOException {
+            position++;
+            handler.beginSequence();
+            skipSpaces();
+            while (!consume(']')) {
+                parseNode(true, false);
+                skipSpaces();
+                if (!consume(',') && !text.startsWith("]", position)) {
+                    throw error("Expected , or ] in " + text);
+                }
+                skipSpaces();
+            }
+            handler.endSequence();
+        }
+
+        private void parseMapping() throws IOException {
+            position++;
+            handler.beginMapping();
+            skipSpaces();
+            while (!consume('}')) {
+                final String key;
+                if (text.startsWith("\"", position) || text.startsWith("'", position)) {
+                    key = parseQuoted();
+                } else {
+                    final int keyStart = position;
+                    while (position < text.length() && !isMappingIndicator(position)) {
+                        position++;
+                    }
+                    key = text.substring(keyStart, position).trim();
+                }
+                skipSpaces();
+                if (!consume(':')) {
+                    throw error("Expected : in " + text);
+                }
+                handler.key(key);
+                parseNode(true, false);
+                skipSpaces();
+                if (!consume(',') && !text.startsWith("}", position)) {
+                    throw error("Expected , or } in " + text);
+                }
+                skipSpaces();
+            }
+            handler.endMapping();
+        }
+
+        /**
+         * @return whether the character at the position is a ":" that separates a key from its value, which is
+         *         followed by a space, a flow indicator or the end of the text, so keys such as "Fn::If" are kept whole
+         */
+        private boolean isMappingIndicator(final int index) {
+            return text.charAt(index) == ':'
+                    && (index + 1 == text.length() || " ,[]{}".indexOf(text.charAt(index + 1)) >= 0);
+        }
+
+        private String parsePlain(final boolean inFlow) {
+            final int start = position;
+            while (position < text.length()
+                    && !(inFlow && ",]}".indexOf(text.charAt(position)) >= 0)
+                    && !text.startsWith(" #", position)) {
+                position++;
+            }
+            return text.substring(start, position).trim();
+        }
+
+        private String parseQuoted() {
+            final char quote = text.charAt(position++);
+            final StringBuilder value = new StringBuilder();
+            while (position < text.length()) {
+                final char c = text.charAt(position++);
+                if (c == quote) {
+                    if (quote == '\'' && consume('\'')) {
+                        value.append('\'');
+                    } else {
+                        return value.toString();
+                    }
+                } else if (c == '\\' && quote == '"' && position < text.length()) {
+                    value.append(parseEscape(text.charAt(position++)));
+                } else {
+                    value.append(c);
+                }
+            }
+            throw error("Unterminated quoted string " + text);
+        }
+
+        private char parseEscape(final char escaped) {
+            switch (escaped) {
+                case 'n':
+                    return '\n';
+                case 't':
+                    return '\t';
+                case 'r':
+                    return '\r';
+                case 'b':
+                    return '\b';
+                case 'f':
+                    return '\f';
+                case '0':
+                    return '\0';
+                case 'x':
+                    return parseHex(HEX_ESCAPE_LENGTH);
+                case 'u':
+                    return parseHex(UNICODE_ESCAPE_LENGTH);
+                default:
+                    return escaped;
+            }
+        }
+
+        private char parseHex(final int length) {
+            if (position + length > text.length()) {
+                throw error("Invalid escape sequence in " + text);
+            }
+            try {
+                final char c = (char) Integer.parseInt(text.substring(position, position + length), HEX_RADIX);
+                position += length;
+                return c;
+            } catch (NumberFormatException e) {
+                throw error("Invalid escape sequence in " + text);
+            }
+        }
+
+        private boolean consume(final char c) {
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipSpaces() {
+            while (position < text.length() && text.charAt(position) == ' ') {
+                position++;
+            }
+        }
+    }
+}
@@ -3,19 +3,29 @@ package org.blockwiseph.cftemplate.generator.sectionbuilder;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFNodes;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
-class AggregatingCFSectionBuilder implements CFSectionBuilder {
+@EqualsAndHashCode(callSuper = false)
+class AggregatingCFSectionBuilder extends StreamingCFSectionBuilder {
 
     private final List<? extends CFSectionBuilder> subSectionBuilders;
     private final String spaceBetweenSections;
 
     @Override
-    public String getSectionContents() {
-        return subSectionBuilders.stream()
-                .map(CFSectionBuilder::getSectionContents)
-                .collect(Collectors.joining(spaceBetweenSections));
+    void expand(final CFSectionRenderer renderer, final int depth) {
+        renderer.enterSection(this, null);
+        renderer.pushSections(subSectionBuilders, spaceBetweenSections, depth);
+    }
+
+    @Override
+    public CFNode toNode() {
+        return CFNodes.merge(subSectionBuilders.stream()
+                .map(CFSectionBuilder::toNode)
+                .collect(Collectors.toList()));
     }
 }
@@ -0,0 +1,135 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+/**
+ * A bounded cache of rendered fragments, shared by all the templates rendered with the same options, e.g. the stacks
+ * of a batch generator, so that each distinct fragment is rendered once and reused wherever an equal one is rendered.
+ *
+ * The fragments are the delegate section builders with value equality, such as the value classes of
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources
+ * and are keyed by their class, their value and the depth they are rendered at, so cached contents are written as they
+ * are, without indenting them again. Only the delegate section builders whose class declares equals itself are
+ * cached: those that do not override equals would only ever be equal to themselves, which memoization already covers,
+ * and those that inherit it, e.g. a subclass of a value class adding fields or overriding delegate, would be equal to
+ * fragments that render differently.
+ *
+ * The cache holds at most maximumChars characters of rendered contents, and evicts the least recently used fragments
+ * beyond that. It is thread safe. A fragment rendered concurrently by two threads that both missed it is rendered
+ * twice, and cached once. The cached fragments must be immutable, like memoized section builders. Looking up a fragment
+ * computes the hash code of its value, which is recursive, so fragments must not contain themselves.
+ * The statistics of the cache can be exposed through JMX by registering it with registerMBean.
+ */
+public final class CFFragmentCache implements CFFragmentCacheMXBean {
+
+    private static final ClassValue<Boolean> HAS_VALUE_EQUALITY = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            try {
+                return type.getMethod("equals", Object.class).getDeclaringClass() == type;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private final Cache<FragmentKey, String> fragments;
+
+    /**
+     * @param maximumChars the maximum number of characters of the rendered contents of the cached fragments
+     */
+    public CFFragmentCache(final long maximumChars) {
+        this.fragments = CacheBuilder.newBuilder()
+                .maximumWeight(maximumChars)
+                .weigher((FragmentKey key, String contents) -> contents.length())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Registers the statistics of the cache with the platform MBean server.
+     *
+     * @param name the value of the name key of the object name, e.g. the name of the application
+     * @return the object name the cache is registered with
+     * @throws IllegalStateException if the cache cannot be registered, e.g. because the name is already taken
+     */
+    public ObjectName registerMBean(final String name) {
+        try {
+            final ObjectName objectName = new ObjectName(String.format("%s:type=%s,name=%s",
+                    CFFragmentCache.class.getPackage().getName(), CFFragmentCache.class.getSimpleName(),
+                    ObjectName.quote(name)));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register fragment cache " + name, e);
+        }
+    }
+
+    /**
+     * Removes all the fragments from the cache, keeping its statistics.
+     */
+    public void clear() {
+        fragments.invalidateAll();
+    }
+
+    @Override
+    public long getHits() {
+        return fragments.stats().hitCount();
+    }
+
+    @Override
+    public long getMisses() {
+        return fragments.stats().missCount();
+    }
+
+    @Override
+    public long getEvictions() {
+        return fragments.stats().evictionCount();
+    }
+
+    @Override
+    public double getHitRate() {
+        return fragments.stats().hitRate();
+    }
+
+    @Override
+    public long getSize() {
+        return fragments.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CFFragmentCache(hits=%d, misses=%d, evictions=%d, size=%d)",
+                getHits(), getMisses(), getEvictions(), getSize());
+    }
+
+    static boolean isCacheable(final CFSectionBuilder sectionBuilder) {
+        return HAS_VALUE_EQUALITY.get(sectionBuilder.getClass());
+    }
+
+    /**
+     * @return the contents of an equal fragment rendered at the same depth, or null if there is none in the cache
+     */
+    String get(final CFSectionBuilder sectionBuilder, final int depth) {
+        return fragments.getIfPresent(new FragmentKey(sectionBuilder.getClass(), sectionBuilder, depth));
+    }
+
+    void put(final CFSectionBuilder sectionBuilder, final int depth, final String contents) {
+        fragments.put(new FragmentKey(sectionBuilder.getClass(), sectionBuilder, depth), contents);
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static final class FragmentKey {
+        private final Class<?> type;
+        private final CFSectionBuilder sectionBuilder;
+        private final int depth;
+    }
+}
@@ -0,0 +1,25 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+/**
+ * The statistics of
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFFragmentCache
+ * exposed through JMX. All counters are totals since the cache was created.
+ */
+public interface CFFragmentCacheMXBean {
+
+    long getHits();
+
+    long getMisses();
+
+    long getEvictions();
+
+    /**
+     * @return the ratio of lookups that were hits, or 1 if there were no lookups yet
+     */
+    double getHitRate();
+
+    /**
+     * @return the number of fragments in the cache
+     */
+    long getSize();
+}
@@ -0,0 +1,155 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromPlainString;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.listOf;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * Contains factory methods to create section builders for the intrinsic functions of cloud formation templates.
+ *
+ * The functions are rendered where they are placed in the template, at the depth of their position, so they can be
+ * nested in each other, passed to
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory#singleLine(String, Object)
+ * or placed in any other section, without rendering them to strings and indenting them again. Their nodes are built
+ * from their structure, so the functions of a template can be inspected without parsing it.
+ *
+ * The arguments of the functions are section builders, such as other functions, or plain strings created with
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory#fromPlainString(String)
+ * Delimiters and Fn::Sub strings are quoted by the functions.
+ *
+ * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/intrinsic-function-reference.html">AWS CloudFormation Intrinsic Functions Documentation</a>
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CFIntrinsicFunctions {
+
+    /**
+     * @param logicalId the logical id of the resource or parameter to reference
+     * @return a !Ref of the logical id
+     */
+    public static CFSectionBuilder ref(final String logicalId) {
+        return fromPlainString("!Ref " + logicalId);
+    }
+
+    /**
+     * @param delimiter the delimiter to join the values with
+     * @param values    the values to join
+     * @return an Fn::Join of the values
+     */
+    public static CFSectionBuilder join(final String delimiter, final CFSectionBuilder... values) {
+        return join(delimiter, ImmutableList.copyOf(values));
+    }
+
+    /**
+     * @param delimiter the delimiter to join the values with
+     * @param values    the values to join
+     * @return an Fn::Join of the values
+     */
+    public static CFSectionBuilder join(final String delimiter, final List<? extends CFSectionBuilder> values) {
+        return function("Fn::Join", fromPlainString(quoted(delimiter)), listOf(values));
+    }
+
+    /**
+     * @param conditionId  the logical id of the condition
+     * @param valueIfTrue  the value if the condition is true
+     * @param valueIfFalse the value if the condition is false
+     * @return an Fn::If of the condition
+     */
+    public static CFSectionBuilder ifCondition(final String conditionId, final CFSectionBuilder valueIfTrue,
+                                               final CFSectionBuilder valueIfFalse) {
+        return function("Fn::If", fromPlainString(conditionId), valueIfTrue, valueIfFalse);
+    }
+
+    /**
+     * @param resourceId the logical id of the resource
+     * @param attribute  the attribute of the resource
+     * @return a !GetAtt of the attribute, in its short form, e.g. !GetAtt Pool.ProviderName
+     */
+    public static CFSectionBuilder getAtt(final String resourceId, final String attribute) {
+        return fromPlainString("!GetAtt " + resourceId + "." + attribute);
+    }
+
+    /**
+     * @param resourceId the logical id of the resource
+     * @return an Fn::GetAtt of the Arn of the resource, in its long form, e.g. Fn::GetAtt: [Role, Arn]
+     */
+    public static CFSectionBuilder getAttArn(final String resourceId) {
+        return singleLine("Fn::GetAtt", "[" + resourceId + ", Arn]");
+    }
+
+    /**
+     * @param string the string to substitute the variables in, such as ${AWS::Region} or ${Bucket.Arn}
+     * @return an Fn::Sub of the string, with the pseudo parameters and logical ids of the template as variables
+     */
+    public static CFSectionBuilder sub(final String string) {
+        return singleLine("Fn::Sub", quoted(string));
+    }
+
+    /**
+     * @param string    the string to substitute the variables in
+     * @param variables the values of the variables of the string, by name. They are ordered by name, so that the same
+     *                  variables always render the same, regardless of the iteration order of the map.
+     * @return an Fn::Sub of the string, with the passed in variables
+     */
+    public static CFSectionBuilder sub(final String string, final Map<String, ? extends CFSectionBuilder> variables) {
+        return function("Fn::Sub", fromPlainString(quoted(string)), CFSectionBuilderFactory.aggregating(
+                variables.entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .map(variable -> titleWithAggregateBuilders(variable.getKey(), variable.getValue()))
+                        .collect(Collectors.toList())));
+    }
+
+    /**
+     * @param index the index of the value to select
+     * @param list  the list to select the value from, such as an Fn::Split or a parameter of a list type
+     * @return an Fn::Select of the value
+     */
+    public static CFSectionBuilder select(final int index, final CFSectionBuilder list) {
+        return function("Fn::Select", fromPlainString(String.valueOf(index)), list);
+    }
+
+    /**
+     * @param delimiter the delimiter to split the string at
+     * @param string    the string to split
+     * @return an Fn::Split of the string
+     */
+    public static CFSectionBuilder split(final String delimiter, final CFSectionBuilder string) {
+        return function("Fn::Split", fromPlainString(quoted(delimiter)), string);
+    }
+
+    /**
+     * @param value      the first value to compare
+     * @param otherValue the second value to compare
+     * @return an Fn::Equals of the values, for use in conditions
+     */
+    public static CFSectionBuilder equalTo(final CFSectionBuilder value, final CFSectionBuilder otherValue) {
+        return function("Fn::Equals", value, otherValue);
+    }
+
+    /**
+     * @param mapName        the logical id of the mapping
+     * @param topLevelKey    the top level key of the mapping
+     * @param secondLevelKey the second level key of the mapping
+     * @return an Fn::FindInMap of the value
+     */
+    public static CFSectionBuilder findInMap(final String mapName, final CFSectionBuilder topLevelKey,
+                                             final CFSectionBuilder secondLevelKey) {
+        return function("Fn::FindInMap", fromPlainString(mapName), topLevelKey, secondLevelKey);
+    }
+
+    private static CFSectionBuilder function(final String functionName, final CFSectionBuilder... arguments) {
+        return new IntrinsicFunctionCFSectionBuilder(functionName, ImmutableList.copyOf(arguments));
+    }
+
+    private static String quoted(final String string) {
+        return "\"" + string.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,43 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+/**
+ * Listens to the rendering of section builders, e.g. to find the resources that make generating a template slow, or
+ * the template large. A listener is set in
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderOptions
+ *
+ * The listener is called after rendering the section builder passed to the renderer, each delegate section builder,
+ * which include all resources, and each section builder that renders itself. The small sections created by the
+ * CFSectionBuilderFactory, such as single lines, are not measured on their own. Without a listener, nothing is measured.
+ * A section written from cached contents is reported once, as cached, without the sections in it, as described in
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionRenderEvent
+ *
+ * The listener is called on the thread that rendered the section, which is an executor thread when rendering in
+ * parallel, so it must be thread safe.
+ */
+public interface CFRenderListener {
+
+    /**
+     * Called after a section builder is rendered.
+     *
+     * @param event the measurements of rendering the section builder
+     */
+    void sectionRendered(CFSectionRenderEvent event);
+
+    /**
+     * Called by the template supplier before rendering a template, to get the listener for the sections of that
+     * template. The default listens to all templates itself.
+     *
+     * @param cfTemplateFilePath the path of the template file
+     * @return the listener for the sections of the template
+     */
+    default CFRenderListener forTemplate(final String cfTemplateFilePath) {
+        return this;
+    }
+
+    /**
+     * Called by the template supplier on the listener returned by forTemplate, after all the sections of the template
+     * are rendered.
+     */
+    default void templateRendered() {
+    }
+}
@@ -0,0 +1,80 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Value class with the options used by the CFSectionRenderer to render section builders.
+ *
+ * When an executor is provided, aggregated sections with at least parallelThreshold delegate sub sections (e.g. the
+ * resources of a large template) have their sub sections rendered concurrently on that executor. The sub sections are
+ * split in a few contiguous chunks per executor thread, and the rendered chunks are written in their declaration order,
+ * so the output is identical to the sequential rendering. Only the outermost such section is split, and each chunk is
+ * rendered sequentially on a single executor thread. The calling thread renders the chunks no executor thread has
+ * started yet itself, rather than waiting for them, so rendering can run on the executor it forks to, even one with a
+ * single thread, without deadlocking.
+ * Without an executor, everything is rendered on the calling thread.
+ *
+ * When a render listener is provided, the rendering of the sections is measured and reported to it, as described in
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderListener
+ *
+ * When a fragment cache is provided, delegate section builders with value equality are rendered once per depth and
+ * reused wherever an equal one is rendered, also across templates rendered with the same cache, as described in
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFFragmentCache
+ *
+ * When memoizeDelegates is set, every delegate section builder is memoized while it is rendered with these options, as
+ * if it overrode isMemoized, so each generator can decide whether to memoize without affecting the others. Memoized
+ * delegates with value equality are still looked up in the fragment cache, if any, so that equal instances share
+ * their contents, as described in
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.DelegateCFSectionBuilder
+ */
+@Builder(toBuilder = true)
+@Getter(AccessLevel.PACKAGE)
+public class CFRenderOptions {
+
+    /**
+     * Options that render everything sequentially on the calling thread.
+     */
+    public static final CFRenderOptions SEQUENTIAL = CFRenderOptions.builder().build();
+
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+
+    private final Executor executor;
+
+    @Builder.Default
+    private final int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    private final CFRenderListener renderListener;
+
+    private final CFFragmentCache fragmentCache;
+
+    private final boolean memoizeDelegates;
+
+    boolean isParallel(final int numberOfDelegateSections) {
+        return executor != null && numberOfDelegateSections >= parallelThreshold;
+    }
+
+    /**
+     * Returns the options to render sub sections forked to the executor with, which render sequentially, report to
+     * the same listener, share the same fragment cache and memoize the same delegates.
+     */
+    CFRenderOptions sequentially() {
+        return renderListener == null && fragmentCache == null && !memoizeDelegates
+                ? SEQUENTIAL
+                : CFRenderOptions.builder()
+                        .renderListener(renderListener)
+                        .fragmentCache(fragmentCache)
+                        .memoizeDelegates(memoizeDelegates)
+                        .build();
+    }
+
+    int getParallelism() {
+        return executor instanceof ForkJoinPool
+                ? ((ForkJoinPool) executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+    }
+}
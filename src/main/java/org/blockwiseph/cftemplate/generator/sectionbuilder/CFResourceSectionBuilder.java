@@ -0,0 +1,36 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.blockwiseph.cftemplate.generator.AWSResourceType;
+
+/**
+ * A section builder that builds a single resource of the cloud formation template.
+ * Resources are identified by their logical id, which is unique within a template.
+ *
+ * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/resources-section-structure.html">AWS CloudFormation Resources Documentation</a>
+ */
+public interface CFResourceSectionBuilder extends CFSectionBuilder {
+
+    /**
+     * @return the logical id of the resource in the template
+     */
+    String getResourceId();
+
+    /**
+     * @return the AWS type of the resource
+     */
+    AWSResourceType getAWSResourceType();
+
+    /**
+     * Resources that reference another resource already depend on it, so this is only needed to order resources that
+     * do not reference each other.
+     *
+     * @return the logical ids of the resources that must be created before this resource, in its DependsOn attribute
+     * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-attribute-dependson.html">AWS CloudFormation DependsOn Attribute Documentation</a>
+     */
+    default List<String> getDependsOn() {
+        return Collections.emptyList();
+    }
+}
@@ -1,5 +1,12 @@
 package org.blockwiseph.cftemplate.generator.sectionbuilder;
 
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.appendYmlIndented;
+
+import java.io.IOException;
+
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFNodes;
+
 /**
  * Functional interface representing a builder that builds a certain portion of a cloud formation template.
  *
@@ -23,4 +30,36 @@ public interface CFSectionBuilder {
      * @return the contents of the section to write to the cloud formation template.
      */
     String getSectionContents();
+
+    /**
+     * Writes the contents of the built section to the passed in Appendable, indented to the passed in depth.
+     * The first line is written as is, since the caller has already positioned it. Every following line is
+     * prefixed with the indentation of the depth, so that the written output is the same as indenting
+     * the section contents depth times.
+     *
+     * The default implementation bridges from getSectionContents. The section builders created by the
+     * CFSectionBuilderFactory write their contents directly, without building intermediate strings.
+     *
+     * @param out   the Appendable to write the section contents to
+     * @param depth the indentation depth of the section
+     * @throws IOException if writing to the Appendable fails
+     */
+    default void render(final Appendable out, final int depth) throws IOException {
+        appendYmlIndented(out, getSectionContents(), depth);
+    }
+
+    /**
+     * Returns the built section as a node of the typed template model, which can be inspected, compared and serialized
+     * without parsing the rendered template.
+     *
+     * The default implementation parses the section contents. The section builders created by the
+     * CFSectionBuilderFactory build their nodes from their structure, and only parse the values passed to them as
+     * strings, such as the ones generated by the CFGeneratorUtils.
+     *
+     * @return the node of the built section
+     * @throws IllegalArgumentException if the section contents can not be parsed
+     */
+    default CFNode toNode() {
+        return CFNodes.parse(getSectionContents());
+    }
 }
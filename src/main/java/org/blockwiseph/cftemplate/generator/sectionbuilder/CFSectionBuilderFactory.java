@@ -158,30 +158,47 @@ public class CFSectionBuilderFactory {
      * @return a CFSectionBuilder that puts the passed string into a cloud formation template
      */
     public static CFSectionBuilder fromPlainString(final String string) {
-        return () -> string;
+        return new PlainStringCFSectionBuilder(string);
     }
 
     /**
      * Returns a CFSectionBuilder that creates a section with multiple key value pairs based on a map.
+     * The key value pairs are ordered by key, so that the same entries always create the same section, regardless of
+     * the iteration order of the map.
      *
      * @param map the map to use to create key value pairs in the cloud formation template
      * @return a CFSectionBuilder that creates a section with multiple key value pairs
      */
     public static List<CFSectionBuilder> fromKeyValueMap(final Map<String, String> map) {
-        return map.keySet().stream()
-                .map(key -> singleLine(key, map.get(key)))
+        return map.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> singleLine(entry.getKey(), entry.getValue()))
                 .collect(Collectors.toList());
     }
 
     /**
      * Returns a CFSectionBuilder that creates a single line with a key value pair.
+     * If the value is a CFSectionBuilder, such as one of the
+     * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFIntrinsicFunctions
+     * it is rendered indented under the key instead, like a section with a title.
      *
      * @param key   the key of the cloud formation Attribute
      * @param value the value of the cloud formation attribute
      * @return a CFSectionBuilder that creates a single line with a key value pair
      */
     public static CFSectionBuilder singleLine(final String key, final Object value) {
-        return () -> (key + ": " + value);
+        return new SingleLineCFSectionBuilder(key, value);
+    }
+
+    /**
+     * Returns a CFSectionBuilder that renders the passed in section builder only once, and reuses the rendered contents
+     * every time it is rendered again. This is useful for immutable fragments shared across many resources.
+     *
+     * @param sectionBuilder the immutable section builder to memoize
+     * @return a CFSectionBuilder that caches the rendered contents of the passed in section builder
+     */
+    public static CFSectionBuilder memoized(final CFSectionBuilder sectionBuilder) {
+        return new MemoizedCFSectionBuilder(sectionBuilder);
     }
 
     /**
@@ -215,4 +232,20 @@ public class CFSectionBuilderFactory {
                                                final String spaceBetweenSections) {
         return new AggregatingCFSectionBuilder(sectionBuilders, spaceBetweenSections);
     }
+
+    /**
+     * Returns the title of a section builder created by this factory with a title or key, such as the top level sections
+     * of the template, which describes the section in diagnostics.
+     *
+     * @param sectionBuilder the section builder to get the title of
+     * @return the title or key of the section, or null if the section builder was not created with one
+     */
+    public static String titleOf(final CFSectionBuilder sectionBuilder) {
+        if (sectionBuilder instanceof CFSectionBuilderWithTitle) {
+            return ((CFSectionBuilderWithTitle) sectionBuilder).getTitle();
+        } else if (sectionBuilder instanceof SingleLineCFSectionBuilder) {
+            return ((SingleLineCFSectionBuilder) sectionBuilder).getKey();
+        }
+        return null;
+    }
 }
@@ -1,19 +1,31 @@
 package org.blockwiseph.cftemplate.generator.sectionbuilder;
 
-import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.ymlIndent;
+import java.io.IOException;
 
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFNodes;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
-class CFSectionBuilderWithTitle implements CFSectionBuilder {
+@EqualsAndHashCode(callSuper = false)
+class CFSectionBuilderWithTitle extends StreamingCFSectionBuilder {
 
+    @Getter(AccessLevel.PACKAGE)
     private final String title;
     private final CFSectionBuilder cfSectionBuilder;
 
     @Override
-    public final String getSectionContents() {
-        return title + ":\n" +
-                ymlIndent(cfSectionBuilder.getSectionContents());
+    void expand(final CFSectionRenderer renderer, final int depth) throws IOException {
+        renderer.enterSection(this, title);
+        renderer.append(title).append(":\n").appendIndentation(depth + 1);
+        renderer.pushSection(cfSectionBuilder, depth + 1);
     }
-}
\ No newline at end of file
+
+    @Override
+    public CFNode toNode() {
+        return CFNodes.mapping(title, cfSectionBuilder.toNode());
+    }
+}
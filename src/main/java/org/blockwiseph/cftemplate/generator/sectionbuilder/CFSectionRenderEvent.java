@@ -0,0 +1,53 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import org.blockwiseph.cftemplate.generator.AWSResourceType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The measurements of rendering a single section builder, passed to
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderListener
+ *
+ * The measurements include the sub sections of the section. The bytes are the UTF-8 bytes of the rendered contents.
+ * The sub sections of a memoized section rendered for the first time are rendered at a depth relative to it, so their
+ * depth and bytes do not include its indentation.
+ *
+ * A section written from cached contents, either memoized or from the fragment cache, is reported as a single cached
+ * event, since its sub sections are not rendered again. The events of its sub sections are only reported the first time
+ * it is rendered, so the events reported with a warm cache are a subset of the events reported with a cold one.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+@ToString
+public final class CFSectionRenderEvent {
+
+    private final CFSectionBuilder sectionBuilder;
+
+    /**
+     * The logical id of the resource, or null if the section builder is not a resource section builder.
+     */
+    private final String resourceId;
+
+    /**
+     * The type of the resource, or null if the section builder is not a resource section builder.
+     */
+    private final AWSResourceType resourceType;
+
+    private final int depth;
+    private final long nanos;
+    private final long bytes;
+
+    /**
+     * The bytes allocated by the thread that rendered the section, or -1 if the JVM does not measure it. Sub sections
+     * rendered in parallel on other threads are not included.
+     */
+    private final long allocatedBytes;
+
+    /**
+     * Whether the contents of the section were written from a cache, without rendering its sub sections, which are
+     * then not reported.
+     */
+    private final boolean cached;
+}
@@ -0,0 +1,551 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.appendYmlIndentation;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.appendYmlIndented;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.blockwiseph.cftemplate.generator.util.ByteCountingAppendable;
+import org.blockwiseph.cftemplate.generator.util.FingerprintingAppendable;
+import org.blockwiseph.cftemplate.generator.util.ThreadAllocatedBytes;
+import com.google.common.collect.Lists;
+import lombok.AllArgsConstructor;
+
+/**
+ * Renders a graph of section builders iteratively, using an explicit stack instead of recursion.
+ * The native stack usage stays constant regardless of how deeply the sections are nested, so deep templates can be
+ * rendered safely on threads with a small stack.
+ *
+ * Sections that are reached again while they are still being rendered form a cycle, which would never finish
+ * rendering. Such a cycle fails with an IllegalStateException naming the titles (e.g. the resource ids) on the path
+ * to the offending section.
+ *
+ * Section builders that are neither created by the CFSectionBuilderFactory nor delegate section builders are rendered
+ * with their own render method, as are delegate section builders that override getSectionContents or render. Large
+ * aggregated sections can be rendered concurrently, as configured by
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderOptions
+ *
+ * The renderer can also fingerprint each resource it renders, so that unchanged resources can be recognized in a
+ * later run, with
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionRenderer#renderWithResourceFingerprints
+ *
+ * If the options have a render listener, the renderer measures the sections it reports to the listener. Only then is
+ * the output wrapped to count the rendered bytes.
+ */
+public final class CFSectionRenderer {
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final CFRenderOptions options;
+    private final CFRenderListener listener;
+    private final CFFragmentCache fragmentCache;
+    private final Map<String, String> resourceFingerprints;
+    private final Deque<RenderStep> pendingSteps = new ArrayDeque<>();
+    private final Set<CFSectionBuilder> sectionsInProgress = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Deque<String> titlesInProgress = new ArrayDeque<>();
+    private final Deque<Appendable> capturedOuts = new ArrayDeque<>();
+
+    private Appendable out;
+    private long renderedBytes;
+
+    private CFSectionRenderer(final Appendable out, final CFRenderOptions options,
+                              final Map<String, String> resourceFingerprints) {
+        this.options = options;
+        this.listener = options.getRenderListener();
+        this.fragmentCache = options.getFragmentCache();
+        this.out = listener == null ? out : countingBytes(out);
+        this.resourceFingerprints = resourceFingerprints;
+    }
+
+    /**
+     * Creates a renderer for a sub section forked from the parent renderer, keeping track of the sections the parent
+     * is rendering, so that cycles through the forked sub section are still detected.
+     * Forked renderers render sequentially, so that the executor threads never block waiting on each other.
+     */
+    private CFSectionRenderer(final Appendable out, final CFSectionRenderer parent) {
+        this(out, parent.options.sequentially(), parent.resourceFingerprints == null ? null : new LinkedHashMap<>());
+        sectionsInProgress.addAll(parent.sectionsInProgress);
+        parent.titlesInProgress.descendingIterator().forEachRemaining(titlesInProgress::push);
+    }
+
+    /**
+     * Renders the section builder to the passed in Appendable, with the same contract as
+     * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder#render(Appendable, int)
+     *
+     * @param sectionBuilder the section builder to render
+     * @param out            the Appendable to write the section contents to
+     * @param depth          the indentation depth of the section
+     * @throws IOException if writing to the Appendable fails
+     * @throws IllegalStateException if the section builder graph contains a cycle
+     */
+    public static void render(final CFSectionBuilder sectionBuilder, final Appendable out, final int depth)
+            throws IOException {
+        render(sectionBuilder, out, depth, CFRenderOptions.SEQUENTIAL);
+    }
+
+    /**
+     * Renders the section builder to the passed in Appendable using the passed in options, with the same contract as
+     * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder#render(Appendable, int)
+     *
+     * @param sectionBuilder the section builder to render
+     * @param out            the Appendable to write the section contents to
+     * @param depth          the indentation depth of the section
+     * @param options        the options to render with
+     * @throws IOException if writing to the Appendable fails
+     * @throws IllegalStateException if the section builder graph contains a cycle
+     */
+    public static void render(final CFSectionBuilder sectionBuilder, final Appendable out, final int depth,
+                              final CFRenderOptions options) throws IOException {
+        new CFSectionRenderer(out, options, null).renderIteratively(sectionBuilder, depth);
+    }
+
+    /**
+     * Renders the section builder like
+     * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionRenderer#render(CFSectionBuilder, Appendable,
+     * int, CFRenderOptions)
+     * and also returns a fingerprint of the rendered contents of each resource in it. The fingerprint of a resource
+     * only changes when its rendered contents change.
+     *
+     * @param sectionBuilder the section builder to render
+     * @param out            the Appendable to write the section contents to
+     * @param depth          the indentation depth of the section
+     * @param options        the options to render with
+     * @return the fingerprint of each resource, keyed by resource id, in the order the resources were rendered
+     * @throws IOException if writing to the Appendable fails
+     * @throws IllegalStateException if the section builder graph contains a cycle
+     */
+    public static Map<String, String> renderWithResourceFingerprints(final CFSectionBuilder sectionBuilder,
+                                                                     final Appendable out, final int depth,
+                                                                     final CFRenderOptions options)
+            throws IOException {
+        final Map<String, String> resourceFingerprints = new LinkedHashMap<>();
+        new CFSectionRenderer(out, options, resourceFingerprints).renderIteratively(sectionBuilder, depth);
+        return resourceFingerprints;
+    }
+
+    /**
+     * Renders the section builder at depth 0 and returns the rendered contents.
+     *
+     * @param sectionBuilder the section builder to render
+     * @return the contents of the section
+     * @throws IllegalStateException if the section builder graph contains a cycle
+     */
+    public static String renderToString(final CFSectionBuilder sectionBuilder) {
+        return renderToString(sectionBuilder, CFRenderOptions.SEQUENTIAL);
+    }
+
+    /**
+     * Renders the section builder at depth 0 using the passed in options, and returns the rendered contents.
+     *
+     * @param sectionBuilder the section builder to render
+     * @param options        the options to render with
+     * @return the contents of the section
+     * @throws IllegalStateException if the section builder graph contains a cycle
+     */
+    public static String renderToString(final CFSectionBuilder sectionBuilder, final CFRenderOptions options) {
+        final StringBuilder out = new StringBuilder();
+        try {
+            render(sectionBuilder, out, 0, options);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to render section contents", e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Renders the delegate of the section builder, even if the section builder overrides render, so that the inherited
+     * render method can be called by overrides.
+     */
+    static void renderDelegate(final DelegateCFSectionBuilder sectionBuilder, final Appendable out, final int depth)
+            throws IOException {
+        final CFSectionRenderer renderer = new CFSectionRenderer(out, CFRenderOptions.SEQUENTIAL, null);
+        renderer.renderDelegate(sectionBuilder, depth, null);
+        renderer.runPendingSteps();
+    }
+
+    /**
+     * Renders the delegate of the section builder at depth 0, even if the section builder overrides
+     * getSectionContents, and returns the rendered contents.
+     */
+    static String renderDelegateToString(final DelegateCFSectionBuilder sectionBuilder) {
+        final StringBuilder out = new StringBuilder();
+        try {
+            renderDelegate(sectionBuilder, out, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to render section contents", e);
+        }
+        return out.toString();
+    }
+
+    private void renderIteratively(final CFSectionBuilder sectionBuilder, final int depth) throws IOException {
+        if (listener != null && sectionBuilder instanceof StreamingCFSectionBuilder) {
+            pendingSteps.push(measure(sectionBuilder, depth));
+        }
+        pushSection(sectionBuilder, depth);
+        runPendingSteps();
+    }
+
+    private void runPendingSteps() throws IOException {
+        while (!pendingSteps.isEmpty()) {
+            pendingSteps.pop().run();
+        }
+    }
+
+    private void renderSection(final CFSectionBuilder sectionBuilder, final int depth) throws IOException {
+        if (sectionBuilder instanceof StreamingCFSectionBuilder) {
+            ((StreamingCFSectionBuilder) sectionBuilder).expand(this, depth);
+            return;
+        }
+
+        if (resourceFingerprints != null && sectionBuilder instanceof CFResourceSectionBuilder) {
+            fingerprintResource(((CFResourceSectionBuilder) sectionBuilder).getResourceId());
+        }
+        if (sectionBuilder instanceof DelegateCFSectionBuilder
+                && !((DelegateCFSectionBuilder) sectionBuilder).rendersItself()) {
+            final Measurement measurement = listener == null ? null : measure(sectionBuilder, depth);
+            if (measurement != null) {
+                pendingSteps.push(measurement);
+            }
+            renderDelegate((DelegateCFSectionBuilder) sectionBuilder, depth, measurement);
+        } else if (listener != null) {
+            final RenderStep reportMeasurements = measure(sectionBuilder, depth);
+            sectionBuilder.render(out, depth);
+            reportMeasurements.run();
+        } else {
+            sectionBuilder.render(out, depth);
+        }
+    }
+
+    /**
+     * Starts measuring the rendering of a section.
+     *
+     * @return the step that reports the measurements to the listener, to run once the section is rendered
+     */
+    private Measurement measure(final CFSectionBuilder sectionBuilder, final int depth) {
+        return new Measurement(sectionBuilder, depth);
+    }
+
+    /**
+     * Renders a delegate section builder. A memoized delegate that was rendered before is written from its cached
+     * contents. Otherwise, delegates with value equality are looked up in the fragment cache of the options, if any,
+     * whether they are memoized or not, as described in
+     * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFFragmentCache
+     * Other memoized delegates are rendered at depth 0 into a separate buffer, which is cached and then written
+     * indented.
+     *
+     * The measurement of the delegate, if it is measured, is marked as cached when its contents are written from a
+     * cache, since its sub sections are then not rendered, nor reported, again.
+     */
+    private void renderDelegate(final DelegateCFSectionBuilder sectionBuilder, final int depth,
+                                final Measurement measurement) throws IOException {
+        final boolean memoized = sectionBuilder.isMemoized() || options.isMemoizeDelegates();
+        final String memoizedContents = sectionBuilder.memoizedContents(memoized);
+        if (memoizedContents != null) {
+            markCached(measurement);
+            appendIndented(memoizedContents, depth);
+            return;
+        }
+
+        if (fragmentCache != null && CFFragmentCache.isCacheable(sectionBuilder)) {
+            renderCachedFragment(sectionBuilder, depth, measurement, memoized);
+            return;
+        }
+        if (!memoized) {
+            enterSection(sectionBuilder, null);
+            pushSection(sectionBuilder.resolveDelegate(false), depth);
+            return;
+        }
+
+        enterSection(sectionBuilder, null);
+        capturedOuts.push(out);
+        final StringBuilder capturedOut = new StringBuilder();
+        final long bytesBeforeCapture = renderedBytes;
+        out = listener == null ? capturedOut : countingBytes(capturedOut);
+        pendingSteps.push(() -> {
+            final String contents = capturedOut.toString();
+            out = capturedOuts.pop();
+            renderedBytes = bytesBeforeCapture;
+            sectionBuilder.memoizeContents(contents);
+            appendIndented(contents, depth);
+        });
+        pushSection(sectionBuilder.resolveDelegate(true), 0);
+    }
+
+    /**
+     * Writes the contents of an equal fragment rendered at the same depth from the fragment cache, or renders the
+     * fragment at its depth into a separate buffer, which is cached and then written as it is. The delegate of a
+     * memoized fragment is still only built once.
+     */
+    private void renderCachedFragment(final DelegateCFSectionBuilder sectionBuilder, final int depth,
+                                      final Measurement measurement, final boolean memoized) throws IOException {
+        final String cachedContents = fragmentCache.get(sectionBuilder, depth);
+        if (cachedContents != null) {
+            markCached(measurement);
+            append(cachedContents);
+            return;
+        }
+
+        enterSection(sectionBuilder, null);
+        capturedOuts.push(out);
+        final StringBuilder capturedOut = new StringBuilder();
+        final long bytesBeforeCapture = renderedBytes;
+        out = listener == null ? capturedOut : countingBytes(capturedOut);
+        pendingSteps.push(() -> {
+            final String contents = capturedOut.toString();
+            out = capturedOuts.pop();
+            renderedBytes = bytesBeforeCapture;
+            fragmentCache.put(sectionBuilder, depth, contents);
+            append(contents);
+        });
+        pushSection(sectionBuilder.resolveDelegate(memoized), depth);
+    }
+
+    private static void markCached(final Measurement measurement) {
+        if (measurement != null) {
+            measurement.cached = true;
+        }
+    }
+
+    /**
+     * Fingerprints everything written until all the steps pushed after this call have run.
+     */
+    private void fingerprintResource(final String resourceId) {
+        final Appendable resourceOut = out;
+        final FingerprintingAppendable fingerprintingOut = new FingerprintingAppendable(resourceOut);
+        out = fingerprintingOut;
+        pendingSteps.push(() -> {
+            out = resourceOut;
+            resourceFingerprints.put(resourceId, fingerprintingOut.fingerprint());
+        });
+    }
+
+    /**
+     * Marks the section as being rendered until all the steps pushed after this call have run.
+     * The title, if not null, is used to describe the path to a cycle.
+     */
+    void enterSection(final CFSectionBuilder sectionBuilder, final String title) {
+        if (!sectionsInProgress.add(sectionBuilder)) {
+            throw new IllegalStateException(String.format("Cycle detected under [%s]: section %s contains itself",
+                    String.join(" > ", (Iterable<String>) titlesInProgress::descendingIterator), sectionBuilder));
+        }
+        if (title != null) {
+            titlesInProgress.push(title);
+        }
+        pendingSteps.push(() -> {
+            sectionsInProgress.remove(sectionBuilder);
+            if (title != null) {
+                titlesInProgress.pop();
+            }
+        });
+    }
+
+    void pushSection(final CFSectionBuilder sectionBuilder, final int depth) {
+        pendingSteps.push(() -> renderSection(sectionBuilder, depth));
+    }
+
+    /**
+     * Pushes the section builders to be rendered in order, with the passed in separator between each of them.
+     */
+    void pushSections(final List<? extends CFSectionBuilder> sectionBuilders, final String separator,
+                      final int depth) {
+        if (options.isParallel(countDelegates(sectionBuilders))) {
+            pendingSteps.push(() -> renderInParallel(sectionBuilders, separator, depth));
+            return;
+        }
+
+        final ListIterator<? extends CFSectionBuilder> iterator = sectionBuilders.listIterator(sectionBuilders.size());
+        while (iterator.hasPrevious()) {
+            pushSection(iterator.previous(), depth);
+            if (iterator.hasPrevious()) {
+                pendingSteps.push(() -> appendYmlIndented(out, separator, depth));
+            }
+        }
+    }
+
+    /**
+     * Splits the section builders in contiguous chunks, and renders each chunk into its own buffer on the executor of
+     * the options. The buffers are written in order as they complete. A section rendered at a given depth does not
+     * depend on what precedes it, so the output is identical to rendering the sections one after the other.
+     *
+     * The calling thread renders the chunks no executor thread has started yet itself, the next one in order, or else
+     * the last ones while it waits, instead of blocking on them. Rendering thus completes even if the executor never
+     * runs the chunks, e.g. when the calling thread is the only thread of the executor, or all its threads are busy.
+     */
+    private void renderInParallel(final List<? extends CFSectionBuilder> sectionBuilders, final String separator,
+                                  final int depth) throws IOException {
+        final int chunks = Math.min(sectionBuilders.size(), options.getParallelism() * CHUNKS_PER_THREAD);
+        final int chunkSize = (sectionBuilders.size() + chunks - 1) / chunks;
+        final List<ForkedChunk> forkedChunks = Lists.partition(sectionBuilders, chunkSize).stream()
+                .map(chunk -> new ForkedChunk(chunk, separator, depth))
+                .collect(Collectors.toList());
+        for (final ForkedChunk forkedChunk : forkedChunks) {
+            try {
+                options.getExecutor().execute(forkedChunk);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+
+        int lastUnstartedChunk = forkedChunks.size() - 1;
+        for (int index = 0; index < forkedChunks.size(); index++) {
+            final ForkedChunk forkedChunk = forkedChunks.get(index);
+            forkedChunk.run();
+            while (!forkedChunk.rendered.isDone() && lastUnstartedChunk > index) {
+                forkedChunks.get(lastUnstartedChunk--).run();
+            }
+            if (index > 0) {
+                appendIndented(separator, depth);
+            }
+            final ForkedRendering forkedRendering = join(forkedChunk.rendered);
+            append(forkedRendering.contents);
+            if (resourceFingerprints != null) {
+                resourceFingerprints.putAll(forkedRendering.resourceFingerprints);
+            }
+        }
+    }
+
+    private ForkedRendering renderForked(final List<? extends CFSectionBuilder> sectionBuilders, final String separator,
+                                final int depth) {
+        final StringBuilder forkedOut = new StringBuilder();
+        final CFSectionRenderer forkedRenderer = new CFSectionRenderer(forkedOut, this);
+        forkedRenderer.pushSections(sectionBuilders, separator, depth);
+        try {
+            forkedRenderer.runPendingSteps();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to render section contents", e);
+        }
+        return new ForkedRendering(forkedOut.toString(), forkedRenderer.resourceFingerprints);
+    }
+
+    private static int countDelegates(final List<? extends CFSectionBuilder> sectionBuilders) {
+        return (int) sectionBuilders.stream()
+                .filter(DelegateCFSectionBuilder.class::isInstance)
+                .count();
+    }
+
+    private static <T> T join(final CompletableFuture<T> renderedSection) {
+        try {
+            return renderedSection.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Counts the bytes of everything written by the renderer to the passed in Appendable. The bytes captured to be
+     * memoized or cached are no longer counted once they are written out.
+     */
+    private Appendable countingBytes(final Appendable counted) {
+        return new ByteCountingAppendable(counted, bytes -> renderedBytes += bytes);
+    }
+
+    CFSectionRenderer append(final String str) throws IOException {
+        out.append(str);
+        return this;
+    }
+
+    CFSectionRenderer appendIndented(final String str, final int depth) throws IOException {
+        appendYmlIndented(out, str, depth);
+        return this;
+    }
+
+    CFSectionRenderer appendIndentation(final int depth) throws IOException {
+        appendYmlIndentation(out, depth);
+        return this;
+    }
+
+    /**
+     * The measurements of rendering a section, started when it is created, and reported to the listener when it runs.
+     */
+    private final class Measurement implements RenderStep {
+
+        private final CFSectionBuilder sectionBuilder;
+        private final int depth;
+        private final long startAllocatedBytes = ThreadAllocatedBytes.current();
+        private final long startBytes = renderedBytes;
+        private final long startNanos = System.nanoTime();
+        private boolean cached;
+
+        private Measurement(final CFSectionBuilder sectionBuilder, final int depth) {
+            this.sectionBuilder = sectionBuilder;
+            this.depth = depth;
+        }
+
+        @Override
+        public void run() {
+            final long nanos = System.nanoTime() - startNanos;
+            final long allocatedBytes = startAllocatedBytes < 0 ? -1 : ThreadAllocatedBytes.current() - startAllocatedBytes;
+            final CFResourceSectionBuilder resource = sectionBuilder instanceof CFResourceSectionBuilder
+                    ? (CFResourceSectionBuilder) sectionBuilder
+                    : null;
+            listener.sectionRendered(new CFSectionRenderEvent(sectionBuilder,
+                    resource == null ? null : resource.getResourceId(),
+                    resource == null ? null : resource.getAWSResourceType(),
+                    depth, nanos, renderedBytes - startBytes, allocatedBytes, cached));
+        }
+    }
+
+    /**
+     * A chunk of sections rendered by whichever thread starts it first, either an executor thread or the thread
+     * waiting for it.
+     */
+    private final class ForkedChunk implements Runnable {
+
+        private final List<? extends CFSectionBuilder> sectionBuilders;
+        private final String separator;
+        private final int depth;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final CompletableFuture<ForkedRendering> rendered = new CompletableFuture<>();
+
+        private ForkedChunk(final List<? extends CFSectionBuilder> sectionBuilders, final String separator,
+                            final int depth) {
+            this.sectionBuilders = sectionBuilders;
+            this.separator = separator;
+            this.depth = depth;
+        }
+
+        /**
+         * Renders the chunk, unless another thread started rendering it already.
+         */
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                rendered.complete(renderForked(sectionBuilders, separator, depth));
+            } catch (Throwable e) {
+                rendered.completeExceptionally(e);
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class ForkedRendering {
+        private final String contents;
+        private final Map<String, String> resourceFingerprints;
+    }
+
+    @FunctionalInterface
+    private interface RenderStep {
+        void run() throws IOException;
+    }
+}
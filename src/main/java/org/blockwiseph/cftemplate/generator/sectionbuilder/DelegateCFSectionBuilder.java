@@ -1,11 +1,134 @@
 package org.blockwiseph.cftemplate.generator.sectionbuilder;
 
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.appendYmlIndented;
+
+import java.io.IOException;
+
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFNodes;
+import lombok.AllArgsConstructor;
+
+/**
+ * Base class for section builders that delegate the building to another CFSectionBuilder.
+ *
+ * Delegates can be memoized, in which case delegate() is called only once per instance, and the rendered contents are
+ * cached and reused every time the section is rendered again, at any depth. Memoization is off by default, and can be
+ * turned on per subclass by overriding isMemoized, or for all the delegates rendered by a generator with the
+ * memoizeDelegates render option. Memoized section builders must be immutable, which is the case for all the value
+ * classes of this library.
+ * To memoize a single instance of any section builder, use
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory#memoized(CFSectionBuilder)
+ *
+ * Subclasses can still override getSectionContents or render, e.g. to decorate the contents of the delegate. The
+ * renderer then renders them with their render method, like any custom section builder, wherever they are in the
+ * template, without memoizing or caching them. The inherited render and toNode bridge from an overridden
+ * getSectionContents, like the defaults of CFSectionBuilder, while the inherited getSectionContents always renders the
+ * delegate, so overrides can call it.
+ */
 public abstract class DelegateCFSectionBuilder implements CFSectionBuilder {
 
+    private static final ClassValue<Overrides> OVERRIDES = new ClassValue<Overrides>() {
+        @Override
+        protected Overrides computeValue(final Class<?> type) {
+            try {
+                return new Overrides(
+                        type.getMethod("getSectionContents").getDeclaringClass() != DelegateCFSectionBuilder.class,
+                        type.getMethod("render", Appendable.class, int.class).getDeclaringClass()
+                                != DelegateCFSectionBuilder.class);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Unable to find the section builder methods of " + type, e);
+            }
+        }
+    };
+
+    private volatile CFSectionBuilder memoizedDelegate;
+    private volatile String memoizedContents;
+
+    @Override
+    public String getSectionContents() {
+        final String contents = memoizedContents(isMemoized());
+        return contents != null ? contents : CFSectionRenderer.renderDelegateToString(this);
+    }
+
+    @Override
+    public void render(final Appendable out, final int depth) throws IOException {
+        if (OVERRIDES.get(getClass()).sectionContents) {
+            appendYmlIndented(out, getSectionContents(), depth);
+        } else {
+            CFSectionRenderer.renderDelegate(this, out, depth);
+        }
+    }
+
     @Override
-    public final String getSectionContents() {
-        return delegate().getSectionContents();
+    public CFNode toNode() {
+        return OVERRIDES.get(getClass()).sectionContents
+                ? CFNodes.parse(getSectionContents())
+                : resolveDelegate(isMemoized()).toNode();
     }
 
     protected abstract CFSectionBuilder delegate();
+
+    /**
+     * Returns whether this section builder is memoized.
+     *
+     * @return true if the delegate and the rendered contents of this section builder should always be cached, whatever
+     *         the render options
+     */
+    protected boolean isMemoized() {
+        return false;
+    }
+
+    /**
+     * Returns the delegate, built only once if this section builder is memoized.
+     *
+     * @param memoized whether this section builder is memoized, either by itself or by the render options
+     */
+    CFSectionBuilder resolveDelegate(final boolean memoized) {
+        if (!memoized) {
+            return delegate();
+        }
+        CFSectionBuilder result = memoizedDelegate;
+        if (result == null) {
+            synchronized (this) {
+                result = memoizedDelegate;
+                if (result == null) {
+                    result = delegate();
+                    memoizedDelegate = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached contents rendered at depth 0, or null if this section builder is not memoized
+     * or was not rendered yet.
+     *
+     * @param memoized whether this section builder is memoized, either by itself or by the render options
+     */
+    String memoizedContents(final boolean memoized) {
+        return memoized ? memoizedContents : null;
+    }
+
+    void memoizeContents(final String contents) {
+        memoizedContents = contents;
+    }
+
+    /**
+     * Returns whether this section builder overrides getSectionContents or render, so that the renderer must render it
+     * with its render method instead of rendering its delegate.
+     */
+    boolean rendersItself() {
+        final Overrides overrides = OVERRIDES.get(getClass());
+        return overrides.sectionContents || overrides.render;
+    }
+
+    /**
+     * The methods of DelegateCFSectionBuilder overridden by a subclass.
+     */
+    @AllArgsConstructor
+    private static final class Overrides {
+        private final boolean sectionContents;
+        private final boolean render;
+    }
 }
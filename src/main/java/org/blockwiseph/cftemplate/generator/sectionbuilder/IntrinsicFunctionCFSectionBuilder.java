@@ -0,0 +1,41 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFNodes;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+/**
+ * An intrinsic function in its long form, with its arguments as a list under the function name, e.g.
+ * <pre>
+ * Fn::If:
+ *   - IsProd
+ *   - a
+ *   - b
+ * </pre>
+ * The arguments are rendered at the depth the function is rendered at, so a function can be nested in another one,
+ * or in any other section, without rendering it to a string and indenting it first.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@EqualsAndHashCode(callSuper = false)
+class IntrinsicFunctionCFSectionBuilder extends StreamingCFSectionBuilder {
+
+    private final String functionName;
+    private final List<CFSectionBuilder> arguments;
+
+    @Override
+    void expand(final CFSectionRenderer renderer, final int depth) throws IOException {
+        renderer.enterSection(this, functionName);
+        renderer.append(functionName).append(":\n").appendIndentation(depth + 1);
+        renderer.pushSection(CFSectionBuilderFactory.listOf(arguments), depth + 1);
+    }
+
+    @Override
+    public CFNode toNode() {
+        return CFNodes.mapping(functionName, CFSectionBuilderFactory.listOf(arguments).toNode());
+    }
+}
@@ -1,18 +1,29 @@
 package org.blockwiseph.cftemplate.generator.sectionbuilder;
 
-import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.ymlIndent;
+import java.io.IOException;
 
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFNodes;
+import com.google.common.collect.ImmutableList;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
-class ListItemCFSectionBuilder implements CFSectionBuilder {
+@EqualsAndHashCode(callSuper = false)
+class ListItemCFSectionBuilder extends StreamingCFSectionBuilder {
 
     private final CFSectionBuilder cfSectionBuilder;
 
     @Override
-    public final String getSectionContents() {
-        return ymlIndent(cfSectionBuilder.getSectionContents())
-                .replaceFirst(" ", "-");
+    void expand(final CFSectionRenderer renderer, final int depth) throws IOException {
+        renderer.enterSection(this, null);
+        renderer.append("- ");
+        renderer.pushSection(cfSectionBuilder, depth + 1);
     }
-}
\ No newline at end of file
+
+    @Override
+    public CFNode toNode() {
+        return CFNodes.sequence(ImmutableList.of(cfSectionBuilder.toNode()));
+    }
+}
@@ -0,0 +1,22 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@EqualsAndHashCode(callSuper = false)
+class MemoizedCFSectionBuilder extends DelegateCFSectionBuilder {
+
+    private final CFSectionBuilder cfSectionBuilder;
+
+    @Override
+    protected CFSectionBuilder delegate() {
+        return cfSectionBuilder;
+    }
+
+    @Override
+    protected boolean isMemoized() {
+        return true;
+    }
+}
@@ -0,0 +1,26 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import java.io.IOException;
+
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFNodes;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@EqualsAndHashCode(callSuper = false)
+class PlainStringCFSectionBuilder extends StreamingCFSectionBuilder {
+
+    private final String string;
+
+    @Override
+    void expand(final CFSectionRenderer renderer, final int depth) throws IOException {
+        renderer.appendIndented(String.valueOf(string), depth);
+    }
+
+    @Override
+    public CFNode toNode() {
+        return CFNodes.parse(String.valueOf(string));
+    }
+}
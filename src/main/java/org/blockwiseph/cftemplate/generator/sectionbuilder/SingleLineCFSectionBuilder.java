@@ -0,0 +1,42 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import java.io.IOException;
+
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFNodes;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@EqualsAndHashCode(callSuper = false)
+class SingleLineCFSectionBuilder extends StreamingCFSectionBuilder {
+
+    @Getter(AccessLevel.PACKAGE)
+    private final String key;
+    private final Object value;
+
+    /**
+     * Writes the key and the value on a single line. A value that is a section builder, such as an intrinsic function,
+     * is rendered indented under the key instead.
+     */
+    @Override
+    void expand(final CFSectionRenderer renderer, final int depth) throws IOException {
+        if (value instanceof CFSectionBuilder) {
+            renderer.enterSection(this, key);
+            renderer.append(key).append(":\n").appendIndentation(depth + 1);
+            renderer.pushSection((CFSectionBuilder) value, depth + 1);
+            return;
+        }
+        renderer.append(key).append(": ").appendIndented(String.valueOf(value), depth);
+    }
+
+    @Override
+    public CFNode toNode() {
+        if (value instanceof CFSectionBuilder) {
+            return CFNodes.mapping(key, ((CFSectionBuilder) value).toNode());
+        }
+        return CFNodes.mapping(key, CFNodes.parseValue(String.valueOf(value)));
+    }
+}
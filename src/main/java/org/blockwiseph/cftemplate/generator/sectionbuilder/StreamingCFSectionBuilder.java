@@ -0,0 +1,29 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import java.io.IOException;
+
+/**
+ * Base class for the section builders created by the CFSectionBuilderFactory.
+ * These are rendered by the CFSectionRenderer, which calls expand for each of them instead of recursing into render.
+ */
+abstract class StreamingCFSectionBuilder implements CFSectionBuilder {
+
+    @Override
+    public final String getSectionContents() {
+        return CFSectionRenderer.renderToString(this);
+    }
+
+    @Override
+    public final void render(final Appendable out, final int depth) throws IOException {
+        CFSectionRenderer.render(this, out, depth);
+    }
+
+    /**
+     * Writes the contents of this section that are known right away, and pushes the sub sections to the renderer.
+     *
+     * @param renderer the renderer rendering this section
+     * @param depth    the indentation depth of this section
+     * @throws IOException if writing to the renderer fails
+     */
+    abstract void expand(CFSectionRenderer renderer, int depth) throws IOException;
+}
@@ -1,6 +1,7 @@
 package org.blockwiseph.cftemplate.generator.sectionbuilder.specific;
 
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.DelegateCFSectionBuilder;
 
@@ -13,6 +14,7 @@ import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuild
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/conditions-section-structure.html">AWS CloudFormation Conditions Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class ConditionCFSectionBuilder extends DelegateCFSectionBuilder {
 
     private final String conditionId;
@@ -6,6 +6,7 @@ import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuild
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.DelegateCFSectionBuilder;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 
 /**
  * Value class for a single parameter of the Parameters Section of Cloud formation template.
@@ -13,6 +14,7 @@ import lombok.Builder;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/parameters-section-structure.html">AWS CloudFormation Parameters Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class ParameterCFSectionBuilder extends DelegateCFSectionBuilder {
 
     private final String name;
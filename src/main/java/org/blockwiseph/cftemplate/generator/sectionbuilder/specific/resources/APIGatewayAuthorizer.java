@@ -6,12 +6,13 @@ import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuild
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
-import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
@@ -20,11 +21,16 @@ import lombok.Getter;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-apigateway-authorizer.html">AWS APIGateway Authorizer Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class APIGatewayAuthorizer extends ResourceSectionBuilder {
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final String restAPIId;
     private final String authorizerName;
     private final String identitySource;
@@ -32,7 +38,7 @@ public class APIGatewayAuthorizer extends ResourceSectionBuilder {
     private final List<String> providerArns;
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return AWSResourceType.API_GATEWAY_AUTHORIZER;
     }
 
@@ -0,0 +1,64 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources;
+
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.listOf;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.blockwiseph.cftemplate.generator.AWSResourceType;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.APIResponse;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Value class for the OPTIONS APIGateway method of an API entity, which answers CORS preflight requests with a mock
+ * integration, without authorization. The integration responses set the allowed headers, methods and origins, e.g.
+ * with the response parameters of
+ * @see org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils#apiResponseForAllowedMethods
+ *
+ * @see <a href="https://docs.aws.amazon.com/apigateway/latest/developerguide/how-to-cors.html">AWS APIGateway CORS Documentation</a>
+ */
+@Builder
+@EqualsAndHashCode(callSuper = false)
+public class APIGatewayCorsMethod extends ResourceSectionBuilder {
+
+    @Getter
+    private final String resourceId;
+
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
+    private final String restAPIId;
+    private final String apiResourceId;
+    private final List<APIResponse> integrationResponses;
+    private final List<APIResponse> methodResponses;
+
+    @Override
+    public AWSResourceType getAWSResourceType() {
+        return AWSResourceType.API_GATEWAY_METHOD;
+    }
+
+    @Override
+    CFSectionBuilder resourceProperties() {
+        return aggregating(
+                singleLine("ResourceId", apiResourceId),
+                singleLine("RestApiId", restAPIId),
+                singleLine("AuthorizationType", APIGatewayMethod.AuthorizationType.NONE),
+                singleLine("HttpMethod", "OPTIONS"),
+                titleWithAggregateBuilders("Integration",
+                        singleLine("Type", APIGatewayMethod.IntegrationType.MOCK),
+                        titleWithAggregateBuilders("RequestTemplates",
+                                singleLine("application/json", "\"{\\\"statusCode\\\": 200}\"")),
+                        singleLine("PassthroughBehavior", APIGatewayMethod.PassthroughBehavior.WHEN_NO_MATCH),
+                        titleWithAggregateBuilders("IntegrationResponses", listOf(integrationResponses))
+                ),
+                titleWithAggregateBuilders("MethodResponses", listOf(methodResponses))
+        );
+    }
+}
@@ -2,10 +2,13 @@ package org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources;
 
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
-import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
@@ -14,15 +17,20 @@ import lombok.Getter;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-apigateway-deployment.html">AWS APIGateway Deployment Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class APIGatewayDeployment extends ResourceSectionBuilder {
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final String restAPIId;
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return AWSResourceType.API_GATEWAY_DEPLOYEMENT;
     }
 
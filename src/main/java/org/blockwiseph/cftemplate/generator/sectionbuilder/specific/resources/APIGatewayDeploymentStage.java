@@ -3,10 +3,13 @@ package org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
-import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
@@ -17,17 +20,22 @@ import lombok.Getter;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-apigateway-stage.html">AWS APIGateway Deployment Stage Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class APIGatewayDeploymentStage extends ResourceSectionBuilder {
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final String restAPIId;
     private final String stageName;
     private final String deploymentId;
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return AWSResourceType.API_GATEWAY_STAGE;
     }
 
@@ -1,14 +1,16 @@
 package org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources;
 
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFIntrinsicFunctions.join;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFIntrinsicFunctions.ref;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromKeyValueMap;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromPlainString;
-import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromPlainStrings;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.listOf;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -16,9 +18,8 @@ import java.util.Optional;
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.APIResponse;
-import com.google.common.collect.ImmutableList;
-import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 import com.amazonaws.http.HttpMethodName;
@@ -30,11 +31,16 @@ import com.amazonaws.http.HttpMethodName;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-apigateway-method.html">AWS APIGateway Method Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class APIGatewayMethod extends ResourceSectionBuilder {
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final String operationName;
     private final String restAPIId;
     private final String apiResourceId;
@@ -50,7 +56,7 @@ public class APIGatewayMethod extends ResourceSectionBuilder {
     private final List<APIResponse> methodResponses;
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return AWSResourceType.API_GATEWAY_METHOD;
     }
 
@@ -80,19 +86,13 @@ public class APIGatewayMethod extends ResourceSectionBuilder {
                         add(singleLine("PassthroughBehavior", passthroughBehavior));
 
                         Optional.ofNullable(lambdaArn).ifPresent(arn ->
-                                add(titleWithAggregateBuilders("Uri",
-                                        titleWithAggregateBuilders("Fn::Join",
-                                                listOf(fromPlainString("\"\""),
-                                                        listOf(fromPlainStrings(ImmutableList.of(
-                                                                "\"arn:aws:apigateway:\"",
-                                                                "!Ref AWS::Region",
-                                                                "\":lambda:path/2015-03-31/functions/\"",
-                                                                lambdaArn,
-                                                                "/invocations"
-                                                        )))
-                                                )
-                                        )
-                                ))
+                                add(titleWithAggregateBuilders("Uri", join("",
+                                        fromPlainString("\"arn:aws:apigateway:\""),
+                                        ref("AWS::Region"),
+                                        fromPlainString("\":lambda:path/2015-03-31/functions/\""),
+                                        fromPlainString(lambdaArn),
+                                        fromPlainString("/invocations")
+                                )))
                         );
 
                         add(titleWithAggregateBuilders("IntegrationResponses", listOf(integrationResponses)));
@@ -4,6 +4,9 @@ import static org.blockwiseph.cftemplate.generator.AWSResourceType.API_GATEWAY_R
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
 import lombok.Builder;
@@ -16,18 +19,22 @@ import lombok.Getter;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-apigateway-resource.html">AWS APIGateway Resource Documentation</a>
  */
 @Builder
-@EqualsAndHashCode
+@EqualsAndHashCode(callSuper = false)
 public class APIGatewayResource extends ResourceSectionBuilder {
 
     @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final String parentId;
     private final String restApiId;
     private final String pathPart;
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return API_GATEWAY_RESOURCE;
     }
 
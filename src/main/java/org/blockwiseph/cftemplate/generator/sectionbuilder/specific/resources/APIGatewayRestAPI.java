@@ -3,10 +3,13 @@ package org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
-import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
@@ -15,16 +18,21 @@ import lombok.Getter;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-apigateway-restapi.html">AWS APIGateway RestAPI Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class APIGatewayRestAPI extends ResourceSectionBuilder {
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final String name;
     private final String description;
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return AWSResourceType.API_GATEWAY_REST_API;
     }
 
@@ -0,0 +1,54 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources;
+
+import static org.blockwiseph.cftemplate.generator.AWSResourceType.CLOUDFORMATION_STACK;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromKeyValueMap;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.blockwiseph.cftemplate.generator.AWSResourceType;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import com.google.common.collect.ImmutableList;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Value class for a nested stack of cloud formation template. Parameters are optional.
+ *
+ * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-properties-stack.html">AWS CloudFormation Stack Documentation</a>
+ */
+@Builder
+@EqualsAndHashCode(callSuper = false)
+public class CloudFormationStack extends ResourceSectionBuilder {
+
+    @Getter
+    private final String resourceId;
+
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
+    private final String templateURL;
+    private final Map<String, String> parameters;
+
+    @Override
+    public AWSResourceType getAWSResourceType() {
+        return CLOUDFORMATION_STACK;
+    }
+
+    @Override
+    CFSectionBuilder resourceProperties() {
+        final ImmutableList.Builder<CFSectionBuilder> properties = ImmutableList.builder();
+        properties.add(singleLine("TemplateURL", templateURL));
+
+        if (parameters != null && !parameters.isEmpty()) {
+            properties.add(titleWithAggregateBuilders("Parameters", fromKeyValueMap(parameters)));
+        }
+        return aggregating(properties.build());
+    }
+}
@@ -1,13 +1,14 @@
 package org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources;
 
-import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.DelegateCFSectionBuilder;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,11 +24,16 @@ import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuild
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-cloudfront-distribution.html">AWS CloudFrontDistribution Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class CloudFrontDistribution extends ResourceSectionBuilder {
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final List<Origin> origins;
     private final String aliases;
     private final List<ErrorResponse> errorResponses;
@@ -36,7 +42,7 @@ public class CloudFrontDistribution extends ResourceSectionBuilder {
     private final ViewerCertificate viewerCertificate;
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return CLOUDFRONT_DISTRIBUTION;
     }
 
@@ -72,6 +78,7 @@ public class CloudFrontDistribution extends ResourceSectionBuilder {
      * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-properties-cloudfront-distribution-origin.html">AWS CloudFrontDistribution Origin Documentation</a>
      */
     @Builder
+    @EqualsAndHashCode(callSuper = false)
     public static class Origin extends DelegateCFSectionBuilder {
         private final String id;
         private final String domainName;
@@ -94,6 +101,7 @@ public class CloudFrontDistribution extends ResourceSectionBuilder {
      * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-properties-cloudfront-distribution-viewercertificate.htm">AWS CloudFrontDistribution Viewer Certificate Documentation</a>
      */
     @Builder
+    @EqualsAndHashCode(callSuper = false)
     public static class ViewerCertificate extends DelegateCFSectionBuilder {
         private final String acmCertificateArn;
         private final String cloudFrontDefaultCertificate;
@@ -115,6 +123,7 @@ public class CloudFrontDistribution extends ResourceSectionBuilder {
      * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-properties-cloudfront-distribution-customerrorresponse.html">AWS CloudFrontDistribution CustomErrorResponse Documentation</a>
      */
     @Builder
+    @EqualsAndHashCode(callSuper = false)
     public static class ErrorResponse extends DelegateCFSectionBuilder {
         private final int errorCode;
         private final String responsePagePath;
@@ -5,13 +5,14 @@ import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuild
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.DelegateCFSectionBuilder;
-import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
@@ -20,17 +21,22 @@ import lombok.Getter;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-cognito-identitypool.html">AWS CognitoIdentityPool Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class CognitoIdentityPool extends ResourceSectionBuilder {
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final String identityPoolName;
     private final boolean allowUnauthenticatedIdentities;
     private final List<CognitoIdentityProvider> cognitoIdentityProviders;
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return AWSResourceType.IDENTITY_POOL;
     }
 
@@ -50,6 +56,7 @@ public class CognitoIdentityPool extends ResourceSectionBuilder {
      * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-properties-cognito-identitypool-cognitoidentityprovider.html">AWS CognitoIdentityProvider Documentation</a>
      */
     @Builder
+    @EqualsAndHashCode(callSuper = false)
     public static class CognitoIdentityProvider extends DelegateCFSectionBuilder {
 
         private final String clientId;
@@ -4,10 +4,13 @@ import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuild
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
-import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
@@ -17,17 +20,22 @@ import lombok.Getter;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-cognito-identitypoolroleattachment.html">AWS CognitoIdentityPoolRoleAttachment Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class CognitoIdentityPoolAttachment extends ResourceSectionBuilder {
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final String identityPoolId;
     private final String authenticatedRoleId;
     private final String unauthenticatedRoleId;
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return AWSResourceType.IDENTITY_POOL_ROLE_ATTACHMENT;
     }
 
@@ -6,13 +6,14 @@ import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuild
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.DelegateCFSectionBuilder;
-import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
@@ -21,13 +22,18 @@ import lombok.Getter;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-cognito-userpool.html">AWS CognitoUserPool Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class CognitoUserPool extends ResourceSectionBuilder {
 
     private static final int DEFAULT_VALIDITY_DAYS = 7;
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final String userPoolName;
     private final boolean onlyAdminAllowedToCreateUser;
     private final int unusedAccountValidityDays;
@@ -40,7 +46,7 @@ public class CognitoUserPool extends ResourceSectionBuilder {
     private final List<AttributeSchema> attributeSchemas;
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return AWSResourceType.USER_POOL;
     }
 
@@ -74,6 +80,7 @@ public class CognitoUserPool extends ResourceSectionBuilder {
      * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-properties-cognito-userpool-passwordpolicy.html">AWS CognitoUserPool PasswordPolicy Documentation</a>
      */
     @Builder
+    @EqualsAndHashCode(callSuper = false)
     public static class PasswordPolicy extends DelegateCFSectionBuilder {
         private final int minimumLength;
         private final boolean requireLowerCase;
@@ -97,6 +104,7 @@ public class CognitoUserPool extends ResourceSectionBuilder {
      * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-properties-cognito-userpool-schemaattribute.html">AWS CognitoUserPool Schema Attribute Documentation</a>
      */
     @Builder(toBuilder = true)
+    @EqualsAndHashCode(callSuper = false)
     public static class AttributeSchema extends DelegateCFSectionBuilder {
         private final String name;
         private final String attributeDataType;
@@ -9,6 +9,7 @@ import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuild
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -23,6 +24,7 @@ import com.google.common.collect.ImmutableList;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 import com.amazonaws.services.dynamodbv2.model.ProjectionType;
@@ -35,11 +37,16 @@ import com.amazonaws.services.dynamodbv2.model.StreamViewType;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-dynamodb-table.html">AWS DynamoDB Table Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class DynamoDBTable extends ResourceSectionBuilder {
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final String tableName;
     private final Key partitionKey;
     private final Provision provisionedThroughput;
@@ -47,7 +54,7 @@ public class DynamoDBTable extends ResourceSectionBuilder {
     private final StreamViewType streamViewType;
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return DYNAMO_DB_TABLE;
     }
 
@@ -91,6 +98,7 @@ public class DynamoDBTable extends ResourceSectionBuilder {
      */
     @Builder
     @Getter
+    @EqualsAndHashCode(callSuper = false)
     public static class GlobalSecondaryIndex extends DelegateCFSectionBuilder {
 
         private final String name;
@@ -119,6 +127,7 @@ public class DynamoDBTable extends ResourceSectionBuilder {
      */
     @Builder
     @Getter
+    @EqualsAndHashCode(callSuper = false)
     public static class Key extends DelegateCFSectionBuilder {
 
         private final Attribute hashKey;
@@ -149,6 +158,7 @@ public class DynamoDBTable extends ResourceSectionBuilder {
      */
     @Builder
     @Getter
+    @EqualsAndHashCode(callSuper = false)
     public static class Attribute extends DelegateCFSectionBuilder {
 
         private final String name;
@@ -169,6 +179,7 @@ public class DynamoDBTable extends ResourceSectionBuilder {
      * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-properties-dynamodb-provisionedthroughput.html">AWS DynamoDB ProvisionedThroughput Documentation</a>
      */
     @Builder
+    @EqualsAndHashCode(callSuper = false)
     public static class Provision extends DelegateCFSectionBuilder {
 
         private final int readCapacity;
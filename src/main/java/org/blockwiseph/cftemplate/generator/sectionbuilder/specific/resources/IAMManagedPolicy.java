@@ -0,0 +1,63 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources;
+
+import static org.blockwiseph.cftemplate.generator.AWSResourceType.IAM_MANAGED_POLICY;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromPlainStrings;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.listOf;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.blockwiseph.cftemplate.generator.AWSResourceType;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.IAMPolicyDocument;
+import com.google.common.collect.ImmutableList;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Value class for IAM managed policy of cloud formation template, which is attached to the roles it lists, e.g.
+ * referencing("Role"). ManagedPolicyName is optional.
+ *
+ * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-iam-managedpolicy.html">AWS IAM ManagedPolicy Documentation</a>
+ */
+@Builder
+@EqualsAndHashCode(callSuper = false)
+public class IAMManagedPolicy extends ResourceSectionBuilder {
+
+    @Getter
+    private final String resourceId;
+
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
+    private final String managedPolicyName;
+    private final IAMPolicyDocument policyDocument;
+
+    @Builder.Default
+    private final List<String> roles = Collections.emptyList();
+
+    @Override
+    public AWSResourceType getAWSResourceType() {
+        return IAM_MANAGED_POLICY;
+    }
+
+    @Override
+    CFSectionBuilder resourceProperties() {
+        final ImmutableList.Builder<CFSectionBuilder> properties = ImmutableList.builder();
+        Optional.ofNullable(managedPolicyName).ifPresent(name ->
+                properties.add(singleLine("ManagedPolicyName", managedPolicyName)));
+
+        properties.add(titleWithAggregateBuilders("PolicyDocument", policyDocument));
+
+        if (!roles.isEmpty()) {
+            properties.add(titleWithAggregateBuilders("Roles", listOf(fromPlainStrings(roles))));
+        }
+        return aggregating(properties.build());
+    }
+}
@@ -7,48 +7,74 @@ import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuild
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.DelegateCFSectionBuilder;
-import lombok.AccessLevel;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.IAMPolicyDocument;
+import com.google.common.collect.ImmutableList;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
  * Value class for IAM Role of cloud formation template.
+ * The allowed actions are allowed on all resources by the inline policy named "root". Other inline policies, e.g. the
+ * inline policy optimized by
+ * @see org.blockwiseph.cftemplate.generator.iam.CFPolicyOptimizer
+ * are named after the role, e.g. "RolePolicy1". Both are optional.
  *
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-iam-role.html">AWS IAM Role Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class IAMRole extends ResourceSectionBuilder {
 
     private static final String POLICY_DOCUMENT_VERSION = "\"2012-10-17\"";
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final PolicyStatement assumableServicesStatement;
     private final List<String> allowedActions;
 
+    @Builder.Default
+    private final List<IAMPolicyDocument> policies = Collections.emptyList();
+
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return IAM_ROLE;
     }
 
     @Override
     CFSectionBuilder resourceProperties() {
-        return aggregating(
-                iamPolicyDocument("AssumeRolePolicyDocument", assumableServicesStatement),
-                singleLine("Path", "/"),
-                titleWithAggregateBuilders("Policies",
-                        listOf(aggregating(
-                                singleLine("PolicyName", "root"),
-                                iamPolicyDocument("PolicyDocument", allowedActionsStatement())
-                        ))
-                )
-        );
+        final List<CFSectionBuilder> inlinePolicies = new ArrayList<>();
+        if (allowedActions != null) {
+            inlinePolicies.add(aggregating(
+                    singleLine("PolicyName", "root"),
+                    iamPolicyDocument("PolicyDocument", allowedActionsStatement())
+            ));
+        }
+        for (int i = 0; i < policies.size(); i++) {
+            inlinePolicies.add(aggregating(
+                    singleLine("PolicyName", resourceId + "Policy" + (i + 1)),
+                    titleWithAggregateBuilders("PolicyDocument", policies.get(i))
+            ));
+        }
+        final ImmutableList.Builder<CFSectionBuilder> properties = ImmutableList.builder();
+        properties.add(iamPolicyDocument("AssumeRolePolicyDocument", assumableServicesStatement));
+        properties.add(singleLine("Path", "/"));
+        if (!inlinePolicies.isEmpty()) {
+            properties.add(titleWithAggregateBuilders("Policies", listOf(inlinePolicies)));
+        }
+        return aggregating(properties.build());
     }
 
     private CFSectionBuilder iamPolicyDocument(final String policyDocumentName,
@@ -74,6 +100,7 @@ public class IAMRole extends ResourceSectionBuilder {
      * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-iam-role.html#cfn-iam-role-assumerolepolicydocument">AWS PolicyStatement Documentation</a>
      */
     @Builder
+    @EqualsAndHashCode(callSuper = false)
     public static class PolicyStatement extends DelegateCFSectionBuilder {
 
         private final String principal;
@@ -2,18 +2,20 @@ package org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources;
 
 import static org.blockwiseph.cftemplate.generator.AWSResourceType.LAMBDA_FUNCTION;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromKeyValueMap;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromPlainString;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
-import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
@@ -22,11 +24,16 @@ import lombok.Getter;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-resource-lambda-function.html">AWS Lambda Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class LambdaFunction extends ResourceSectionBuilder {
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final String s3Bucket;
     private final String s3Key;
     private final String handler;
@@ -38,7 +45,7 @@ public class LambdaFunction extends ResourceSectionBuilder {
     private final Map<String, String> environmentVariables;
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return LAMBDA_FUNCTION;
     }
 
@@ -58,10 +65,7 @@ public class LambdaFunction extends ResourceSectionBuilder {
 
             if (!isNullOrEmpty(environmentVariables)) {
                 add(titleWithAggregateBuilders("Environment",
-                        titleWithAggregateBuilders("Variables",
-                                environmentVariables.entrySet().stream()
-                                        .map(entry -> singleLine(entry.getKey(), entry.getValue()))
-                                        .collect(Collectors.toList()))
+                        titleWithAggregateBuilders("Variables", fromKeyValueMap(environmentVariables))
                 ));
             }
         }});
@@ -1,33 +1,39 @@
 package org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources;
 
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromPlainStrings;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.listOf;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
 
-import org.blockwiseph.cftemplate.generator.AWSResourceType;
+import java.util.List;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFResourceSectionBuilder;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.DelegateCFSectionBuilder;
+import com.google.common.collect.ImmutableList;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
 /**
  * Base class for building a cloud formation resource in the cloud formation template.
+ * The DependsOn attribute is only added to the resource if it depends on at least one other resource.
  *
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/resources-section-structure.html">AWS CloudFormation Resources Documentation</a>
  */
 @NoArgsConstructor(access = AccessLevel.PACKAGE)
-abstract class ResourceSectionBuilder extends DelegateCFSectionBuilder {
+abstract class ResourceSectionBuilder extends DelegateCFSectionBuilder implements CFResourceSectionBuilder {
 
     @Override
     public final CFSectionBuilder delegate() {
-        return titleWithAggregateBuilders(getResourceId(),
-                singleLine("Type", getAWSResourceType().toString()),
-                titleWithAggregateBuilders("Properties", resourceProperties())
-        );
+        final List<String> dependsOn = getDependsOn();
+        final ImmutableList.Builder<CFSectionBuilder> attributes = ImmutableList.builder();
+        attributes.add(singleLine("Type", getAWSResourceType().toString()));
+        if (dependsOn != null && !dependsOn.isEmpty()) {
+            attributes.add(titleWithAggregateBuilders("DependsOn", listOf(fromPlainStrings(dependsOn))));
+        }
+        attributes.add(titleWithAggregateBuilders("Properties", resourceProperties()));
+        return titleWithAggregateBuilders(getResourceId(), attributes.build());
     }
 
-    abstract String getResourceId();
-
-    abstract AWSResourceType getAWSResourceType();
-
     abstract CFSectionBuilder resourceProperties();
 }
@@ -9,6 +9,7 @@ import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuild
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -16,8 +17,8 @@ import java.util.stream.Collectors;
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.DelegateCFSectionBuilder;
-import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 import com.amazonaws.http.HttpMethodName;
@@ -28,18 +29,23 @@ import com.amazonaws.http.HttpMethodName;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-properties-s3-bucket.html">AWS S3 Bucket Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class S3Bucket extends ResourceSectionBuilder {
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    @Builder.Default
+    private final List<String> dependsOn = Collections.emptyList();
+
     private final String bucketName;
     private final String accessControl;
     private final String indexDocument;
     private final List<CorsRule> corsRules;
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return S3_BUCKET;
     }
 
@@ -69,6 +75,7 @@ public class S3Bucket extends ResourceSectionBuilder {
      * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-properties-s3-bucket-cors-corsrule.html">AWS S3 Bucket CorsRule Documentation</a>
      */
     @Builder
+    @EqualsAndHashCode(callSuper = false)
     public static class CorsRule extends DelegateCFSectionBuilder {
 
         private final String id;
@@ -3,12 +3,15 @@ package org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.apache.commons.lang3.StringUtils;
 import org.blockwiseph.cftemplate.generator.AWSResourceType;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
 import com.google.common.base.Preconditions;
-import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 
 /**
@@ -17,28 +20,38 @@ import lombok.Getter;
  * @see <a href="https://docs.aws.amazon.com/AWSCloudFormation/latest/UserGuide/aws-properties-sns-topic.html">AWS SNS Topic Documentation</a>
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class SNSTopic extends ResourceSectionBuilder {
 
     private static final int DISPLAY_NAME_MIN_SNS_LENGTH = 10;
 
-    @Getter(AccessLevel.PACKAGE)
+    @Getter
     private final String resourceId;
 
+    @Getter
+    private final List<String> dependsOn;
+
     private final String topicName;
     private final String displayName;
 
     public SNSTopic(final String resourceId, final String topicName, final String displayName) {
+        this(resourceId, Collections.emptyList(), topicName, displayName);
+    }
+
+    public SNSTopic(final String resourceId, final List<String> dependsOn, final String topicName,
+                    final String displayName) {
         Preconditions.checkArgument(StringUtils.length(displayName) <= DISPLAY_NAME_MIN_SNS_LENGTH,
                 "Display name length must be less than or equal to 10"
         );
 
         this.resourceId = resourceId;
+        this.dependsOn = dependsOn == null ? Collections.<String>emptyList() : dependsOn;
         this.topicName = topicName;
         this.displayName = displayName;
     }
 
     @Override
-    AWSResourceType getAWSResourceType() {
+    public AWSResourceType getAWSResourceType() {
         return AWSResourceType.SNS_TOPIC;
     }
 
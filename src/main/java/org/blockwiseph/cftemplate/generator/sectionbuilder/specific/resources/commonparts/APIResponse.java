@@ -12,6 +12,7 @@ import java.util.Optional;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.DelegateCFSectionBuilder;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
 
 /**
  * Value class representing an APIResponse Definition in a cloud formation template.
@@ -21,6 +22,7 @@ import lombok.Builder;
  * All fields except statusCode are optional.
  */
 @Builder
+@EqualsAndHashCode(callSuper = false)
 public class APIResponse extends DelegateCFSectionBuilder {
 
     private final int statusCode;
@@ -49,6 +51,7 @@ public class APIResponse extends DelegateCFSectionBuilder {
     }
 
     @Builder
+    @EqualsAndHashCode(callSuper = false)
     public static class APIResponseParameters extends DelegateCFSectionBuilder {
 
         private static final String ACCESS_CONTROL_HEADER_PREFIX = "method.response.header.Access-Control-Allow-";
@@ -0,0 +1,43 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts;
+
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.listOf;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
+
+import java.util.List;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.DelegateCFSectionBuilder;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Value class representing the contents of an IAM policy document, used for the inline policies of
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.IAMRole
+ * and the documents of
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.IAMManagedPolicy
+ *
+ * @see <a href="https://docs.aws.amazon.com/IAM/latest/UserGuide/reference_policies_grammar.html">AWS IAM Policy Grammar Documentation</a>
+ */
+@Builder
+@Getter
+@EqualsAndHashCode(callSuper = false)
+public class IAMPolicyDocument extends DelegateCFSectionBuilder {
+
+    /**
+     * The version of the policy language the documents are written in.
+     */
+    public static final String VERSION = "\"2012-10-17\"";
+
+    private final List<IAMPolicyStatement> statements;
+
+    @Override
+    protected CFSectionBuilder delegate() {
+        return aggregating(
+                singleLine("Version", VERSION),
+                titleWithAggregateBuilders("Statement", listOf(statements))
+        );
+    }
+}
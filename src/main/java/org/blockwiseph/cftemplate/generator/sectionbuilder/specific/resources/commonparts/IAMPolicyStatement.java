@@ -0,0 +1,49 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts;
+
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromPlainStrings;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.listOf;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
+
+import java.util.List;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.DelegateCFSectionBuilder;
+import com.google.common.collect.ImmutableList;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Value class representing a statement of an IAM policy document, which allows actions, e.g. "dynamodb:GetItem", on
+ * resources. The resources are values of the template, e.g. getAttArn("Table"), and default to all resources.
+ * This is used in
+ * @see org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.IAMPolicyDocument
+ *
+ * @see <a href="https://docs.aws.amazon.com/IAM/latest/UserGuide/reference_policies_elements_statement.html">AWS IAM Statement Documentation</a>
+ */
+@Builder(toBuilder = true)
+@Getter
+@EqualsAndHashCode(callSuper = false)
+public class IAMPolicyStatement extends DelegateCFSectionBuilder {
+
+    /**
+     * The value of a resource that stands for all resources.
+     */
+    public static final String ALL_RESOURCES = "\"*\"";
+
+    private final List<String> actions;
+
+    @Builder.Default
+    private final List<String> resources = ImmutableList.of(ALL_RESOURCES);
+
+    @Override
+    protected CFSectionBuilder delegate() {
+        return aggregating(
+                singleLine("Effect", "Allow"),
+                titleWithAggregateBuilders("Action", listOf(fromPlainStrings(actions))),
+                titleWithAggregateBuilders("Resource", listOf(fromPlainStrings(resources)))
+        );
+    }
+}
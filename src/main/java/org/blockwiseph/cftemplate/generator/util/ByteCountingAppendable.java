@@ -0,0 +1,71 @@
+package org.blockwiseph.cftemplate.generator.util;
+
+import java.io.IOException;
+import java.util.function.LongConsumer;
+
+/**
+ * An Appendable that passes everything appended to it on to another Appendable, while counting the number of bytes it
+ * is encoded to as UTF-8, as counted by
+ * @see org.blockwiseph.cftemplate.generator.util.Utf8ByteEmitter
+ *
+ * The bytes of each append can also be passed to a listener before they are passed on, e.g. to keep a running total
+ * shared by several appendables, or to check it against a quota.
+ */
+public final class ByteCountingAppendable implements Appendable {
+
+    private final Appendable out;
+    private final LongConsumer bytesListener;
+
+    private long bytes;
+
+    /**
+     * @param out the Appendable to pass the appended characters on to
+     */
+    public ByteCountingAppendable(final Appendable out) {
+        this(out, null);
+    }
+
+    /**
+     * @param out           the Appendable to pass the appended characters on to
+     * @param bytesListener called with the number of bytes of each append, before the characters are passed on, or
+     *                      null
+     */
+    public ByteCountingAppendable(final Appendable out, final LongConsumer bytesListener) {
+        this.out = out;
+        this.bytesListener = bytesListener;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) throws IOException {
+        return append(csq, 0, String.valueOf(csq).length());
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+        final CharSequence chars = csq == null ? "null" : csq;
+        addBytes(Utf8ByteEmitter.encodedLength(chars, start, end));
+        out.append(chars, start, end);
+        return this;
+    }
+
+    @Override
+    public Appendable append(final char c) throws IOException {
+        addBytes(Utf8ByteEmitter.encodedLength(c));
+        out.append(c);
+        return this;
+    }
+
+    private void addBytes(final long appendedBytes) {
+        bytes += appendedBytes;
+        if (bytesListener != null) {
+            bytesListener.accept(appendedBytes);
+        }
+    }
+
+    /**
+     * @return the number of bytes of the characters appended so far, encoded as UTF-8
+     */
+    public long getBytes() {
+        return bytes;
+    }
+}
@@ -4,8 +4,13 @@ import com.amazonaws.http.HttpMethodName;
 import com.google.common.collect.ImmutableList;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFIntrinsicFunctions;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionRenderer;
 import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.APIResponse.APIResponseParameters;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -14,9 +19,6 @@ import static org.apache.commons.lang3.StringUtils.repeat;
 import static org.apache.commons.lang3.StringUtils.replace;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromPlainString;
 import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromPlainStrings;
-import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.listOf;
-import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
-import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
 
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class CFGeneratorUtils {
@@ -24,6 +26,14 @@ public class CFGeneratorUtils {
     public static final String NO_VALUE = "Ref: \"AWS::NoValue\"";
 
     private static final int YAML_INDENT_SIZE = 2;
+    private static final int CACHED_INDENTATION_DEPTHS = 32;
+    private static final String[] INDENTATIONS = new String[CACHED_INDENTATION_DEPTHS];
+
+    static {
+        for (int depth = 0; depth < CACHED_INDENTATION_DEPTHS; depth++) {
+            INDENTATIONS[depth] = repeat(SPACE, YAML_INDENT_SIZE * depth);
+        }
+    }
 
     /**
      * Indents a multi line string by 2 on each line.
@@ -36,6 +46,38 @@ public class CFGeneratorUtils {
         return indent + replace(str, "\n", "\n" + indent);
     }
 
+    /**
+     * Appends the indentation for the given depth, which is 2 spaces per depth level.
+     *
+     * @param out   the Appendable to append the indentation to
+     * @param depth the indentation depth
+     * @throws IOException if appending to out fails
+     */
+    public static void appendYmlIndentation(final Appendable out, final int depth) throws IOException {
+        out.append(depth < CACHED_INDENTATION_DEPTHS ? INDENTATIONS[depth] : repeat(SPACE, YAML_INDENT_SIZE * depth));
+    }
+
+    /**
+     * Appends a multi line string, with every line after the first one indented to the given depth.
+     * The first line is appended as is, as it is expected to be positioned by the caller already.
+     *
+     * @param out   the Appendable to append the string to
+     * @param str   the string to append
+     * @param depth the indentation depth of every line after the first one
+     * @throws IOException if appending to out fails
+     */
+    public static void appendYmlIndented(final Appendable out, final String str, final int depth) throws IOException {
+        int lineStart = 0;
+        int lineEnd = str.indexOf('\n');
+        while (lineEnd >= 0) {
+            out.append(str, lineStart, lineEnd + 1);
+            appendYmlIndentation(out, depth);
+            lineStart = lineEnd + 1;
+            lineEnd = str.indexOf('\n', lineStart);
+        }
+        out.append(str, lineStart, str.length());
+    }
+
     /**
      * Prepends !Ref to a resource Id. Useful for adding references to other cloud formation resources.
      *
@@ -49,6 +91,10 @@ public class CFGeneratorUtils {
     /**
      * Generates a cloud formation field using the Fn::If function. It uses the conditionId as the condition, and plugs
      * valueIfTrue and valueIfFalse as the true and false values.
+     * The function is rendered on the lines after the key it is the value of, so the field can be placed after the key
+     * of a single line. To place the function in another section without rendering it to a string first, use
+     * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFIntrinsicFunctions#ifCondition(String,
+     * CFSectionBuilder, CFSectionBuilder)
      *
      * @param conditionId  the condition Id
      * @param valueIfTrue  the value if the condition is true
@@ -56,29 +102,23 @@ public class CFGeneratorUtils {
      * @return a string representing the conditional value using cloud formation Fn::If function
      */
     public static String conditionalValue(final String conditionId, final String valueIfTrue, final String valueIfFalse) {
-        return "\n" + ymlIndent(
-                titleWithAggregateBuilders("Fn::If", listOf(
-                        fromPlainString(conditionId),
-                        fromPlainString(valueIfTrue),
-                        fromPlainString(valueIfFalse)
-                )).getSectionContents()
-        );
+        return fieldValue(CFIntrinsicFunctions.ifCondition(conditionId,
+                fromPlainString(valueIfTrue),
+                fromPlainString(valueIfFalse)));
     }
 
     /**
      * Generates a cloud formation field using the Fn::Join function. It joins the substrings with the provided delimiter.
+     * The function is rendered on the lines after the key it is the value of, like the one of conditionalValue. To place
+     * the function in another section without rendering it to a string first, use
+     * @see org.blockwiseph.cftemplate.generator.sectionbuilder.CFIntrinsicFunctions#join(String, java.util.List)
      *
      * @param delimiter  the delimiter to use when joining using Fn::Join
      * @param substrings Varargs/array of the substrings to join
      * @return a string representing the join using cloud formation Fn::Join function
      */
     public static String joining(final String delimiter, final String... substrings) {
-        return "\n" + ymlIndent(
-                titleWithAggregateBuilders("Fn::Join", listOf(
-                        fromPlainString("\"" + delimiter + "\""),
-                        listOf(fromPlainStrings(ImmutableList.copyOf(substrings)))
-                )).getSectionContents()
-        );
+        return fieldValue(CFIntrinsicFunctions.join(delimiter, fromPlainStrings(ImmutableList.copyOf(substrings))));
     }
 
     /**
@@ -99,8 +139,7 @@ public class CFGeneratorUtils {
      * @return Fn::GetAtt function to get the Arn of the resource id
      */
     public static String getAttArn(final String resourceId) {
-        return singleLine("Fn::GetAtt", "[" + resourceId + ", Arn]")
-                .getSectionContents();
+        return CFIntrinsicFunctions.getAttArn(resourceId).getSectionContents();
     }
 
     /**
@@ -111,8 +150,22 @@ public class CFGeneratorUtils {
      * @return !GetAtt function to get the attribute of the resource id
      */
     public static String getATTAttribute(final String resourceId, final String attribute) {
-        return fromPlainString("!GetAtt " + resourceId + "." + attribute)
-                .getSectionContents();
+        return CFIntrinsicFunctions.getAtt(resourceId, attribute).getSectionContents();
+    }
+
+    /**
+     * Renders a section as the value of a field, on the lines after its key, indented once.
+     * The section is rendered indented in a single pass, instead of being rendered and then indented.
+     */
+    private static String fieldValue(final CFSectionBuilder sectionBuilder) {
+        final StringBuilder out = new StringBuilder("\n");
+        try {
+            appendYmlIndentation(out, 1);
+            CFSectionRenderer.render(sectionBuilder, out, 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to render field value", e);
+        }
+        return out.toString();
     }
 
     /**
@@ -0,0 +1,54 @@
+package org.blockwiseph.cftemplate.generator.util;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * An Appendable that passes everything appended to it on to another Appendable, while computing a fingerprint of it.
+ * The fingerprint is a 128 bit murmur3 hash of the appended characters, which is stable across JVMs and runs, so it
+ * can be stored and compared with the fingerprint of a later run to detect whether the contents changed.
+ */
+public final class FingerprintingAppendable implements Appendable {
+
+    private final Appendable out;
+    private final Hasher hasher = Hashing.murmur3_128().newHasher();
+
+    /**
+     * @param out the Appendable to pass the appended characters on to
+     */
+    public FingerprintingAppendable(final Appendable out) {
+        this.out = out;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) throws IOException {
+        return append(csq, 0, String.valueOf(csq).length());
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+        final CharSequence chars = csq == null ? "null" : csq;
+        hasher.putUnencodedChars(CharBuffer.wrap(chars, start, end));
+        out.append(chars, start, end);
+        return this;
+    }
+
+    @Override
+    public Appendable append(final char c) throws IOException {
+        hasher.putChar(c);
+        out.append(c);
+        return this;
+    }
+
+    /**
+     * Returns the fingerprint of the characters appended so far. This can only be called once.
+     *
+     * @return the fingerprint as a hex string
+     */
+    public String fingerprint() {
+        return hasher.hash().toString();
+    }
+}
@@ -0,0 +1,41 @@
+package org.blockwiseph.cftemplate.generator.util;
+
+import java.io.IOException;
+
+/**
+ * An Appendable that passes everything appended to it on to two other Appendables, first to one and then to the other.
+ */
+public final class TeeAppendable implements Appendable {
+
+    private final Appendable out;
+    private final Appendable copy;
+
+    /**
+     * @param out  the Appendable to pass the appended characters on to first
+     * @param copy the Appendable to pass the appended characters on to after out
+     */
+    public TeeAppendable(final Appendable out, final Appendable copy) {
+        this.out = out;
+        this.copy = copy;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) throws IOException {
+        return append(csq, 0, String.valueOf(csq).length());
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+        final CharSequence chars = csq == null ? "null" : csq;
+        out.append(chars, start, end);
+        copy.append(chars, start, end);
+        return this;
+    }
+
+    @Override
+    public Appendable append(final char c) throws IOException {
+        out.append(c);
+        copy.append(c);
+        return this;
+    }
+}
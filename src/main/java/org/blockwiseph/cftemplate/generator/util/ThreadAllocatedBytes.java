@@ -0,0 +1,57 @@
+package org.blockwiseph.cftemplate.generator.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.function.LongSupplier;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * Reads the number of bytes allocated by the current thread, on JVMs that measure it, such as HotSpot.
+ *
+ * The com.sun.management API that measures it is only referenced by a holder class, which is loaded once the JVM is
+ * known to have it, so this class still links on JVMs that do not.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ThreadAllocatedBytes {
+
+    private static final LongSupplier ALLOCATED_BYTES = allocatedBytesSupplier();
+
+    /**
+     * @return the number of bytes allocated by the current thread since it started, or -1 if the JVM does not measure
+     *         it
+     */
+    public static long current() {
+        return ALLOCATED_BYTES == null ? -1 : ALLOCATED_BYTES.getAsLong();
+    }
+
+    private static LongSupplier allocatedBytesSupplier() {
+        try {
+            Class.forName("com.sun.management.ThreadMXBean", false, ThreadAllocatedBytes.class.getClassLoader());
+            return HotSpotAllocatedBytes.supplier(ManagementFactory.getThreadMXBean());
+        } catch (ClassNotFoundException | LinkageError | UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Holds the only references to the com.sun.management API, so it is only linked when this class is loaded.
+     */
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class HotSpotAllocatedBytes {
+
+        private static LongSupplier supplier(final ThreadMXBean threadMXBean) {
+            if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+                return null;
+            }
+            final com.sun.management.ThreadMXBean allocationMeasuringThreadMXBean =
+                    (com.sun.management.ThreadMXBean) threadMXBean;
+            if (!allocationMeasuringThreadMXBean.isThreadAllocatedMemorySupported()
+                    || !allocationMeasuringThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+                return null;
+            }
+            return () -> allocationMeasuringThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package org.blockwiseph.cftemplate.generator.util;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.blockwiseph.cftemplate.generator.AWSResourceType;
+
+/**
+ * An Appendable that encodes the template to UTF-8 as it is appended, into a list of byte buffers that are written to
+ * a channel with gathering writes, so the template is never held as a String, nor encoded by a CharsetEncoder.
+ *
+ * The strings appended most often, which are the indentations, separators, resource types and the keys of the template
+ * structure written by the section builders, are encoded once up front and kept as pre-encoded tokens shared by all
+ * emitters, so appending them whole only copies their bytes. More tokens can be added with preEncode, up to MAX_TOKENS
+ * tokens. The values of the template, such as names and ARNs, are never pre-encoded implicitly, since they are rarely
+ * appended twice. Other strings are encoded directly, with a fast path for ASCII. Unpaired surrogates are encoded as
+ * '?', like the template file saver does.
+ *
+ * Tokens are copied into the buffers rather than written as buffers of their own, since a gathering write of many
+ * buffers of a few bytes is slower than copying them.
+ *
+ * If a chunk consumer is set, each buffer is passed on to it as soon as it is full, instead of being kept by the
+ * emitter, so the template can be written while it is emitted.
+ */
+public final class Utf8ByteEmitter implements Appendable {
+
+    private static final int CHUNK_BYTES = 64 * 1024;
+    private static final int MAX_TOKEN_CHARS = 64;
+    private static final int MAX_TOKENS = 4096;
+    private static final int PRE_ENCODED_INDENTATION_DEPTHS = 32;
+    private static final int YAML_INDENT_SIZE = 2;
+
+    private static final int MAX_CHAR_BYTES = 4;
+    private static final int ONE_BYTE_LIMIT = 0x80;
+    private static final int TWO_BYTE_LIMIT = 0x800;
+    private static final int TWO_BYTE_LEAD = 0xc0;
+    private static final int THREE_BYTE_LEAD = 0xe0;
+    private static final int FOUR_BYTE_LEAD = 0xf0;
+    private static final int CONTINUATION = 0x80;
+    private static final int CONTINUATION_BITS = 6;
+    private static final int CONTINUATION_MASK = 0x3f;
+    private static final int THREE_BYTE_LEAD_SHIFT = 12;
+    private static final int FOUR_BYTE_LEAD_SHIFT = 18;
+    private static final byte REPLACEMENT = '?';
+
+    private static final Map<String, ByteBuffer> TOKENS = new ConcurrentHashMap<>();
+    private static final String[] SEPARATORS = {": ", ":\n", "\n", "- "};
+    private static final String[] KEYS = {
+        "AWSTemplateFormatVersion", "Description", "Parameters", "Conditions", "Resources", "Outputs",
+        "Type", "Properties", "DependsOn", "Condition", "Default", "Value", "Export", "Name",
+        "Ref", "Fn::GetAtt", "Fn::Sub", "Fn::Join", "Fn::If", "Fn::Equals", "Fn::ImportValue",
+    };
+
+    static {
+        final StringBuilder indentation = new StringBuilder();
+        for (int depth = 0; depth < PRE_ENCODED_INDENTATION_DEPTHS; depth++) {
+            preEncode(indentation.toString());
+            for (int i = 0; i < YAML_INDENT_SIZE; i++) {
+                indentation.append(' ');
+            }
+        }
+        for (final AWSResourceType resourceType : AWSResourceType.values()) {
+            preEncode(resourceType.toString());
+        }
+        for (final String separator : SEPARATORS) {
+            preEncode(separator);
+        }
+        for (final String key : KEYS) {
+            preEncode(key);
+        }
+    }
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final ChunkConsumer chunkConsumer;
+
+    private ByteBuffer chunk;
+    private long passedOnBytes;
+    private boolean hasPendingHighSurrogate;
+    private char pendingHighSurrogate;
+
+    public Utf8ByteEmitter() {
+        this(null);
+    }
+
+    /**
+     * @param chunkConsumer the consumer to pass each buffer on to as soon as it is full, or null to keep the buffers
+     */
+    public Utf8ByteEmitter(final ChunkConsumer chunkConsumer) {
+        this.chunkConsumer = chunkConsumer;
+    }
+
+    /**
+     * Pre-encodes a string that is expected to be appended many times, such as a property key, if the maximum number
+     * of tokens is not reached yet. Strings longer than MAX_TOKEN_CHARS or with surrogates are not pre-encoded.
+     *
+     * @param token the string to pre-encode
+     */
+    public static void preEncode(final String token) {
+        if (TOKENS.size() < MAX_TOKENS && token.length() <= MAX_TOKEN_CHARS && !TOKENS.containsKey(token)
+                && hasNoSurrogates(token)) {
+            TOKENS.putIfAbsent(token, ByteBuffer.wrap(token.getBytes(UTF_8)).asReadOnlyBuffer());
+        }
+    }
+
+    /**
+     * Counts the bytes the characters are encoded to, counting a surrogate pair as 4 bytes for its high surrogate.
+     *
+     * @param csq   the characters to count the bytes of
+     * @param start the index of the first character
+     * @param end   the index after the last character
+     * @return the number of bytes of the characters, encoded as UTF-8
+     */
+    public static long encodedLength(final CharSequence csq, final int start, final int end) {
+        long length = 0;
+        for (int i = start; i < end; i++) {
+            length += encodedLength(csq.charAt(i));
+        }
+        return length;
+    }
+
+    /**
+     * @param c the character to count the bytes of
+     * @return the number of bytes the character is encoded to, which is 4 for a high surrogate, and 0 for a low
+     *         surrogate, as they are encoded together
+     */
+    public static int encodedLength(final char c) {
+        if (c < ONE_BYTE_LIMIT) {
+            return 1;
+        } else if (c < TWO_BYTE_LIMIT) {
+            return 2;
+        } else if (Character.isHighSurrogate(c)) {
+            return MAX_CHAR_BYTES;
+        } else if (Character.isLowSurrogate(c)) {
+            return 0;
+        }
+        return MAX_CHAR_BYTES - 1;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) throws IOException {
+        return append(csq, 0, String.valueOf(csq).length());
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+        final CharSequence chars = csq == null ? "null" : csq;
+        if (start == 0 && end == chars.length() && !hasPendingHighSurrogate && chars instanceof String) {
+            final ByteBuffer token = TOKENS.get(chars);
+            if (token != null) {
+                putToken(token.duplicate());
+                return this;
+            }
+        }
+        for (int i = start; i < end; i++) {
+            encode(chars.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(final char c) throws IOException {
+        encode(c);
+        return this;
+    }
+
+    /**
+     * @return the number of bytes emitted so far, including a trailing high surrogate as the byte it is encoded as if
+     *         nothing follows it
+     */
+    public long size() {
+        long size = passedOnBytes + (hasPendingHighSurrogate ? 1 : 0);
+        for (final ByteBuffer emitted : chunks) {
+            size += emitted.position();
+        }
+        return size;
+    }
+
+    /**
+     * Passes the bytes emitted so far on to the chunk consumer, including a trailing high surrogate as the byte it is
+     * encoded as if nothing follows it. This must be called once everything has been appended to an emitter with a
+     * chunk consumer.
+     *
+     * @throws IOException if the chunk consumer fails
+     */
+    public void flush() throws IOException {
+        flushPendingHighSurrogate();
+        if (chunkConsumer != null && chunk != null && chunk.position() > 0) {
+            passOnChunk();
+            chunk = null;
+        }
+    }
+
+    /**
+     * Writes the bytes emitted so far to a channel, with as few gathering writes as the channel allows. The emitter can
+     * be written more than once, and appended to after it is written.
+     *
+     * @param channel the channel to write to
+     * @throws IOException if writing to the channel fails
+     */
+    public void writeTo(final GatheringByteChannel channel) throws IOException {
+        flushPendingHighSurrogate();
+        final ByteBuffer[] buffers = new ByteBuffer[chunks.size()];
+        long remaining = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = chunks.get(i).duplicate();
+            buffers[i].flip();
+            remaining += buffers[i].remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+    }
+
+    /**
+     * @return the emitted bytes decoded as a String
+     */
+    @Override
+    public String toString() {
+        final StringBuilder decoded = new StringBuilder();
+        for (final ByteBuffer emitted : chunks) {
+            decoded.append(new String(emitted.array(), emitted.arrayOffset(), emitted.position(), UTF_8));
+        }
+        if (hasPendingHighSurrogate) {
+            decoded.append((char) REPLACEMENT);
+        }
+        return decoded.toString();
+    }
+
+    private void putToken(final ByteBuffer token) throws IOException {
+        if (chunk == null || chunk.remaining() < token.remaining()) {
+            newChunk();
+        }
+        chunk.put(token);
+    }
+
+    private void encode(final char c) throws IOException {
+        if (chunk == null || chunk.remaining() < MAX_CHAR_BYTES) {
+            newChunk();
+        }
+        if (hasPendingHighSurrogate) {
+            hasPendingHighSurrogate = false;
+            if (Character.isLowSurrogate(c)) {
+                putCodePoint(Character.toCodePoint(pendingHighSurrogate, c));
+                return;
+            }
+            chunk.put(REPLACEMENT);
+        }
+        if (c < ONE_BYTE_LIMIT) {
+            chunk.put((byte) c);
+        } else if (c < TWO_BYTE_LIMIT) {
+            chunk.put((byte) (TWO_BYTE_LEAD | c >> CONTINUATION_BITS));
+            chunk.put(continuation(c, 0));
+        } else if (Character.isHighSurrogate(c)) {
+            hasPendingHighSurrogate = true;
+            pendingHighSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            chunk.put(REPLACEMENT);
+        } else {
+            chunk.put((byte) (THREE_BYTE_LEAD | c >> THREE_BYTE_LEAD_SHIFT));
+            chunk.put(continuation(c, 1));
+            chunk.put(continuation(c, 0));
+        }
+    }
+
+    private void putCodePoint(final int codePoint) {
+        chunk.put((byte) (FOUR_BYTE_LEAD | codePoint >> FOUR_BYTE_LEAD_SHIFT));
+        chunk.put(continuation(codePoint, 2));
+        chunk.put(continuation(codePoint, 1));
+        chunk.put(continuation(codePoint, 0));
+    }
+
+    private void flushPendingHighSurrogate() throws IOException {
+        if (hasPendingHighSurrogate) {
+            hasPendingHighSurrogate = false;
+            if (chunk == null || !chunk.hasRemaining()) {
+                newChunk();
+            }
+            chunk.put(REPLACEMENT);
+        }
+    }
+
+    private void newChunk() throws IOException {
+        if (chunkConsumer != null && chunk != null) {
+            passOnChunk();
+        }
+        chunk = ByteBuffer.allocate(CHUNK_BYTES);
+        if (chunkConsumer == null) {
+            chunks.add(chunk);
+        }
+    }
+
+    private void passOnChunk() throws IOException {
+        passedOnBytes += chunk.position();
+        chunk.flip();
+        chunkConsumer.accept(chunk);
+    }
+
+    private static byte continuation(final int c, final int position) {
+        return (byte) (CONTINUATION | c >> (position * CONTINUATION_BITS) & CONTINUATION_MASK);
+    }
+
+    private static boolean hasNoSurrogates(final String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (Character.isSurrogate(token.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Receives the buffers of an emitter as they are filled, flipped for reading.
+     */
+    @FunctionalInterface
+    public interface ChunkConsumer {
+        void accept(ByteBuffer chunk) throws IOException;
+    }
+}
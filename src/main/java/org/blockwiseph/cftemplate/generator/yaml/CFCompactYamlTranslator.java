@@ -0,0 +1,99 @@
+package org.blockwiseph.cftemplate.generator.yaml;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.YamlEventParser;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderOptions;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionRenderer;
+
+/**
+ * An Appendable that translates the YAML written to it by the section builders into compact YAML, as it is written.
+ * The compact YAML has the same structure with less whitespace:
+ * - mappings and sequences whose values are all scalars or intrinsic functions (the leaves of the template) are
+ *   written in flow style, e.g. "Key: {AttributeName: id,KeyType: HASH}",
+ * - other mappings and sequences are written in block style, indented by a single space per level,
+ * - intrinsic functions are written in flow style, in their long form, or in their short form if shortFunctions is
+ *   set, e.g. "!GetAtt Role.Arn" for "Fn::GetAtt: [Role, Arn]",
+ * - quoted scalars are unquoted when that does not change their type, and there are no blank lines between sections.
+ *
+ * The top level sections and the entries of the sections are translated as they are written, so only one entry of a
+ * section, e.g. a resource, is held in memory at a time. The YAML supported by the translator is described in
+ * @see org.blockwiseph.cftemplate.generator.node.YamlEventParser
+ */
+public final class CFCompactYamlTranslator implements Appendable {
+
+    private final YamlEventParser parser;
+
+    /**
+     * @param out            the Appendable to write the compact YAML to
+     * @param shortFunctions whether to write the intrinsic functions in their short form, or in their long form
+     */
+    public CFCompactYamlTranslator(final Appendable out, final boolean shortFunctions) {
+        this.parser = new YamlEventParser(new CompactYamlEventHandler(new CompactYamlWriter(out, shortFunctions)));
+    }
+
+    /**
+     * Renders the section builder as compact YAML, and returns the rendered contents.
+     *
+     * @param sectionBuilder the section builder to render
+     * @param options        the options to render with
+     * @param shortFunctions whether to write the intrinsic functions in their short form, or in their long form
+     * @return the contents of the section as compact YAML
+     * @throws IllegalArgumentException if the section contents can not be parsed
+     */
+    public static String renderToString(final CFSectionBuilder sectionBuilder, final CFRenderOptions options,
+                                        final boolean shortFunctions) {
+        final StringBuilder out = new StringBuilder();
+        final CFCompactYamlTranslator translator = new CFCompactYamlTranslator(out, shortFunctions);
+        try {
+            CFSectionRenderer.render(sectionBuilder, translator, 0, options);
+            translator.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to render section contents", e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes a node of the typed template model as compact YAML.
+     *
+     * @param node           the node to write
+     * @param out            the Appendable to write the compact YAML to
+     * @param shortFunctions whether to write the intrinsic functions in their short form, or in their long form
+     * @throws IOException if writing to the Appendable fails
+     */
+    public static void writeCompactYaml(final CFNode node, final Appendable out, final boolean shortFunctions)
+            throws IOException {
+        new CompactYamlWriter(out, shortFunctions).writeRoot(node);
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq) throws IOException {
+        parser.append(csq);
+        return this;
+    }
+
+    @Override
+    public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+        parser.append(csq, start, end);
+        return this;
+    }
+
+    @Override
+    public Appendable append(final char c) throws IOException {
+        parser.append(c);
+        return this;
+    }
+
+    /**
+     * Translates the last line. This must be called once everything has been written to the translator.
+     *
+     * @throws IOException if writing the compact YAML fails
+     */
+    public void finish() throws IOException {
+        parser.finish();
+    }
+}
@@ -0,0 +1,117 @@
+package org.blockwiseph.cftemplate.generator.yaml;
+
+import java.io.IOException;
+
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.CFNodeBuilder;
+import org.blockwiseph.cftemplate.generator.node.CFNodeEventHandler;
+import org.blockwiseph.cftemplate.generator.node.CFNodes;
+
+/**
+ * Writes the structure of a template as compact YAML. The template mapping and the mappings of its sections are
+ * written as their keys arrive, while every other value is built into a node, and written once it is complete, since
+ * whether a mapping or sequence is written in flow style depends on its values.
+ */
+final class CompactYamlEventHandler implements CFNodeEventHandler {
+
+    private static final int STREAMED_MAPPINGS = 2;
+
+    private final CompactYamlWriter writer;
+
+    private int streamedMappings;
+    private String key;
+    private CFNodeBuilder value;
+    private int valueDepth;
+
+    CompactYamlEventHandler(final CompactYamlWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void beginMapping() throws IOException {
+        if (value == null && streamedMappings < STREAMED_MAPPINGS) {
+            if (key != null) {
+                writer.writeKey(key, streamedMappings - 1);
+                key = null;
+            }
+            streamedMappings++;
+            return;
+        }
+        beginValue().beginMapping();
+    }
+
+    @Override
+    public void key(final String mappingKey) {
+        if (value != null) {
+            value.key(mappingKey);
+        } else {
+            key = mappingKey;
+        }
+    }
+
+    @Override
+    public void endMapping() throws IOException {
+        if (value == null) {
+            streamedMappings--;
+            return;
+        }
+        value.endMapping();
+        endValue();
+    }
+
+    @Override
+    public void beginSequence() {
+        beginValue().beginSequence();
+    }
+
+    @Override
+    public void endSequence() throws IOException {
+        value.endSequence();
+        endValue();
+    }
+
+    @Override
+    public void scalar(final String scalar, final boolean plain) throws IOException {
+        if (value != null) {
+            value.scalar(scalar, plain);
+        } else {
+            write(CFNodes.scalar(scalar, plain));
+        }
+    }
+
+    @Override
+    public void beginFunction(final String functionName) {
+        beginValue().beginFunction(functionName);
+    }
+
+    @Override
+    public void endFunction() throws IOException {
+        value.endFunction();
+        endValue();
+    }
+
+    private CFNodeBuilder beginValue() {
+        if (value == null) {
+            value = new CFNodeBuilder();
+        }
+        valueDepth++;
+        return value;
+    }
+
+    private void endValue() throws IOException {
+        if (--valueDepth == 0) {
+            final CFNode node = value.build();
+            value = null;
+            write(node);
+        }
+    }
+
+    private void write(final CFNode node) throws IOException {
+        if (key == null) {
+            writer.writeRoot(node);
+        } else {
+            writer.writeEntry(key, node, streamedMappings - 1, true);
+            key = null;
+        }
+    }
+}
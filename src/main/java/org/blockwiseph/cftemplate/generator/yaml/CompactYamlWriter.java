@@ -0,0 +1,272 @@
+package org.blockwiseph.cftemplate.generator.yaml;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.blockwiseph.cftemplate.generator.node.CFNode;
+import org.blockwiseph.cftemplate.generator.node.IntrinsicFunctionNode;
+import org.blockwiseph.cftemplate.generator.node.MappingNode;
+import org.blockwiseph.cftemplate.generator.node.ScalarNode;
+import org.blockwiseph.cftemplate.generator.node.SequenceNode;
+
+/**
+ * Writes nodes as compact YAML, as described in
+ * @see org.blockwiseph.cftemplate.generator.yaml.CFCompactYamlTranslator
+ */
+final class CompactYamlWriter {
+
+    private static final String FUNCTION_PREFIX = "Fn::";
+    private static final String GET_ATT = "Fn::GetAtt";
+    private static final String FLOW_INDICATORS = ",[]{}";
+    private static final String INDICATORS = "-?:,[]{}#&*!|>'\"%@`";
+    private static final String NULL = "~";
+    private static final String HEX_DIGITS = "0123456789abcdef";
+    private static final int FIRST_PRINTABLE_CHAR = 0x20;
+    private static final int HEX_DIGIT_BITS = 4;
+    private static final int HEX_DIGIT_MASK = 0xf;
+    private static final int UNICODE_ESCAPE_DIGITS = 4;
+
+    /**
+     * Strings that can be written without quotes, which excludes the ones YAML 1.1 types as booleans or null.
+     */
+    private static final Pattern PLAIN_STRING = Pattern.compile("[A-Za-z][A-Za-z0-9_./:-]*");
+    private static final Pattern NON_STRING = Pattern.compile(
+            "y|Y|yes|Yes|YES|n|N|no|No|NO|true|True|TRUE|false|False|FALSE|on|On|ON|off|Off|OFF|null|Null|NULL");
+
+    private final Appendable out;
+    private final boolean shortFunctions;
+
+    CompactYamlWriter(final Appendable out, final boolean shortFunctions) {
+        this.out = out;
+        this.shortFunctions = shortFunctions;
+    }
+
+    /**
+     * Writes a template, or a section of it, with the mapping of the template and the mappings of its sections always
+     * in block style, like the translator streams them.
+     */
+    void writeRoot(final CFNode node) throws IOException {
+        if (node instanceof MappingNode) {
+            for (final MappingNode.Entry section : ((MappingNode) node).getEntries()) {
+                if (section.getValue() instanceof MappingNode) {
+                    writeKey(section.getKey(), 0);
+                    for (final MappingNode.Entry entry : ((MappingNode) section.getValue()).getEntries()) {
+                        writeEntry(entry.getKey(), entry.getValue(), 1, true);
+                    }
+                } else {
+                    writeEntry(section.getKey(), section.getValue(), 0, true);
+                }
+            }
+        } else if (isBlock(node)) {
+            writeBlock(node, 0);
+        } else {
+            writeFlow(node);
+            out.append('\n');
+        }
+    }
+
+    /**
+     * Writes the key of a mapping written in block style, on a line of its own.
+     */
+    void writeKey(final String key, final int indent) throws IOException {
+        appendIndentation(indent);
+        out.append(keyText(key)).append(":\n");
+    }
+
+    void writeEntry(final String key, final CFNode value, final int indent, final boolean indented) throws IOException {
+        if (indented) {
+            appendIndentation(indent);
+        }
+        out.append(keyText(key)).append(':');
+        if (isBlock(value)) {
+            out.append('\n');
+            writeBlock(value, indent + 1);
+            return;
+        }
+        if (!isEmptyNull(value)) {
+            out.append(' ');
+            writeFlow(value);
+        }
+        out.append('\n');
+    }
+
+    private void writeBlock(final CFNode node, final int indent) throws IOException {
+        if (node instanceof MappingNode) {
+            for (final MappingNode.Entry entry : ((MappingNode) node).getEntries()) {
+                writeEntry(entry.getKey(), entry.getValue(), indent, true);
+            }
+            return;
+        }
+        for (final CFNode item : ((SequenceNode) node).getItems()) {
+            appendIndentation(indent);
+            out.append('-');
+            if (item instanceof MappingNode && isBlock(item)) {
+                final List<MappingNode.Entry> entries = ((MappingNode) item).getEntries();
+                out.append(' ');
+                for (int i = 0; i < entries.size(); i++) {
+                    writeEntry(entries.get(i).getKey(), entries.get(i).getValue(), indent + 2, i > 0);
+                }
+            } else if (isBlock(item)) {
+                out.append('\n');
+                writeBlock(item, indent + 1);
+            } else {
+                out.append(' ');
+                writeFlow(item);
+                out.append('\n');
+            }
+        }
+    }
+
+    private void writeFlow(final CFNode node) throws IOException {
+        if (node instanceof MappingNode) {
+            out.append('{');
+            boolean first = true;
+            for (final MappingNode.Entry entry : ((MappingNode) node).getEntries()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                out.append(keyText(entry.getKey())).append(": ");
+                writeFlow(entry.getValue());
+            }
+            out.append('}');
+        } else if (node instanceof SequenceNode) {
+            out.append('[');
+            boolean first = true;
+            for (final CFNode item : ((SequenceNode) node).getItems()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeFlow(item);
+            }
+            out.append(']');
+        } else if (node instanceof IntrinsicFunctionNode) {
+            writeFunction((IntrinsicFunctionNode) node, shortFunctions);
+        } else {
+            out.append(scalarText((ScalarNode) node));
+        }
+    }
+
+    /**
+     * Writes a function in its short form, e.g. "!Ref Bucket", or in its long form, e.g. "{Ref: Bucket}". The argument of
+     * a function in its short form can not be a function in its short form too, since a value can only have one tag.
+     */
+    private void writeFunction(final IntrinsicFunctionNode function, final boolean shortForm) throws IOException {
+        final String name = function.getFunctionName();
+        final CFNode argument = function.getArgument();
+        if (!shortForm) {
+            out.append('{').append(keyText(name)).append(": ");
+            writeFlow(argument);
+            out.append('}');
+            return;
+        }
+        out.append('!').append(name.startsWith(FUNCTION_PREFIX) ? name.substring(FUNCTION_PREFIX.length()) : name)
+                .append(' ');
+        if (GET_ATT.equals(name) && isDottedAttribute(argument)) {
+            final List<CFNode> items = ((SequenceNode) argument).getItems();
+            out.append(((ScalarNode) items.get(0)).getValue()).append('.').append(((ScalarNode) items.get(1)).getValue());
+        } else if (argument instanceof IntrinsicFunctionNode) {
+            writeFunction((IntrinsicFunctionNode) argument, false);
+        } else {
+            writeFlow(argument);
+        }
+    }
+
+    /**
+     * @return whether the node is a mapping or sequence with a mapping or sequence in it, which is written in block
+     *         style, while the others are written in flow style
+     */
+    private static boolean isBlock(final CFNode node) {
+        if (node instanceof MappingNode) {
+            return ((MappingNode) node).getEntries().stream().anyMatch(entry -> isContainer(entry.getValue()));
+        }
+        return node instanceof SequenceNode && ((SequenceNode) node).getItems().stream().anyMatch(
+                CompactYamlWriter::isContainer);
+    }
+
+    private static boolean isContainer(final CFNode node) {
+        return node instanceof MappingNode || node instanceof SequenceNode;
+    }
+
+    private static boolean isEmptyNull(final CFNode node) {
+        return node instanceof ScalarNode && ((ScalarNode) node).isPlain() && ((ScalarNode) node).getValue().isEmpty();
+    }
+
+    private static boolean isDottedAttribute(final CFNode argument) {
+        if (!(argument instanceof SequenceNode) || ((SequenceNode) argument).getItems().size() != 2) {
+            return false;
+        }
+        for (final CFNode item : ((SequenceNode) argument).getItems()) {
+            if (!(item instanceof ScalarNode) || !PLAIN_STRING.matcher(((ScalarNode) item).getValue()).matches()) {
+                return false;
+            }
+        }
+        return ((ScalarNode) ((SequenceNode) argument).getItems().get(0)).getValue().indexOf('.') < 0;
+    }
+
+    /**
+     * @return the scalar as it is written in flow style: plain scalars as they are, unless they start with an indicator
+     *         or contain flow indicators, e.g. "*", and quoted scalars without quotes if they are still strings
+     *         without them
+     */
+    private static String scalarText(final ScalarNode scalar) {
+        final String value = scalar.getValue();
+        if (!scalar.isPlain()) {
+            return isPlainString(value) ? value : quoted(value);
+        } else if (value.isEmpty()) {
+            return NULL;
+        } else if (scalar.isNull() || scalar.isBoolean() || scalar.isNumber()) {
+            return value;
+        }
+        return INDICATORS.indexOf(value.charAt(0)) >= 0 || hasFlowIndicator(value) || value.endsWith(":")
+                ? quoted(value)
+                : value;
+    }
+
+    private static String keyText(final String key) {
+        return isPlainString(key) ? key : quoted(key);
+    }
+
+    private static boolean isPlainString(final String value) {
+        return PLAIN_STRING.matcher(value).matches() && !value.endsWith(":") && !NON_STRING.matcher(value).matches();
+    }
+
+    private static boolean hasFlowIndicator(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (FLOW_INDICATORS.indexOf(value.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String quoted(final String value) {
+        final StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c == '\n') {
+                quoted.append("\\n");
+            } else if (c == '\t') {
+                quoted.append("\\t");
+            } else if (c < FIRST_PRINTABLE_CHAR) {
+                quoted.append("\\u");
+                for (int digit = UNICODE_ESCAPE_DIGITS - 1; digit >= 0; digit--) {
+                    quoted.append(HEX_DIGITS.charAt(c >> (digit * HEX_DIGIT_BITS) & HEX_DIGIT_MASK));
+                }
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private void appendIndentation(final int indent) throws IOException {
+        for (int i = 0; i < indent; i++) {
+            out.append(' ');
+        }
+    }
+}
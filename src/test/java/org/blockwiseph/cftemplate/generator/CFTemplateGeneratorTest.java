@@ -0,0 +1,97 @@
+package org.blockwiseph.cftemplate.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.blockwiseph.cftemplate.generator.util.Utf8ByteEmitter;
+import org.junit.After;
+import org.junit.Test;
+
+public class CFTemplateGeneratorTest {
+
+    private static final int LINES = 100_000;
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ByteArrayOutputStream savedTemplate = new ByteArrayOutputStream();
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void generateCFTemplateAsyncSavesTemplateLargerThanQueueWithSingleThreadExecutor() throws Exception {
+        final CFTemplateGenerator generator = streamingGenerator(cfTemplate -> {
+            try {
+                for (int line = 0; line < LINES; line++) {
+                    cfTemplate.append("  Resource").append(Integer.toString(line)).append(":\n");
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        generator.generateCFTemplateAsync(executor).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        final StringBuilder expected = new StringBuilder();
+        for (int line = 0; line < LINES; line++) {
+            expected.append("  Resource").append(line).append(":\n");
+        }
+        assertEquals(expected.toString(), new String(savedTemplate.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void generateCFTemplateAsyncFailsWithoutSavingWhenRenderingFailsWithSingleThreadExecutor()
+            throws Exception {
+        final IllegalStateException renderFailure = new IllegalStateException("Invalid template");
+        final CFTemplateGenerator generator = streamingGenerator(cfTemplate -> {
+            throw renderFailure;
+        });
+
+        try {
+            generator.generateCFTemplateAsync(executor).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            fail("Expected rendering to fail");
+        } catch (ExecutionException e) {
+            assertEquals(renderFailure, e.getCause());
+        }
+        assertEquals(0, savedTemplate.size());
+    }
+
+    @Test
+    public void generateCFTemplateAsyncFailsWithoutSavingWhenRenderingFailsWithError() throws Exception {
+        final AssertionError renderFailure = new AssertionError("Invalid template");
+        final CFTemplateGenerator generator = streamingGenerator(cfTemplate -> {
+            throw renderFailure;
+        });
+
+        try {
+            generator.generateCFTemplateAsync(executor).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            fail("Expected rendering to fail");
+        } catch (ExecutionException e) {
+            assertEquals(renderFailure, e.getCause());
+        }
+        assertEquals(0, savedTemplate.size());
+    }
+
+    private CFTemplateGenerator streamingGenerator(final Consumer<Utf8ByteEmitter> streamingCFTemplateSupplier) {
+        return new CFTemplateGenerator(null, null, null, null, streamingCFTemplateSupplier, chunks -> {
+            try {
+                chunks.drainTo(Channels.newChannel(savedTemplate));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
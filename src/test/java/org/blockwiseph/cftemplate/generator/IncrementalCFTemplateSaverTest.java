@@ -0,0 +1,76 @@
+package org.blockwiseph.cftemplate.generator;
+
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.description;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import com.google.common.collect.ImmutableList;
+
+public class IncrementalCFTemplateSaverTest {
+
+    private static final long TIMEOUT_SECONDS = 30;
+    private static final FileTime LONG_AGO = FileTime.fromMillis(0);
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void generateCFTemplateSavesTemplateWithItsFingerprintsOnlyWhenItChanged() throws Exception {
+        final File templateFile = new File(folder.getRoot(), "template.yml");
+
+        incrementalGenerator(templateFile, "First").generateCFTemplate();
+        final Path indexFile = CFTemplateFingerprints.indexFileOf(templateFile.getPath());
+        final CFTemplateFingerprints firstFingerprints = CFTemplateFingerprints.read(indexFile).get();
+        Files.setLastModifiedTime(templateFile.toPath(), LONG_AGO);
+
+        incrementalGenerator(templateFile, "First").generateCFTemplate();
+        assertEquals(LONG_AGO, Files.getLastModifiedTime(templateFile.toPath()));
+
+        incrementalGenerator(templateFile, "Second").generateCFTemplate();
+        assertEquals("Description: Second", new String(Files.readAllBytes(templateFile.toPath()), StandardCharsets.UTF_8));
+        assertNotEquals(firstFingerprints, CFTemplateFingerprints.read(indexFile).get());
+    }
+
+    @Test
+    public void generateCFTemplateAsyncSavesTheFingerprintsOfTheTemplateItSaves() throws Exception {
+        final File firstFile = new File(folder.getRoot(), "first.yml");
+        final File secondFile = new File(folder.getRoot(), "second.yml");
+        incrementalGenerator(firstFile, "Same").generateCFTemplate();
+        final CFTemplateFingerprints expected =
+                CFTemplateFingerprints.read(CFTemplateFingerprints.indexFileOf(firstFile.getPath())).get();
+
+        incrementalGenerator(secondFile, "Same").generateCFTemplateAsync(executor).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(expected,
+                CFTemplateFingerprints.read(CFTemplateFingerprints.indexFileOf(secondFile.getPath())).get());
+    }
+
+    private static CFTemplateGenerator incrementalGenerator(final File templateFile, final String description) {
+        return CFTemplateGeneratorModule.builder()
+                .cfTemplateFilePath(templateFile.getPath())
+                .topLevelSectionBuilders(ImmutableList.of(description(description)))
+                .incremental(true)
+                .build()
+                .getCFTemplateGenerator();
+    }
+}
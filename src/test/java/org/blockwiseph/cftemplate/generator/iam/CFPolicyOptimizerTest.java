@@ -0,0 +1,184 @@
+package org.blockwiseph.cftemplate.generator.iam;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.blockwiseph.cftemplate.generator.json.CFJsonTranslator;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderOptions;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.IAMPolicyDocument;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.commonparts.IAMPolicyStatement;
+import org.junit.Test;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+public class CFPolicyOptimizerTest {
+
+    private static final String BUCKET = "arn:aws:s3:::bucket/*";
+    private static final String TABLE = "arn:aws:dynamodb:us-east-1:123456789012:table/Table";
+    private static final String QUEUE = "arn:aws:sqs:us-east-1:123456789012:Queue";
+    private static final long MAX_POLICY_BYTES = 1_000;
+
+    @Test
+    public void wildcardsMatchIgnoringCase() {
+        assertTrue(CFPolicyOptimizer.matches("s3:Get*", "S3:getObject"));
+        assertTrue(CFPolicyOptimizer.matches("s3:?etObject", "s3:GetObject"));
+        assertTrue(CFPolicyOptimizer.matches("s3:Get*Acl", "s3:GetObjectAcl"));
+        assertTrue(CFPolicyOptimizer.matches("*", "dynamodb:Query"));
+        assertFalse(CFPolicyOptimizer.matches("s3:Get*", "s3:PutObject"));
+        assertFalse(CFPolicyOptimizer.matches("s3:*Object", "s3:GetObjectAcl"));
+        assertFalse(CFPolicyOptimizer.matches("s3:?Object", "s3:GetObject"));
+    }
+
+    @Test
+    public void statementsOnTheSameResourcesAreMergedWithoutDuplicateOrMatchedActions() {
+        final CFOptimizedPolicies optimized = CFPolicyOptimizer.builder().build().optimize(ImmutableList.of(
+                statement(BUCKET, "s3:GetObject", "s3:PutObject"),
+                statement(TABLE, "dynamodb:Query"),
+                statement(BUCKET, "S3:getobject", "s3:Get*", "s3:GetObjectAcl"),
+                statement(TABLE, "dynamodb:*", "s3:GetObject")));
+
+        assertEquals(ImmutableList.of(IAMPolicyDocument.builder().statements(ImmutableList.of(
+                statement(BUCKET, "s3:PutObject", "s3:Get*"),
+                statement(TABLE, "dynamodb:*", "s3:GetObject"))).build()), optimized.getInlinePolicies());
+        assertEquals(ImmutableList.of(), optimized.getManagedPolicies());
+        assertEquals(8, optimized.getActionCount());
+        assertEquals(4, optimized.getCompactedActionCount());
+    }
+
+    @Test
+    public void actionsOfWildcardServicesAreCollapsed() {
+        final CFOptimizedPolicies optimized = CFPolicyOptimizer.builder()
+                .wildcardServices(ImmutableSet.of("Logs"))
+                .build()
+                .optimize(ImmutableList.of(
+                        statement(BUCKET, "logs:CreateLogGroup", "s3:GetObject", "logs:PutLogEvents")));
+
+        assertEquals(ImmutableList.of(statement(BUCKET, "logs:*", "s3:GetObject")),
+                optimized.getInlinePolicies().get(0).getStatements());
+    }
+
+    @Test
+    public void allActionsWildcardRemovesEveryOtherAction() {
+        final CFOptimizedPolicies optimized = CFPolicyOptimizer.builder().build()
+                .optimize(ImmutableList.of(statement(BUCKET, "s3:GetObject", "*", "dynamodb:Query")));
+
+        assertEquals(ImmutableList.of(statement(BUCKET, "*")), optimized.getInlinePolicies().get(0).getStatements());
+    }
+
+    @Test
+    public void noStatementsNeedNoPolicies() {
+        final CFOptimizedPolicies optimized = CFPolicyOptimizer.builder().build().optimize(ImmutableList.of());
+
+        assertEquals(ImmutableList.of(), optimized.getInlinePolicies());
+        assertEquals(ImmutableList.of(), optimized.getManagedPolicies());
+    }
+
+    @Test
+    public void documentBytesAreTheCharactersOfTheCompactJsonDocument() {
+        final List<IAMPolicyStatement> statements = ImmutableList.of(
+                statement(BUCKET, "s3:GetObject", "s3:PutObject"),
+                IAMPolicyStatement.builder().actions(ImmutableList.of("dynamodb:Query")).build(),
+                statement("\"" + TABLE + "\"", "dynamodb:GetItem"));
+
+        assertEquals(json(statements).length(), CFPolicyOptimizer.documentBytes(statements));
+    }
+
+    @Test
+    public void statementTooLargeForAPolicyIsSplitAcrossPoliciesWithinTheLimits() {
+        final List<String> actions = actions("s3:GetObjectVersion", 100);
+        final CFOptimizedPolicies optimized = CFPolicyOptimizer.builder()
+                .maxInlinePolicyBytes(MAX_POLICY_BYTES)
+                .maxManagedPolicyBytes(MAX_POLICY_BYTES)
+                .build()
+                .optimize(ImmutableList.of(statement(BUCKET, actions)));
+
+        final List<IAMPolicyDocument> policies = new ArrayList<>(optimized.getInlinePolicies());
+        policies.addAll(optimized.getManagedPolicies());
+        assertTrue(optimized.getManagedPolicies().size() > 1);
+        assertEquals(actions, policies.stream()
+                .flatMap(policy -> policy.getStatements().stream())
+                .flatMap(statement -> statement.getActions().stream())
+                .collect(Collectors.toList()));
+        for (final IAMPolicyDocument policy : policies) {
+            assertTrue(json(policy.getStatements()).length() <= MAX_POLICY_BYTES);
+            assertEquals(json(policy.getStatements()).length(), CFPolicyOptimizer.documentBytes(policy.getStatements()));
+        }
+    }
+
+    @Test
+    public void statementsArePackedIntoTheFirstPolicyWithRoomForThem() {
+        final IAMPolicyStatement bucketStatement = statement(BUCKET, actions("s3:GetObjectVersion", 20));
+        final IAMPolicyStatement tableStatement = statement(TABLE, actions("dynamodb:GetItem", 20));
+        final IAMPolicyStatement queueStatement = statement(QUEUE, "sqs:SendMessage");
+        final CFOptimizedPolicies optimized = CFPolicyOptimizer.builder()
+                .maxInlinePolicyBytes(MAX_POLICY_BYTES)
+                .maxManagedPolicyBytes(MAX_POLICY_BYTES)
+                .build()
+                .optimize(ImmutableList.of(bucketStatement, tableStatement, queueStatement));
+
+        assertEquals(ImmutableList.of(bucketStatement, queueStatement),
+                optimized.getInlinePolicies().get(0).getStatements());
+        assertEquals(1, optimized.getManagedPolicies().size());
+        assertEquals(ImmutableList.of(tableStatement), optimized.getManagedPolicies().get(0).getStatements());
+        assertEquals(ImmutableList.of(CFPolicyOptimizer.documentBytes(ImmutableList.of(tableStatement))),
+                optimized.getManagedPolicyBytes());
+    }
+
+    @Test
+    public void statementsNeedingMoreManagedPoliciesThanTheMaximumFail() {
+        final CFPolicyOptimizer optimizer = CFPolicyOptimizer.builder()
+                .maxInlinePolicyBytes(MAX_POLICY_BYTES)
+                .maxManagedPolicyBytes(MAX_POLICY_BYTES)
+                .maxManagedPolicies(1)
+                .build();
+
+        try {
+            optimizer.optimize(ImmutableList.of(statement(BUCKET, actions("s3:GetObjectVersion", 100))));
+            fail("Expected optimizing to fail");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().endsWith("managed policies, more than the maximum of 1"));
+        }
+    }
+
+    @Test
+    public void actionThatDoesNotFitInAPolicyFails() {
+        final CFPolicyOptimizer optimizer = CFPolicyOptimizer.builder()
+                .maxInlinePolicyBytes(MAX_POLICY_BYTES / 10)
+                .build();
+
+        try {
+            optimizer.optimize(ImmutableList.of(statement(TABLE, "dynamodb:GetItem", "dynamodb:PutItem")));
+            fail("Expected optimizing to fail");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Action dynamodb:GetItem on [" + TABLE + "] does not fit in a policy of 100 characters",
+                    e.getMessage());
+        }
+    }
+
+    private static IAMPolicyStatement statement(final String resource, final String... actions) {
+        return statement(resource, ImmutableList.copyOf(actions));
+    }
+
+    private static IAMPolicyStatement statement(final String resource, final List<String> actions) {
+        return IAMPolicyStatement.builder().actions(actions).resources(ImmutableList.of(resource)).build();
+    }
+
+    private static List<String> actions(final String prefix, final int count) {
+        final List<String> actions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            actions.add(prefix + i);
+        }
+        return actions;
+    }
+
+    private static String json(final List<IAMPolicyStatement> statements) {
+        return CFJsonTranslator.renderToString(IAMPolicyDocument.builder().statements(statements).build(),
+                CFRenderOptions.SEQUENTIAL, false);
+    }
+}
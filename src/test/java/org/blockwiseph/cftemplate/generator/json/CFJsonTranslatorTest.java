@@ -0,0 +1,132 @@
+package org.blockwiseph.cftemplate.generator.json;
+
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFIntrinsicFunctions.findInMap;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFIntrinsicFunctions.ref;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFIntrinsicFunctions.select;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFIntrinsicFunctions.split;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFIntrinsicFunctions.sub;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromPlainString;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.listOf;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.NO_VALUE;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.conditionalValue;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.getATTAttribute;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.getAttArn;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.joining;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.referencing;
+import static org.blockwiseph.cftemplate.generator.util.CFGeneratorUtils.resourceEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderOptions;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.junit.Test;
+import com.google.common.collect.ImmutableMap;
+
+public class CFJsonTranslatorTest {
+
+    @Test
+    public void generatorUtilsFunctionsAreWrittenInTheirLongForm() {
+        final CFSectionBuilder properties = titleWithAggregateBuilders("Properties",
+                singleLine("Ref", referencing("Stage")),
+                singleLine("If", conditionalValue("IsProd", "a", "b")),
+                singleLine("Join", joining("-", "x", referencing("Stage"))),
+                singleLine("Equals", resourceEquals("Stage", "prod")),
+                singleLine("Arn", getAttArn("Role")),
+                singleLine("RoleId", getATTAttribute("Role", "RoleId")),
+                titleWithAggregateBuilders("NoValue", fromPlainString(NO_VALUE)));
+
+        assertEquals("{\"Properties\":{"
+                + "\"Ref\":{\"Ref\":\"Stage\"},"
+                + "\"If\":{\"Fn::If\":[\"IsProd\",\"a\",\"b\"]},"
+                + "\"Join\":{\"Fn::Join\":[\"-\",[\"x\",{\"Ref\":\"Stage\"}]]},"
+                + "\"Equals\":{\"Fn::Equals\":[{\"Ref\":\"Stage\"},\"prod\"]},"
+                + "\"Arn\":{\"Fn::GetAtt\":[\"Role\",\"Arn\"]},"
+                + "\"RoleId\":{\"Fn::GetAtt\":[\"Role\",\"RoleId\"]},"
+                + "\"NoValue\":{\"Ref\":\"AWS::NoValue\"}}}", compact(properties));
+    }
+
+    @Test
+    public void intrinsicFunctionBuildersAreWrittenInTheirLongForm() {
+        final CFSectionBuilder properties = titleWithAggregateBuilders("Properties",
+                singleLine("Sub", sub("${Stage}-bucket")),
+                singleLine("SubVariables", sub("${Name}-${Stage}", ImmutableMap.of("Name", ref("Bucket")))),
+                singleLine("Select", select(0, split(",", ref("Subnets")))),
+                singleLine("FindInMap", findInMap("Regions", ref("AWS::Region"), fromPlainString("Ami"))));
+
+        assertEquals("{\"Properties\":{"
+                + "\"Sub\":{\"Fn::Sub\":\"${Stage}-bucket\"},"
+                + "\"SubVariables\":{\"Fn::Sub\":[\"${Name}-${Stage}\",{\"Name\":{\"Ref\":\"Bucket\"}}]},"
+                + "\"Select\":{\"Fn::Select\":[0,{\"Fn::Split\":[\",\",{\"Ref\":\"Subnets\"}]}]},"
+                + "\"FindInMap\":{\"Fn::FindInMap\":[\"Regions\",{\"Ref\":\"AWS::Region\"},\"Ami\"]}}}",
+                compact(properties));
+    }
+
+    @Test
+    public void scalarsAreWrittenWithTheirJsonTypes() {
+        final CFSectionBuilder properties = titleWithAggregateBuilders("Properties",
+                singleLine("Port", 80),
+                singleLine("Enabled", true),
+                singleLine("Version", "'80'"),
+                singleLine("Empty", "~"),
+                singleLine("Quoted", "\"a: b\""),
+                singleLine("Single", "'it''s'"),
+                singleLine("Escaped", "\"tab\\there \\u00e9\""),
+                singleLine("Block", "|\n  line1\n  line2"));
+
+        assertEquals("{\"Properties\":{"
+                + "\"Port\":80,"
+                + "\"Enabled\":true,"
+                + "\"Version\":\"80\","
+                + "\"Empty\":null,"
+                + "\"Quoted\":\"a: b\","
+                + "\"Single\":\"it's\","
+                + "\"Escaped\":\"tab\\there \u00e9\","
+                + "\"Block\":\"line1\\nline2\\n\"}}", compact(properties));
+    }
+
+    @Test
+    public void nestedListsAndFlowCollectionsAreWrittenAsArraysAndObjects() {
+        final CFSectionBuilder properties = titleWithAggregateBuilders("Properties",
+                titleWithAggregateBuilders("Nested",
+                        listOf(listOf(fromPlainString("a"), fromPlainString("b")), fromPlainString("c"))),
+                singleLine("Flow", "{ Key: Stage, Value: !Ref Stage }"),
+                singleLine("FlowList", "!If [IsProd, [a, b], !Ref \"AWS::NoValue\"]"));
+
+        assertEquals("{\"Properties\":{"
+                + "\"Nested\":[[\"a\",\"b\"],\"c\"],"
+                + "\"Flow\":{\"Key\":\"Stage\",\"Value\":{\"Ref\":\"Stage\"}},"
+                + "\"FlowList\":{\"Fn::If\":[\"IsProd\",[\"a\",\"b\"],{\"Ref\":\"AWS::NoValue\"}]}}}",
+                compact(properties));
+    }
+
+    @Test
+    public void prettyJsonIsIndentedWithTwoSpaces() {
+        final CFSectionBuilder properties = titleWithAggregateBuilders("Properties",
+                singleLine("Join", joining("-", "x", referencing("Stage"))),
+                titleWithAggregateBuilders("List", listOf(fromPlainString("a"))));
+
+        assertEquals("{\n"
+                + "  \"Properties\": {\n"
+                + "    \"Join\": {\n"
+                + "      \"Fn::Join\": [\n"
+                + "        \"-\",\n"
+                + "        [\n"
+                + "          \"x\",\n"
+                + "          {\n"
+                + "            \"Ref\": \"Stage\"\n"
+                + "          }\n"
+                + "        ]\n"
+                + "      ]\n"
+                + "    },\n"
+                + "    \"List\": [\n"
+                + "      \"a\"\n"
+                + "    ]\n"
+                + "  }\n"
+                + "}", CFJsonTranslator.renderToString(properties, CFRenderOptions.SEQUENTIAL, true));
+    }
+
+    private static String compact(final CFSectionBuilder sectionBuilder) {
+        return CFJsonTranslator.renderToString(sectionBuilder, CFRenderOptions.SEQUENTIAL, false);
+    }
+}
@@ -0,0 +1,151 @@
+package org.blockwiseph.cftemplate.generator.nested;
+
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.aggregating;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromPlainString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.blockwiseph.cftemplate.generator.CFStackDefinition;
+import org.blockwiseph.cftemplate.generator.CFTemplateLimits;
+import org.blockwiseph.cftemplate.generator.json.CFJsonTranslator;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFRenderOptions;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionRenderer;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.OutputCFSectionBuilder;
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.ParameterCFSectionBuilder;
+import org.junit.Test;
+import com.google.common.collect.ImmutableList;
+
+public class CFNestedStackSplitterTest {
+
+    private static final CFTemplateLimits ONE_RESOURCE_PER_STACK = CFTemplateLimits.builder().maxResources(1).build();
+
+    @Test
+    public void stackWithinTheQuotasIsNotSplit() {
+        final List<CFStackDefinition> stacks = CFNestedStackSplitter.builder()
+                .stackName("stack")
+                .cfTemplateFilePath("stack.yml")
+                .description("Stack")
+                .resources(ImmutableList.of(resource("Queue", "Name"), resource("Topic", "!Ref Queue")))
+                .build()
+                .split();
+
+        assertEquals(1, stacks.size());
+        assertEquals("stack", stacks.get(0).getStackName());
+        assertEquals("stack.yml", stacks.get(0).getCfTemplateFilePath());
+        assertEquals("Description: Stack\n"
+                + "Resources:\n"
+                + "  Queue:\n    Type: AWS::SNS::Topic\n    Properties:\n      TopicName: Name\n"
+                + "  Topic:\n    Type: AWS::SNS::Topic\n    Properties:\n      TopicName: !Ref Queue",
+                render(stacks.get(0)));
+    }
+
+    @Test
+    public void resourceReferencedFromAnotherNestedStackIsOutputAndPassedAsParameter() {
+        final List<CFStackDefinition> stacks = CFNestedStackSplitter.builder()
+                .stackName("stack")
+                .cfTemplateFilePath("out/stack.yml")
+                .templateLimits(ONE_RESOURCE_PER_STACK)
+                .resources(ImmutableList.of(resource("Queue", "!Ref Topic"), resource("Topic", "Name")))
+                .outputs(ImmutableList.of(
+                        OutputCFSectionBuilder.builder().name("QueueName").description("Queue").value("!Ref Queue")
+                                .build()))
+                .build()
+                .split();
+
+        assertEquals(ImmutableList.of("stack", "stack-NestedStack1", "stack-NestedStack2"),
+                stacks.stream().map(CFStackDefinition::getStackName).collect(Collectors.toList()));
+        assertEquals(ImmutableList.of("out/stack.yml", "out/stack-NestedStack1.yml", "out/stack-NestedStack2.yml"),
+                stacks.stream().map(CFStackDefinition::getCfTemplateFilePath).collect(Collectors.toList()));
+        assertEquals("Resources:\n"
+                + "  NestedStack1:\n    Type: AWS::CloudFormation::Stack\n    Properties:\n"
+                + "      TemplateURL: stack-NestedStack1.yml\n"
+                + "  NestedStack2:\n    Type: AWS::CloudFormation::Stack\n    Properties:\n"
+                + "      TemplateURL: stack-NestedStack2.yml\n      Parameters:\n"
+                + "        Topic: !GetAtt NestedStack1.Outputs.Topic\n"
+                + "Outputs:\n"
+                + "  QueueName:\n    Description: \"Queue\"\n"
+                + "    Value: {\"Fn::GetAtt\":[\"NestedStack2\",\"Outputs.Queue\"]}", render(stacks.get(0)));
+        assertEquals("Resources:\n"
+                + "  Topic:\n    Type: AWS::SNS::Topic\n    Properties:\n      TopicName: Name\n"
+                + "Outputs:\n"
+                + "  Topic:\n    Value: !Ref Topic", render(stacks.get(1)));
+        assertEquals("Parameters:\n"
+                + "  Topic:\n    Type: String\n"
+                + "Resources:\n"
+                + "  Queue:\n    Type: AWS::SNS::Topic\n    Properties:\n      TopicName: !Ref Topic\n"
+                + "Outputs:\n"
+                + "  Queue:\n    Value: !Ref Queue", render(stacks.get(2)));
+    }
+
+    @Test
+    public void resourcesNeedingMoreParametersThanTheQuotaFailNamingTheResources() {
+        final CFNestedStackSplitter splitter = CFNestedStackSplitter.builder()
+                .stackName("stack")
+                .cfTemplateFilePath("stack.yml")
+                .templateLimits(CFTemplateLimits.builder().maxResources(2).maxParameters(1).build())
+                .parameters(ImmutableList.of(
+                        ParameterCFSectionBuilder.builder().name("Name1").type("String").description("Name1").build(),
+                        ParameterCFSectionBuilder.builder().name("Name2").type("String").description("Name2").build()))
+                .resources(ImmutableList.of(
+                        resource("Bucket", "Name"),
+                        resource("Role", "!Ref Name1"),
+                        fromPlainString("Function:\n  Type: AWS::Lambda::Function\n  Properties:\n"
+                                + "    FunctionName: !Ref Name2\n    Role: !GetAtt Role.Arn")))
+                .build();
+
+        try {
+            splitter.split();
+            fail("Expected splitting to fail");
+        } catch (IllegalArgumentException e) {
+            assertEquals("NestedStack2 of stack stack needs 2 parameters, more than the quota of 1, for the parameters "
+                    + "and resources of other nested stacks used by its resources [Role, Function], which can not be "
+                    + "split", e.getMessage());
+        }
+    }
+
+    @Test
+    public void listParameterIsPassedToNestedStackJoined() {
+        final List<CFStackDefinition> stacks = CFNestedStackSplitter.builder()
+                .stackName("stack")
+                .cfTemplateFilePath("stack.yml")
+                .templateLimits(ONE_RESOURCE_PER_STACK)
+                .parameters(ImmutableList.of(
+                        ParameterCFSectionBuilder.builder().name("Subnets").type("List<AWS::EC2::Subnet::Id>")
+                                .description("Subnets").build(),
+                        ParameterCFSectionBuilder.builder().name("Stage").type("String").description("Stage").build()))
+                .resources(ImmutableList.of(
+                        resource("Queue", "!Ref Subnets"),
+                        resource("Topic", "!Ref Stage")))
+                .build()
+                .split();
+
+        assertEquals(3, stacks.size());
+        assertEquals("Parameters:\n"
+                + "  Subnets:\n    Type: List<AWS::EC2::Subnet::Id>\n    Description: Subnets\n"
+                + "  Stage:\n    Type: String\n    Description: Stage\n"
+                + "Resources:\n"
+                + "  NestedStack1:\n    Type: AWS::CloudFormation::Stack\n    Properties:\n"
+                + "      TemplateURL: stack-NestedStack1.yml\n      Parameters:\n"
+                + "        Subnets: !Join [ \",\", !Ref Subnets ]\n"
+                + "  NestedStack2:\n    Type: AWS::CloudFormation::Stack\n    Properties:\n"
+                + "      TemplateURL: stack-NestedStack2.yml\n      Parameters:\n"
+                + "        Stage: !Ref Stage", render(stacks.get(0)));
+        final String parentJson = CFJsonTranslator.renderToString(
+                aggregating(stacks.get(0).getTopLevelSectionBuilders()), CFRenderOptions.SEQUENTIAL, false);
+        assertTrue(parentJson, parentJson.contains("\"Subnets\":{\"Fn::Join\":[\",\",{\"Ref\":\"Subnets\"}]}"));
+        assertTrue(render(stacks.get(1)).contains("  Subnets:\n    Type: List<AWS::EC2::Subnet::Id>\n"));
+    }
+
+    private static CFSectionBuilder resource(final String logicalId, final String value) {
+        return fromPlainString(logicalId + ":\n  Type: AWS::SNS::Topic\n  Properties:\n    TopicName: " + value);
+    }
+
+    private static String render(final CFStackDefinition stack) {
+        return CFSectionRenderer.renderToString(aggregating(stack.getTopLevelSectionBuilders()));
+    }
+}
@@ -0,0 +1,112 @@
+package org.blockwiseph.cftemplate.generator.nested;
+
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.fromPlainString;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import com.google.common.collect.ImmutableList;
+
+public class ResourcePartitionerTest {
+
+    private static final int MAX_RESOURCES = 500;
+    private static final long MAX_BYTES = 1 << 20;
+    private static final int MAX_PARAMETERS = 200;
+
+    @Test
+    public void resourcesUsingAttributesOrDependingOnEachOtherAreKeptTogether() {
+        final List<SplitResource> resources = resources(
+                "Role:\n  Type: AWS::IAM::Role",
+                "Bucket:\n  Type: AWS::S3::Bucket",
+                "Function:\n  Type: AWS::Lambda::Function\n  Properties:\n    Role: !GetAtt Role.Arn",
+                "Policy:\n  Type: AWS::S3::BucketPolicy\n  DependsOn: Bucket");
+
+        assertEquals(ImmutableList.of(ImmutableList.of("Role", "Function"), ImmutableList.of("Bucket", "Policy")),
+                logicalIdsOf(ResourcePartitioner.partition(resources, 2, MAX_BYTES, MAX_PARAMETERS, noParameters())));
+    }
+
+    @Test
+    public void resourcesReferencingEachOtherInACycleAreKeptTogether() {
+        final List<SplitResource> resources = resources(
+                "Queue:\n  Type: AWS::SQS::Queue\n  Properties:\n    QueueName: !Ref Topic",
+                "Topic:\n  Type: AWS::SNS::Topic\n  Properties:\n    TopicName: !Ref Queue",
+                "Bucket:\n  Type: AWS::S3::Bucket");
+
+        assertEquals(ImmutableList.of(ImmutableList.of("Queue", "Topic"), ImmutableList.of("Bucket")),
+                logicalIdsOf(ResourcePartitioner.partition(resources, 1, MAX_BYTES, MAX_PARAMETERS, noParameters())));
+    }
+
+    @Test
+    public void referencedResourcesArePutInEarlierNestedStacks() {
+        final List<SplitResource> resources = resources(
+                "Queue:\n  Type: AWS::SQS::Queue\n  Properties:\n    QueueName: !Ref Topic",
+                "Topic:\n  Type: AWS::SNS::Topic\n  Properties:\n    TopicName: !Ref Bucket",
+                "Bucket:\n  Type: AWS::S3::Bucket");
+
+        assertEquals(ImmutableList.of(
+                ImmutableList.of("Bucket"), ImmutableList.of("Topic"), ImmutableList.of("Queue")),
+                logicalIdsOf(ResourcePartitioner.partition(resources, 1, MAX_BYTES, MAX_PARAMETERS, noParameters())));
+    }
+
+    @Test
+    public void nestedStackIsStartedWhenTheResourcesWouldExceedTheMaximumSize() {
+        final List<SplitResource> resources = resources(
+                "Bucket1:\n  Type: AWS::S3::Bucket",
+                "Bucket2:\n  Type: AWS::S3::Bucket",
+                "Bucket3:\n  Type: AWS::S3::Bucket");
+        final long twoResourcesBytes = resources.get(0).getEstimatedBytes() + resources.get(1).getEstimatedBytes();
+
+        assertEquals(ImmutableList.of(ImmutableList.of("Bucket1", "Bucket2"), ImmutableList.of("Bucket3")),
+                logicalIdsOf(ResourcePartitioner.partition(resources, MAX_RESOURCES, twoResourcesBytes,
+                        MAX_PARAMETERS, noParameters())));
+    }
+
+    @Test
+    public void nestedStackIsStartedWhenTheResourcesWouldExceedTheMaximumParameters() {
+        final List<SplitResource> resources = resources(
+                "Bucket1:\n  Type: AWS::S3::Bucket\n  Properties:\n    BucketName: !Ref Name1",
+                "Bucket2:\n  Type: AWS::S3::Bucket\n  Properties:\n    BucketName: !Ref Name1",
+                "Bucket3:\n  Type: AWS::S3::Bucket\n  Properties:\n    BucketName: !Ref Name2");
+
+        assertEquals(ImmutableList.of(ImmutableList.of("Bucket1", "Bucket2"), ImmutableList.of("Bucket3")),
+                logicalIdsOf(ResourcePartitioner.partition(resources, MAX_RESOURCES, MAX_BYTES, 1,
+                        resource -> new HashSet<>(resource.getReferences().getLogicalIds()))));
+    }
+
+    @Test
+    public void groupExceedingTheMaximumsIsPutInANestedStackOfItsOwn() {
+        final List<SplitResource> resources = resources(
+                "Bucket:\n  Type: AWS::S3::Bucket",
+                "Role:\n  Type: AWS::IAM::Role",
+                "Function:\n  Type: AWS::Lambda::Function\n  Properties:\n    Role: !GetAtt Role.Arn");
+
+        assertEquals(ImmutableList.of(ImmutableList.of("Bucket"), ImmutableList.of("Role", "Function")),
+                logicalIdsOf(ResourcePartitioner.partition(resources, 1, MAX_BYTES, MAX_PARAMETERS, noParameters())));
+    }
+
+    private static List<SplitResource> resources(final String... contents) {
+        final List<SplitResource> resources = new ArrayList<>();
+        for (int i = 0; i < contents.length; i++) {
+            resources.add(SplitResource.of(i, fromPlainString(contents[i])));
+        }
+        return resources;
+    }
+
+    private static Function<SplitResource, Set<String>> noParameters() {
+        return resource -> new HashSet<>();
+    }
+
+    private static List<List<String>> logicalIdsOf(final List<List<SplitResource>> nestedStacks) {
+        return nestedStacks.stream()
+                .map(resources -> resources.stream()
+                        .flatMap(resource -> resource.getLogicalIds().stream())
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+}
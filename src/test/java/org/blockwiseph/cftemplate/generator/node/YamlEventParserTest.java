@@ -0,0 +1,88 @@
+package org.blockwiseph.cftemplate.generator.node;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import com.google.common.collect.ImmutableList;
+
+public class YamlEventParserTest {
+
+    @Test
+    public void shortFormFunctionsAreParsedWithTheirLongFormNames() {
+        assertEquals(CFNodes.mapping("Ref", CFNodes.scalar("Bucket", true)), CFNodes.parseValue("!Ref Bucket"));
+        assertEquals(CFNodes.mapping("Fn::GetAtt", CFNodes.sequence(ImmutableList.of(
+                CFNodes.scalar("Role", true), CFNodes.scalar("Arn", true)))), CFNodes.parseValue("!GetAtt Role.Arn"));
+        assertEquals(CFNodes.mapping("Fn::Equals", CFNodes.sequence(ImmutableList.of(
+                CFNodes.mapping("Ref", CFNodes.scalar("Stage", true)), CFNodes.scalar("prod", true)))),
+                CFNodes.parseValue("!Equals [ !Ref Stage, prod ]"));
+    }
+
+    @Test
+    public void longFormFunctionOnTheLineOfItsKeyIsParsedAsAFunction() {
+        assertEquals(CFNodes.mapping("RoleArn", CFNodes.mapping("Fn::GetAtt", CFNodes.sequence(ImmutableList.of(
+                CFNodes.scalar("Role", true), CFNodes.scalar("Arn", true))))),
+                CFNodes.parse("RoleArn: Fn::GetAtt: [Role, Arn]"));
+    }
+
+    @Test
+    public void blockCollectionsAndScalarsAreParsed() {
+        final CFNode parsed = CFNodes.parse("Bucket:\n"
+                + "  Type: AWS::S3::Bucket\n"
+                + "  Tags:\n"
+                + "    - - a\n"
+                + "      - 'b'\n"
+                + "    - Key: \"c: d\"\n"
+                + "  Policy: |\n"
+                + "    line1\n"
+                + "    line2\n");
+
+        assertEquals(CFNodes.mapping("Bucket", CFNodes.mapping(ImmutableList.of(
+                new MappingNode.Entry("Type", CFNodes.scalar("AWS::S3::Bucket", true)),
+                new MappingNode.Entry("Tags", CFNodes.sequence(ImmutableList.of(
+                        CFNodes.sequence(ImmutableList.of(CFNodes.scalar("a", true), CFNodes.scalar("b", false))),
+                        CFNodes.mapping("Key", CFNodes.scalar("c: d", false))))),
+                new MappingNode.Entry("Policy", CFNodes.scalar("line1\nline2\n", false))))), parsed);
+    }
+
+    @Test
+    public void yamlAppendedInPiecesIsParsedLikeTheWholeYaml() throws Exception {
+        final String yaml = "Outputs:\n  Arn:\n    Value: !GetAtt Role.Arn\n";
+        final CFNodeBuilder nodeBuilder = new CFNodeBuilder();
+        final YamlEventParser parser = new YamlEventParser(nodeBuilder);
+        for (int i = 0; i < yaml.length(); i++) {
+            parser.append(yaml.charAt(i));
+        }
+        parser.finish();
+
+        assertEquals(CFNodes.parse(yaml), nodeBuilder.build());
+    }
+
+    @Test
+    public void plainScalarContainingColonFailsNamingTheLine() {
+        assertParseFails("Resources:\n  Description: a: b\n",
+                "Unexpected mapping entry a: b, plain scalars containing \": \" must be quoted at line 2 of the template,"
+                        + " which can not be parsed");
+    }
+
+    @Test
+    public void anchorsFailNamingTheLine() {
+        assertParseFails("Tags: [&tag a]\n",
+                "Anchors and aliases are not supported at line 1 of the template, which can not be parsed");
+    }
+
+    @Test
+    public void tabIndentationFailsNamingTheLine() {
+        assertParseFails("Resources:\n\tBucket: a\n",
+                "Tabs are not allowed for indentation at line 2 of the template, which can not be parsed");
+    }
+
+    private static void assertParseFails(final String yaml, final String message) {
+        try {
+            CFNodes.parse(yaml);
+            fail("Expected parsing to fail");
+        } catch (IllegalArgumentException e) {
+            assertEquals(message, e.getMessage());
+        }
+    }
+}
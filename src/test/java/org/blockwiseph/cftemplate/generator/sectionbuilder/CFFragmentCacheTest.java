@@ -0,0 +1,63 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import lombok.EqualsAndHashCode;
+
+public class CFFragmentCacheTest {
+
+    private static final long CACHE_CHARS = 1 << 20;
+
+    private final CFFragmentCache fragmentCache = new CFFragmentCache(CACHE_CHARS);
+    private final CFRenderOptions options = CFRenderOptions.builder().fragmentCache(fragmentCache).build();
+
+    @Test
+    public void equalFragmentsAreRenderedOnce() {
+        final CFSectionBuilder section = titleWithAggregateBuilders("Section", new Named("a"), new Named("a"));
+
+        assertEquals("Section:\n  Name: a\n  Name: a", CFSectionRenderer.renderToString(section, options));
+        assertEquals(1, fragmentCache.getHits());
+    }
+
+    @Test
+    public void subclassInheritingEqualsIsNotServedTheFragmentOfItsSuperclass() {
+        final CFSectionBuilder section = titleWithAggregateBuilders("Section", new Named("a"), new Renamed("a"));
+
+        assertEquals("Section:\n  Name: a\n  Renamed: a", CFSectionRenderer.renderToString(section, options));
+        assertEquals(0, fragmentCache.getHits());
+    }
+
+    @EqualsAndHashCode(callSuper = false)
+    private static class Named extends DelegateCFSectionBuilder {
+
+        private final String name;
+
+        Named(final String name) {
+            this.name = name;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        @Override
+        protected CFSectionBuilder delegate() {
+            return singleLine("Name", name);
+        }
+    }
+
+    private static final class Renamed extends Named {
+
+        Renamed(final String name) {
+            super(name);
+        }
+
+        @Override
+        protected CFSectionBuilder delegate() {
+            return singleLine("Renamed", getName());
+        }
+    }
+}
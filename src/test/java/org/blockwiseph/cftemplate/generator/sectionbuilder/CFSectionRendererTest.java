@@ -0,0 +1,61 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.resources;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.S3Bucket;
+import org.junit.After;
+import org.junit.Test;
+
+public class CFSectionRendererTest {
+
+    private static final int BUCKETS = 200;
+    private static final int PARALLEL_THRESHOLD = 2;
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void renderInParallelOnTheThreadOfASingleThreadExecutorRendersLikeSequentialRendering() throws Exception {
+        final CFSectionBuilder resources = resources(buckets());
+        final CFRenderOptions options = CFRenderOptions.builder()
+                .executor(executor)
+                .parallelThreshold(PARALLEL_THRESHOLD)
+                .build();
+
+        final String contents = executor.submit(() -> CFSectionRenderer.renderToString(resources, options))
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(CFSectionRenderer.renderToString(resources), contents);
+    }
+
+    @Test
+    public void renderInParallelRendersLikeSequentialRendering() {
+        final CFSectionBuilder resources = resources(buckets());
+        final CFRenderOptions options = CFRenderOptions.builder()
+                .executor(executor)
+                .parallelThreshold(PARALLEL_THRESHOLD)
+                .build();
+
+        assertEquals(CFSectionRenderer.renderToString(resources), CFSectionRenderer.renderToString(resources, options));
+    }
+
+    private static CFSectionBuilder[] buckets() {
+        final List<CFSectionBuilder> buckets = new ArrayList<>();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            buckets.add(S3Bucket.builder().resourceId("Bucket" + bucket).bucketName("bucket-" + bucket).build());
+        }
+        return buckets.toArray(new CFSectionBuilder[0]);
+    }
+}
@@ -0,0 +1,73 @@
+package org.blockwiseph.cftemplate.generator.sectionbuilder;
+
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.resources;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.singleLine;
+import static org.blockwiseph.cftemplate.generator.sectionbuilder.CFSectionBuilderFactory.titleWithAggregateBuilders;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.blockwiseph.cftemplate.generator.sectionbuilder.specific.resources.S3Bucket;
+import org.junit.Test;
+
+public class DelegateCFSectionBuilderTest {
+
+    private static final long CACHE_CHARS = 1 << 20;
+
+    @Test
+    public void renderingUsesOverriddenSectionContentsInsideOtherSections() {
+        final CFSectionBuilder sectionBuilder = new DelegateCFSectionBuilder() {
+            @Override
+            public String getSectionContents() {
+                return "Decorated:\n  " + super.getSectionContents();
+            }
+
+            @Override
+            protected CFSectionBuilder delegate() {
+                return singleLine("Key", "Value");
+            }
+        };
+
+        assertEquals("Decorated:\n  Key: Value", sectionBuilder.getSectionContents());
+        assertEquals("Section:\n  Decorated:\n    Key: Value",
+                CFSectionRenderer.renderToString(titleWithAggregateBuilders("Section", sectionBuilder)));
+    }
+
+    @Test
+    public void renderingUsesOverriddenRenderInsideOtherSections() {
+        final AtomicInteger renders = new AtomicInteger();
+        final CFSectionBuilder sectionBuilder = new DelegateCFSectionBuilder() {
+            @Override
+            public void render(final Appendable out, final int depth) throws IOException {
+                renders.incrementAndGet();
+                super.render(out, depth);
+            }
+
+            @Override
+            protected CFSectionBuilder delegate() {
+                return singleLine("Key", "Value");
+            }
+        };
+
+        assertEquals("Section:\n  Key: Value",
+                CFSectionRenderer.renderToString(titleWithAggregateBuilders("Section", sectionBuilder)));
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    public void memoizedDelegatesWithValueEqualityAreLookedUpInFragmentCache() {
+        final CFFragmentCache fragmentCache = new CFFragmentCache(CACHE_CHARS);
+        final CFRenderOptions options = CFRenderOptions.builder()
+                .fragmentCache(fragmentCache)
+                .memoizeDelegates(true)
+                .build();
+        final CFSectionBuilder bucket = S3Bucket.builder().resourceId("Bucket").bucketName("bucket").build();
+        final CFSectionBuilder equalBucket = S3Bucket.builder().resourceId("Bucket").bucketName("bucket").build();
+
+        final String contents = CFSectionRenderer.renderToString(resources(bucket, equalBucket), options);
+
+        assertEquals(CFSectionRenderer.renderToString(resources(bucket, bucket)), contents);
+        assertEquals(1, fragmentCache.getHits());
+    }
+}
@@ -0,0 +1,66 @@
+package org.blockwiseph.cftemplate.generator.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class Utf8ByteEmitterTest {
+
+    private final ByteArrayOutputStream emitted = new ByteArrayOutputStream();
+    private final Utf8ByteEmitter emitter = new Utf8ByteEmitter(this::collect);
+
+    @Test
+    public void appendEncodesTokensAndValuesLikeStringEncoding() throws IOException {
+        final String template = "Resources:\n  Bucket:\n    Type: AWS::S3::Bucket\n    Properties:\n"
+                + "      BucketName: café-€-😀\n";
+
+        emitter.append("Resources").append(":\n").append("  ").append("Bucket").append(":\n").append("    ")
+                .append("Type").append(": ").append("AWS::S3::Bucket").append("\n").append("    ")
+                .append("Properties").append(":\n").append("      ").append("BucketName").append(": ")
+                .append("café-€-😀").append('\n');
+        emitter.flush();
+
+        assertEquals(template, new String(emitted.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(template.getBytes(StandardCharsets.UTF_8).length, emitter.size());
+    }
+
+    @Test
+    public void appendEncodesSurrogatePairSplitAcrossAppends() throws IOException {
+        emitter.append("\ud83d").append("\ude00");
+        emitter.flush();
+
+        assertEquals("😀", new String(emitted.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void appendEncodesUnpairedSurrogateAsReplacement() throws IOException {
+        emitter.append("a\ude00b").append('\ud83d');
+        emitter.flush();
+
+        assertEquals("a?b?", new String(emitted.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void appendEncodesValuesRepeatedManyTimes() throws IOException {
+        final StringBuilder expected = new StringBuilder();
+        for (int value = 0; value < 10_000; value++) {
+            final String arn = "arn:aws:s3:::bucket-" + value;
+            emitter.append(arn).append(arn);
+            expected.append(arn).append(arn);
+        }
+        emitter.flush();
+
+        assertEquals(expected.toString(), new String(emitted.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private void collect(final ByteBuffer chunk) {
+        while (chunk.hasRemaining()) {
+            emitted.write(chunk.get());
+        }
+    }
+}